@@ -0,0 +1,102 @@
+package com.codenjoy.dojo.benchmarks;
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2018 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.services.EventListener;
+import com.codenjoy.dojo.services.GameType;
+import com.codenjoy.dojo.services.Joystick;
+import com.codenjoy.dojo.services.multiplayer.GameField;
+import com.codenjoy.dojo.services.multiplayer.MultiplayerType;
+import com.codenjoy.dojo.services.multiplayer.Single;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Одно поле с несколькими игроками - без сервера, как это делает PlayerGames:
+ * команды игрокам, тик поля, новая игра для тех, кто проиграл.
+ */
+public class Arena {
+
+    private static final EventListener NO_EVENTS = event -> {};
+
+    private final GameType type;
+    private final GameField field;
+    private final List<Single> games = new LinkedList<>();
+    private final Random random = new Random(42);
+
+    public Arena(Games game, int scale, int players) {
+        type = game.type(scale);
+        field = type.createGame(0);
+        for (int index = 0; index < players; index++) {
+            Single single = new Single(type.createPlayer(NO_EVENTS, "player" + index),
+                    type.getPrinterFactory(),
+                    MultiplayerType.MULTIPLE);
+            single.on(field);
+            single.newGame();
+            games.add(single);
+        }
+    }
+
+    public GameType type() {
+        return type;
+    }
+
+    public GameField field() {
+        return field;
+    }
+
+    public List<Single> games() {
+        return games;
+    }
+
+    public void act() {
+        for (Single game : games) {
+            command(game.getJoystick(), random);
+        }
+    }
+
+    public void tick() {
+        field.tick();
+        for (Single game : games) {
+            if (game.isGameOver()) {
+                game.newGame();
+            }
+        }
+    }
+
+    public Object print(int index) {
+        return games.get(index).getBoardAsString();
+    }
+
+    public static void command(Joystick joystick, Random random) {
+        switch (random.nextInt(5)) {
+            case 0: joystick.up(); break;
+            case 1: joystick.down(); break;
+            case 2: joystick.left(); break;
+            case 3: joystick.right(); break;
+            default: joystick.act(); break;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.codenjoy.dojo.benchmarks;
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2018 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.services.GuiPlotColorDecoder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Перекодировка доски для браузера и клиента (GuiPlotColorDecoder).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DecoderBenchmark {
+
+    // ICANCODE отдает json - его декодер пропускает как есть
+    @Param({"BOMBERMAN", "SNAKEBATTLE", "BATTLECITY", "LODERUNNER"})
+    public Games game;
+
+    @Param({"1", "2", "4"})
+    public int scale;
+
+    private GuiPlotColorDecoder decoder;
+    private Object board;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Arena arena = new Arena(game, scale, 5);
+        decoder = new GuiPlotColorDecoder(arena.type().getPlots());
+        board = arena.print(0);
+    }
+
+    @Benchmark
+    public Object encodeForBrowser() {
+        return decoder.encodeForBrowser(board);
+    }
+
+    @Benchmark
+    public Object encodeForClient() {
+        return decoder.encodeForClient(board);
+    }
+
+    @Benchmark
+    public Object encode() {
+        return decoder.encode(board);
+    }
+}
@@ -0,0 +1,108 @@
+package com.codenjoy.dojo.benchmarks;
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2018 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.services.Direction;
+import com.codenjoy.dojo.services.Point;
+import com.codenjoy.dojo.services.algs.BfsFindWay;
+import com.codenjoy.dojo.services.algs.DeikstraFindWay;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static com.codenjoy.dojo.services.PointImpl.pt;
+
+/**
+ * Поиск кратчайшего пути (DeikstraFindWay.getShortestWay) - им пользуются
+ * ai и клиенты многих игр. Поле с 20% случайных стенок и 10 целями.
+ * bfs - тот же поиск с переиспользуемым BfsFindWay без опроса всех клеток.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FindWayBenchmark {
+
+    @Param({"30", "60", "120"})
+    public int size;
+
+    private boolean[][] walls;
+    private Point from;
+    private List<Point> goals;
+    private DeikstraFindWay.Possible possible;
+    private BfsFindWay bfs = new BfsFindWay();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        walls = new boolean[size][size];
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                walls[x][y] = random.nextInt(5) == 0;
+            }
+        }
+
+        from = free(random);
+        goals = new LinkedList<>();
+        for (int index = 0; index < 10; index++) {
+            goals.add(free(random));
+        }
+
+        possible = new DeikstraFindWay.Possible() {
+            @Override
+            public boolean possible(Point from, Direction direction) {
+                Point to = direction.change(from);
+                return !to.isOutOf(size) && !walls[to.getX()][to.getY()];
+            }
+
+            @Override
+            public boolean possible(Point atWay) {
+                return !walls[atWay.getX()][atWay.getY()];
+            }
+        };
+    }
+
+    private Point free(Random random) {
+        while (true) {
+            Point pt = pt(random.nextInt(size), random.nextInt(size));
+            if (!walls[pt.getX()][pt.getY()]) {
+                return pt;
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Direction> getShortestWay() {
+        return new DeikstraFindWay().getShortestWay(size, from, goals, possible);
+    }
+
+    @Benchmark
+    public List<Direction> bfs() {
+        return bfs.getShortestWay(size, from, goals, possible);
+    }
+}
@@ -0,0 +1,113 @@
+package com.codenjoy.dojo.benchmarks;
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2018 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.icancode.model.ICanCode;
+import com.codenjoy.dojo.icancode.services.Levels;
+import com.codenjoy.dojo.services.GameType;
+import com.codenjoy.dojo.services.multiplayer.GameField;
+import com.codenjoy.dojo.services.settings.Parameter;
+import com.codenjoy.dojo.services.settings.Settings;
+
+import static com.codenjoy.dojo.services.settings.SimpleParameter.v;
+
+/**
+ * Игры, которые гоняются в бенчмарках. scale - во сколько раз
+ * сторона поля больше стандартной (1 - карта как на сервере).
+ */
+public enum Games {
+
+    BOMBERMAN {
+        @Override
+        public GameType type(int scale) {
+            GameType result = new com.codenjoy.dojo.bomberman.services.GameRunner();
+            Settings settings = result.getSettings();
+            int size = com.codenjoy.dojo.bomberman.services.DefaultGameSettings.BOARD_SIZE * scale;
+            update(settings, "Board size", size);
+            update(settings, "Destroy wall count", size * size / 10);
+            update(settings, "Meat choppers count",
+                    com.codenjoy.dojo.bomberman.services.DefaultGameSettings.MEAT_CHOPPERS_COUNT * scale * scale);
+            return result;
+        }
+    },
+
+    SNAKEBATTLE {
+        @Override
+        public GameType type(int scale) {
+            return new com.codenjoy.dojo.snakebattle.services.GameRunner() {
+                @Override
+                protected String getMap() {
+                    return Maps.tile(super.getMap(), scale);
+                }
+            };
+        }
+    },
+
+    BATTLECITY {
+        @Override
+        public GameType type(int scale) {
+            return new com.codenjoy.dojo.battlecity.services.GameRunner() {
+                @Override
+                public String getMap() {
+                    return Maps.tile(super.getMap(), scale);
+                }
+            };
+        }
+    },
+
+    LODERUNNER {
+        @Override
+        public GameType type(int scale) {
+            return new com.codenjoy.dojo.loderunner.services.GameRunner() {
+                @Override
+                protected String getMap() {
+                    return Maps.tile(super.getMap(), scale);
+                }
+            };
+        }
+    },
+
+    ICANCODE {
+        @Override
+        public GameType type(int scale) {
+            String map = Maps.tile(Levels.MULTI_LEVEL, scale);
+            return new com.codenjoy.dojo.icancode.services.GameRunner() {
+                @Override
+                public GameField createGame(int levelNumber) {
+                    return new ICanCode(Levels.load(map), getDice(), ICanCode.MULTIPLE);
+                }
+
+                @Override
+                public Parameter<Integer> getBoardSize() {
+                    return v((int) Math.sqrt(map.length()));
+                }
+            };
+        }
+    };
+
+    public abstract GameType type(int scale);
+
+    private static void update(Settings settings, String name, int value) {
+        settings.<Integer>getParameter(name).update(value);
+    }
+}
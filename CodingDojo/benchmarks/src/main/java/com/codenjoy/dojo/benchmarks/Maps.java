@@ -0,0 +1,54 @@
+package com.codenjoy.dojo.benchmarks;
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2018 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+/**
+ * Увеличенные карты для замеров на разных размерах поля.
+ */
+public final class Maps {
+
+    private Maps() {
+        // do nothing
+    }
+
+    /**
+     * Размножает квадратную карту плиткой times x times.
+     * Стенки исходной карты становятся перегородками между плитками,
+     * а все объекты карты (точки старта, золото, ai и т.д.) - дублируются.
+     */
+    public static String tile(String map, int times) {
+        int size = (int) Math.sqrt(map.length());
+        if (size * size != map.length()) {
+            throw new IllegalArgumentException("Map is not square: " + map);
+        }
+
+        StringBuilder result = new StringBuilder(map.length() * times * times);
+        for (int row = 0; row < size * times; row++) {
+            String line = map.substring((row % size) * size, (row % size + 1) * size);
+            for (int i = 0; i < times; i++) {
+                result.append(line);
+            }
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,77 @@
+package com.codenjoy.dojo.benchmarks;
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2018 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.services.GameType;
+import com.codenjoy.dojo.services.InformationCollector;
+import com.codenjoy.dojo.services.Player;
+import com.codenjoy.dojo.services.PlayerGame;
+import com.codenjoy.dojo.services.PlayerGames;
+import com.codenjoy.dojo.services.PlayerSave;
+import com.codenjoy.dojo.services.PlayerScores;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Серверный тик всех игроков (PlayerGames.tick) вместе с тиками их полей.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlayerGamesBenchmark {
+
+    // BOMBERMAN - все в одной комнате, SNAKEBATTLE - комнаты по 5 игроков
+    @Param({"BOMBERMAN", "SNAKEBATTLE"})
+    public Games game;
+
+    @Param({"10", "100"})
+    public int players;
+
+    private PlayerGames playerGames;
+    private Random random = new Random(42);
+
+    @Setup(Level.Trial)
+    public void setup() {
+        GameType type = game.type(2);
+        playerGames = new PlayerGames();
+        for (int index = 0; index < players; index++) {
+            PlayerScores scores = type.getPlayerScores(0);
+            Player player = new Player("player" + index, "http://127.0.0.1:8888",
+                    type, scores, new InformationCollector(scores));
+            playerGames.add(player, "room", PlayerSave.NULL);
+        }
+    }
+
+    @Benchmark
+    public void tick() {
+        for (PlayerGame playerGame : playerGames) {
+            Arena.command(playerGame.getGame().getJoystick(), random);
+        }
+        playerGames.tick();
+    }
+}
@@ -0,0 +1,58 @@
+package com.codenjoy.dojo.benchmarks;
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2018 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Отрисовка доски игрока: ICANCODE рисуется через LayeredViewPrinter,
+ * остальные игры - через PrinterImpl.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PrinterBenchmark {
+
+    @Param({"BOMBERMAN", "SNAKEBATTLE", "BATTLECITY", "LODERUNNER", "ICANCODE"})
+    public Games game;
+
+    @Param({"1", "2", "4"})
+    public int scale;
+
+    private Arena arena;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        arena = new Arena(game, scale, 5);
+    }
+
+    @Benchmark
+    public Object print() {
+        return arena.print(0);
+    }
+}
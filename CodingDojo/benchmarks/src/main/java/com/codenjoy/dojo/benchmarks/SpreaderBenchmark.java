@@ -0,0 +1,126 @@
+package com.codenjoy.dojo.benchmarks;
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2018 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.bomberman.model.Player;
+import com.codenjoy.dojo.services.multiplayer.GameField;
+import com.codenjoy.dojo.services.multiplayer.GamePlayer;
+import com.codenjoy.dojo.services.multiplayer.MultiplayerType;
+import com.codenjoy.dojo.services.multiplayer.Spreader;
+import com.codenjoy.dojo.services.nullobj.NullBoardReader;
+import com.codenjoy.dojo.services.printer.BoardReader;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Распределение игроков по комнатам (Spreader.fieldFor).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpreaderBenchmark {
+
+    @Param({"1000"})
+    public int players;
+
+    @Param({"1", "5", "50"})
+    public int roomSize;
+
+    private List<GamePlayer> all;
+    private MultiplayerType type;
+    private Spreader full;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        type = MultiplayerType.TEAM.apply(roomSize, !MultiplayerType.DISPOSABLE);
+        all = new ArrayList<>(players);
+        for (int index = 0; index < players; index++) {
+            all.add(new Player(event -> {}));
+        }
+        full = fill();
+    }
+
+    /**
+     * Все игроки заходят на пустой сервер.
+     */
+    @Benchmark
+    public Spreader join() {
+        return fill();
+    }
+
+    /**
+     * На заполненном сервере один игрок выходит и заходит снова - так бывает
+     * при каждом gameOver в DISPOSABLE играх.
+     */
+    @Benchmark
+    public GameField rejoin() {
+        GamePlayer player = all.get(next++ % players);
+        full.remove(player);
+        return join(full, player);
+    }
+
+    private Spreader fill() {
+        Spreader result = new Spreader();
+        for (GamePlayer player : all) {
+            join(result, player);
+        }
+        return result;
+    }
+
+    private GameField join(Spreader spreader, GamePlayer player) {
+        return spreader.fieldFor(player, "room", type, roomSize, 0, EmptyField::new);
+    }
+
+    /**
+     * Поле без игры - меряем только Spreader.
+     */
+    static class EmptyField implements GameField {
+
+        @Override
+        public BoardReader reader() {
+            return NullBoardReader.INSTANCE;
+        }
+
+        @Override
+        public void newGame(GamePlayer player) {
+            // do nothing
+        }
+
+        @Override
+        public void remove(GamePlayer player) {
+            // do nothing
+        }
+
+        @Override
+        public void tick() {
+            // do nothing
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.codenjoy.dojo.benchmarks.simulator;
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2018 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.benchmarks.Arena;
+import com.codenjoy.dojo.client.ClientBoard;
+import com.codenjoy.dojo.client.Solver;
+import com.codenjoy.dojo.services.Dice;
+import com.codenjoy.dojo.services.GameType;
+import com.codenjoy.dojo.services.Joystick;
+import com.codenjoy.dojo.services.Player;
+import com.codenjoy.dojo.services.PlayerCommand;
+import com.codenjoy.dojo.services.controller.Controller;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Замена PlayerController: вместо отправки доски по ws клиенту
+ * тут же в потоке тика спрашиваем ai игры (GameType.getAI) и
+ * отдаем его команду джойстику - так же, как это сделал бы PlayerResponseHandler.
+ * Если ai у игры нет (или он выключен) - игрок жмет случайные кнопки.
+ */
+public class AiController implements Controller<String, Joystick> {
+
+    private boolean enabled;
+    private Map<Player, Bot> bots = new ConcurrentHashMap<>();
+    private Random random = new Random(42);
+
+    private long aiTime;
+    private long errors;
+
+    public AiController(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    private class Bot {
+
+        private Joystick joystick;
+        private Solver solver;
+        private ClientBoard board;
+
+        Bot(Joystick joystick, GameType gameType) {
+            this.joystick = joystick;
+            if (enabled && gameType.getAI() != null && gameType.getBoard() != null) {
+                solver = solver(gameType);
+                board = instance(gameType.getBoard());
+            }
+        }
+
+        void act(String data) {
+            if (solver == null) {
+                Arena.command(joystick, random);
+                return;
+            }
+            new PlayerCommand(joystick, solver.get(board.forString(data))).execute();
+        }
+    }
+
+    @Override
+    public void requestControlToAll(String board) {
+        for (Player player : bots.keySet()) {
+            requestControl(player, board);
+        }
+    }
+
+    @Override
+    public boolean requestControl(Player player, String board) {
+        Bot bot = bots.get(player);
+        if (bot == null || board == null) {
+            return false;
+        }
+
+        long time = System.nanoTime();
+        try {
+            bot.act(board);
+        } catch (Exception e) {
+            // ai тоже ошибаются - на сервере это была бы просто потерянная команда
+            errors++;
+        } finally {
+            aiTime += System.nanoTime() - time;
+        }
+        return true;
+    }
+
+    @Override
+    public void registerPlayerTransport(Player player, Joystick joystick) {
+        bots.put(player, new Bot(joystick, player.getGameType()));
+    }
+
+    @Override
+    public void unregisterPlayerTransport(Player player) {
+        bots.remove(player);
+    }
+
+    /**
+     * @return сколько всего наносекунд думали ai - на сервере это время клиентов
+     */
+    public long getAiTime() {
+        return aiTime;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public void clear() {
+        aiTime = 0;
+        errors = 0;
+    }
+
+    // так же как PlayerServiceImpl.createAI
+    private static Solver solver(GameType gameType) {
+        try {
+            return gameType.getAI().getConstructor(Dice.class)
+                    .newInstance(gameType.getDice());
+        } catch (Exception e) {
+            return instance(gameType.getAI());
+        }
+    }
+
+    private static <T> T instance(Class<? extends T> clazz) {
+        try {
+            return clazz.newInstance();
+        } catch (Exception e) {
+            throw new IllegalStateException("Can't create " + clazz.getName(), e);
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.codenjoy.dojo.benchmarks.simulator;
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2018 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.benchmarks.Games;
+import com.codenjoy.dojo.services.*;
+import com.codenjoy.dojo.services.dao.ActionLogger;
+import com.codenjoy.dojo.services.dao.Registration;
+import com.codenjoy.dojo.services.metrics.Histogram;
+import com.codenjoy.dojo.services.metrics.TickMetrics;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.util.*;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Нагрузочный прогон всего серверного тика в одном процессе - без Jetty, базы и сети.
+ *
+ * Собирает настоящие PlayerServiceImpl, PlayerGames, PlayerGamesView и TickMetrics
+ * так же, как это делает spring, регистрирует по N игроков с ai в каждую игру
+ * и тикает сервер так быстро, как только получится. В конце печатает
+ * ticks/sec, перцентили длительности тика, скорость аллокаций и разбивку по фазам.
+ *
+ * java -cp target/benchmarks.jar com.codenjoy.dojo.benchmarks.simulator.LoadSimulator \
+ *      games=bomberman,snakebattle players=100 ticks=1000 warmup=100 scale=1 ai=true
+ *
+ * ai=false - вместо ai игроки жмут случайные кнопки, тогда в замер не попадает время клиентов.
+ */
+public class LoadSimulator {
+
+    private final PlayerServiceImpl service;
+    private final PlayerGames playerGames;
+    private final TickMetrics metrics;
+    private final AiController ai;
+    private final ScreenSink screen;
+    private final Map<String, GameType> games = new LinkedHashMap<>();
+
+    public LoadSimulator(List<Games> games, int scale, boolean withAi) {
+        games.forEach(game -> {
+            GameType type = game.type(scale);
+            this.games.put(type.name(), type);
+        });
+
+        metrics = new TickMetrics();
+        ai = new AiController(withAi);
+        screen = new ScreenSink();
+
+        playerGames = new PlayerGames();
+        inject(playerGames, "metrics", metrics);
+
+        PlayerGamesView view = new PlayerGamesView();
+        inject(view, "service", playerGames);
+
+        Semifinal semifinal = new Semifinal();
+        inject(semifinal, "settings", new SemifinalSettings());
+        inject(semifinal, "playerGames", playerGames);
+
+        service = new PlayerServiceImpl();
+        inject(service, "playerGames", playerGames);
+        inject(service, "playerGamesView", view);
+        inject(service, "metrics", metrics);
+        inject(service, "playerController", ai);
+        inject(service, "screenController", screen);
+        inject(service, "gameService", gameService());
+        inject(service, "autoSaver", new AutoSaver());
+        // без базы: init() не зовем, а неактивный логгер в нее и не пишет
+        inject(service, "actionLogger", new ActionLogger(sqls -> null));
+        inject(service, "registration", registration());
+        inject(service, "semifinal", semifinal);
+        service.init();
+    }
+
+    private static void inject(Object bean, String name, Object value) {
+        Field field = ReflectionUtils.findField(bean.getClass(), name);
+        if (field == null) {
+            throw new IllegalArgumentException("No field " + name + " in " + bean.getClass());
+        }
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, bean, value);
+    }
+
+    private GameService gameService() {
+        return new GameService() {
+            @Override
+            public List<String> getGameNames() {
+                return new ArrayList<>(games.keySet());
+            }
+
+            @Override
+            public List<String> getOnlyGameNames() {
+                return getGameNames();
+            }
+
+            @Override
+            public Map<String, List<String>> getSpritesNames() {
+                return new HashMap<>();
+            }
+
+            @Override
+            public Map<String, List<String>> getSpritesValues() {
+                return new HashMap<>();
+            }
+
+            @Override
+            public Map<String, List<String>> getSprites() {
+                return new HashMap<>();
+            }
+
+            @Override
+            public GameType getGame(String name) {
+                return games.get(name);
+            }
+
+            @Override
+            public String getDefaultGame() {
+                return games.keySet().iterator().next();
+            }
+        };
+    }
+
+    // пользователей в базе нет - имя игрока и есть его id
+    private static Registration registration() {
+        return new Registration(sqls -> null, null, "", NoOpPasswordEncoder.getInstance(), null, false) {
+            @Override
+            public String getNameById(String id) {
+                return id;
+            }
+
+            @Override
+            public String getCodeById(String id) {
+                return id;
+            }
+        };
+    }
+
+    public void register(int players) {
+        for (String game : games.keySet()) {
+            for (int index = 0; index < players; index++) {
+                String name = "bot" + index + "@" + game;
+                service.register(new PlayerSave(name, "127.0.0.1", game, game, 0, null));
+            }
+        }
+    }
+
+    public Report run(int warmup, int ticks) {
+        for (int tick = 0; tick < warmup; tick++) {
+            service.tick();
+        }
+        metrics.clear();
+        ai.clear();
+        screen.clear();
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        long[] times = new long[ticks];
+        long[] server = new long[ticks];
+        long allocated = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int tick = 0; tick < ticks; tick++) {
+            long time = System.nanoTime();
+            long aiTime = ai.getAiTime();
+            service.tick();
+            times[tick] = System.nanoTime() - time;
+            server[tick] = times[tick] - (ai.getAiTime() - aiTime);
+        }
+        long elapsed = System.nanoTime() - start;
+        allocated = threads.getThreadAllocatedBytes(thread) - allocated;
+
+        return new Report(times, server, elapsed, allocated);
+    }
+
+    public class Report {
+
+        private long[] times;
+        private long[] server;
+        private long elapsed;
+        private long allocated;
+
+        Report(long[] times, long[] server, long elapsed, long allocated) {
+            this.times = sorted(times);
+            this.server = sorted(server);
+            this.elapsed = elapsed;
+            this.allocated = allocated;
+        }
+
+        private long[] sorted(long[] array) {
+            long[] result = array.clone();
+            Arrays.sort(result);
+            return result;
+        }
+
+        public double ticksPerSecond() {
+            return times.length / (elapsed / 1e9);
+        }
+
+        /**
+         * @return перцентиль длительности тика вместе с ai
+         */
+        public long percentile(double q) {
+            return percentile(times, q);
+        }
+
+        /**
+         * @return перцентиль длительности тика без времени ai - только сервер
+         */
+        public long serverPercentile(double q) {
+            return percentile(server, q);
+        }
+
+        private long percentile(long[] sorted, double q) {
+            return sorted[(int) Math.max(0, Math.min(sorted.length - 1, Math.ceil(q * sorted.length) - 1))];
+        }
+
+        public double allocatedPerSecond() {
+            return allocated / (elapsed / 1e9);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder result = new StringBuilder();
+            result.append(String.format(Locale.US,
+                    "players: %s in %s%n" +
+                    "ticks: %s, %.1f ticks/sec%n" +
+                    "tick: p50 %.3f ms, p99 %.3f ms, max %.3f ms%n" +
+                    "server: p50 %.3f ms, p99 %.3f ms, max %.3f ms (tick without ai)%n" +
+                    "allocated: %.1f MB/sec, %.1f KB/tick (ai included)%n" +
+                    "ai: %.3f ms/tick (clients time), errors: %s%n" +
+                    "screen: %.1f KB/tick%n",
+                    playerGames.size(), games.keySet(),
+                    times.length, ticksPerSecond(),
+                    ms(percentile(0.5)), ms(percentile(0.99)), ms(percentile(1)),
+                    ms(serverPercentile(0.5)), ms(serverPercentile(0.99)), ms(serverPercentile(1)),
+                    allocatedPerSecond() / 1024 / 1024, (double) allocated / times.length / 1024,
+                    ms(ai.getAiTime() / times.length), ai.getErrors(),
+                    (double) screen.getBytes() / times.length / 1024));
+
+            result.append("phases (avg ms/tick):\n");
+            for (String phase : Arrays.asList(TickMetrics.TOTAL,
+                    TickMetrics.ACTION_LOGGER, TickMetrics.AUTO_SAVER,
+                    TickMetrics.PLAYER_GAMES, TickMetrics.FIELD,
+                    TickMetrics.RENDER, TickMetrics.BOARD,
+                    TickMetrics.SCREEN, TickMetrics.CONTROLS,
+                    TickMetrics.SEMIFINAL))
+            {
+                Histogram histogram = metrics.get(phase);
+                if (histogram == null) {
+                    continue;
+                }
+                result.append(String.format(Locale.US, "  %-13s %.3f%n",
+                        phase, ms(histogram.getSum() / times.length)));
+            }
+            return result.toString();
+        }
+
+        private double ms(long nanos) {
+            return nanos / 1e6;
+        }
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        options.put("games", "bomberman");
+        options.put("players", "100");
+        options.put("ticks", "1000");
+        options.put("warmup", "100");
+        options.put("scale", "1");
+        options.put("ai", "true");
+        for (String arg : args) {
+            String[] pair = arg.split("=", 2);
+            if (pair.length != 2 || !options.containsKey(pair[0])) {
+                throw new IllegalArgumentException("Expected one of " + options.keySet()
+                        + " as key=value, but got: " + arg);
+            }
+            options.put(pair[0], pair[1]);
+        }
+
+        List<Games> games = Arrays.stream(options.get("games").split(","))
+                .map(name -> Games.valueOf(name.trim().toUpperCase()))
+                .collect(toList());
+
+        LoadSimulator simulator = new LoadSimulator(games,
+                Integer.parseInt(options.get("scale")),
+                Boolean.parseBoolean(options.get("ai")));
+        simulator.register(Integer.parseInt(options.get("players")));
+
+        Report report = simulator.run(Integer.parseInt(options.get("warmup")),
+                Integer.parseInt(options.get("ticks")));
+        System.out.print(report);
+        System.exit(0);
+    }
+}
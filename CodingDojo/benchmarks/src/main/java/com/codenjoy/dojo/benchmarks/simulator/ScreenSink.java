@@ -0,0 +1,72 @@
+package com.codenjoy.dojo.benchmarks.simulator;
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2018 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.services.Player;
+import com.codenjoy.dojo.services.controller.Controller;
+import com.codenjoy.dojo.transport.screen.ScreenData;
+import com.codenjoy.dojo.transport.screen.ScreenRecipient;
+import org.json.JSONObject;
+
+import java.util.Map;
+
+/**
+ * Замена ScreenController: один зритель, который смотрит на всех игроков сразу.
+ * Кадр сериализуется в json как для браузера, но никуда не отправляется.
+ */
+public class ScreenSink implements Controller<Map<ScreenRecipient, ScreenData>, Void> {
+
+    private long bytes;
+
+    @Override
+    public void requestControlToAll(Map<ScreenRecipient, ScreenData> data) {
+        bytes += new JSONObject(data).toString().length();
+    }
+
+    @Override
+    public boolean requestControl(Player player, Map<ScreenRecipient, ScreenData> data) {
+        requestControlToAll(data);
+        return true;
+    }
+
+    @Override
+    public void registerPlayerTransport(Player player, Void control) {
+        // do nothing
+    }
+
+    @Override
+    public void unregisterPlayerTransport(Player player) {
+        // do nothing
+    }
+
+    /**
+     * @return сколько символов json было бы отправлено в браузер
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    public void clear() {
+        bytes = 0;
+    }
+}
@@ -29,6 +29,7 @@ import com.codenjoy.dojo.battlecity.services.Events;
 import com.codenjoy.dojo.services.*;
 import com.codenjoy.dojo.services.printer.BoardReader;
 
+import java.util.BitSet;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -42,6 +43,14 @@ public class Battlecity implements Field {
     private List<Construction> constructions;
     private List<Border> borders;
 
+    // стены и строения не двигаются - раскладываем их по клеткам один раз
+    private LengthToXY xy;
+    private Construction[] constructionsAt;
+    private BitSet bordersAt;
+
+    // пули по клеткам, обновляется на каждую фазу тика
+    private BulletsMap bullets;
+
     private List<Player> players = new LinkedList<Player>();
 
     public Battlecity(int size, Dice dice, List<Construction> constructions, Tank... aiTanks) {
@@ -57,6 +66,21 @@ public class Battlecity implements Field {
         this.constructions = new LinkedList<>(constructions);
         this.borders = new LinkedList<>(borders);
 
+        xy = new LengthToXY(size);
+        constructionsAt = new Construction[size * size];
+        for (Construction construction : this.constructions) {
+            if (!construction.isOutOf(size) && constructionAt(construction) == null) {
+                constructionsAt[length(construction)] = construction;
+            }
+        }
+        bordersAt = new BitSet(size * size);
+        for (Border border : this.borders) {
+            if (!border.isOutOf(size)) {
+                bordersAt.set(length(border));
+            }
+        }
+        bullets = new BulletsMap(size);
+
         for (Tank tank : aiTanks) {
             addAI(tank);
         }
@@ -93,29 +117,49 @@ public class Battlecity implements Field {
             }
         }
 
+        bullets.reset(getBullets());
         for (Tank tank : tanks) {
             if (tank.isAlive()) {
                 tank.move();
 
-                List<Bullet> bullets = getBullets();
-                int index = bullets.indexOf(tank);
-                if (index != -1) {
-                    Bullet bullet = bullets.get(index);
+                Bullet bullet = bullets.at(tank, null);
+                if (bullet != null) {
                     affect(bullet);
                 }
             }
         }
-        for (Bullet bullet : getBullets()) {
+
+        List<Bullet> all = getBullets();
+        bullets.reset(all);
+        for (Bullet bullet : all) {
             bullet.move();
         }
 
+        // строения под танками и пулями не восстанавливаются
+        BitSet occupied = new BitSet(size * size);
+        for (Point pt : tanks) {
+            occupy(occupied, pt);
+        }
+        for (Point pt : getBullets()) {
+            occupy(occupied, pt);
+        }
         for (Construction construction : constructions) {
-            if (!tanks.contains(construction) && !getBullets().contains(construction)) {
+            if (construction.isOutOf(size) || !occupied.get(length(construction))) {
                 construction.tick();
             }
         }
     }
 
+    private void occupy(BitSet occupied, Point pt) {
+        if (!pt.isOutOf(size)) {
+            occupied.set(length(pt));
+        }
+    }
+
+    private int length(Point pt) {
+        return xy.getLength(pt.getX(), pt.getY());
+    }
+
     private void newAI() {
         for (int count = aiTanks.size(); count < aiCount; count++) {
             int y = size - 2;
@@ -151,14 +195,15 @@ public class Battlecity implements Field {
 
     @Override
     public void affect(Bullet bullet) {
-        if (borders.contains(bullet)) {
+        bullets.moved(bullet);
+
+        if (isBorder(bullet.getX(), bullet.getY())) {
             bullet.onDestroy();
             return;
         }
 
-        if (getTanks().contains(bullet)) {
-            int index = getTanks().indexOf(bullet);
-            Tank tank = getTanks().get(index);
+        Tank tank = getTankAt(bullet.getX(), bullet.getY());
+        if (tank != null) {
             if (tank == bullet.getOwner()) {
                 return;
             }
@@ -170,17 +215,15 @@ public class Battlecity implements Field {
             return;
         }
 
-        for (Bullet bullet2 : getBullets().toArray(new Bullet[0])) {
-            if (bullet != bullet2 && bullet.equals(bullet2)) {
-                bullet.boom();
-                bullet2.boom();
-                return;
-            }
+        Bullet bullet2 = bullets.at(bullet, bullet);
+        if (bullet2 != null) {
+            bullet.boom();
+            bullet2.boom();
+            return;
         }
 
-        if (constructions.contains(bullet)) {
-            Construction construction = getConstructionAt(bullet);
-
+        Construction construction = getConstructionAt(bullet.getX(), bullet.getY());
+        if (construction != null) {
             if (!construction.destroyed()) {
                 construction.destroyFrom(bullet.getDirection());
                 bullet.onDestroy();  // TODO заимплементить взрыв
@@ -190,9 +233,36 @@ public class Battlecity implements Field {
         }
     }
 
-    private Construction getConstructionAt(Bullet bullet) {
-        int index = constructions.indexOf(bullet);
-        return constructions.get(index);
+    private Construction constructionAt(Point pt) {
+        return getConstructionAt(pt.getX(), pt.getY());
+    }
+
+    private Construction getConstructionAt(int x, int y) {
+        if (outOfField(x, y)) {
+            return null;
+        }
+        return constructionsAt[xy.getLength(x, y)];
+    }
+
+    private boolean isBorder(int x, int y) {
+        return !outOfField(x, y) && bordersAt.get(xy.getLength(x, y));
+    }
+
+    /**
+     * @return первый танк в клетке в порядке getTanks() - но без создания списка
+     */
+    private Tank getTankAt(int x, int y) {
+        for (Tank tank : aiTanks) {
+            if (tank.itsMe(x, y)) {
+                return tank;
+            }
+        }
+        for (Player player : players) {
+            if (player.getHero().itsMe(x, y)) {
+                return player.getHero();
+            }
+        }
+        return null;
     }
 
     private void scoresForKill(Bullet killedBullet, Tank diedTank) {
@@ -233,22 +303,18 @@ public class Battlecity implements Field {
 
     @Override
     public boolean isBarrier(int x, int y) {
-        for (Construction construction : constructions) {
-            if (construction.itsMe(x, y) && !construction.destroyed()) {
-                return true;
-            }
+        if (outOfField(x, y)) {
+            return true;
         }
-        for (Point border : borders) {
-            if (border.itsMe(x, y)) {
-                return true;
-            }
+        Construction construction = getConstructionAt(x, y);
+        if (construction != null && !construction.destroyed()) {
+            return true;
         }
-        for (Tank tank : getTanks()) {   //  TODO проверить как один танк не может проходить мимо другого танка игрока (не AI)
-            if (tank.itsMe(x, y)) {
-                return true;
-            }
+        if (isBorder(x, y)) {
+            return true;
         }
-        return outOfField(x, y);
+        //  TODO проверить как один танк не может проходить мимо другого танка игрока (не AI)
+        return getTankAt(x, y) != null;
     }
 
     @Override
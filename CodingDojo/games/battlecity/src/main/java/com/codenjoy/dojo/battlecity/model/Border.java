@@ -40,4 +40,9 @@ public class Border extends PointImpl implements State<Elements, Player> {
     public Elements state(Player player, Object... alsoAtPoint) {
         return Elements.BATTLE_WALL;
     }
+
+    @Override
+    public boolean isSameForAll() {
+        return true;
+    }
 }
@@ -73,6 +73,13 @@ public class Bullet extends MovingObject implements State<Elements, Player> {
         return owner == null;
     }
 
+    /**
+     * @return пуля еще у танка - летит или взорвалась в этом тике
+     */
+    public boolean onField() {
+        return moving || destroyed();
+    }
+
     @Override
     public Elements state(Player player, Object... alsoAtPoint) {
         if (destroyed()) {
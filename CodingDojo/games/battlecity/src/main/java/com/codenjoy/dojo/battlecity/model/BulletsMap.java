@@ -0,0 +1,105 @@
+package com.codenjoy.dojo.battlecity.model;
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2018 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.services.LengthToXY;
+import com.codenjoy.dojo.services.Point;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Пули по клеткам поля, чтобы не перебирать все пули всех танков,
+ * когда надо узнать кто еще стоит в клетке. Строится заново перед
+ * каждой фазой тика, пуля, которая сдвинулась, переносится через moved.
+ * Из нескольких пуль в клетке выбирается та, что раньше других
+ * в общем списке пуль - как при полном переборе.
+ */
+class BulletsMap {
+
+    private int size;
+    private LengthToXY xy;
+    private Map<Integer, List<Bullet>> cells = new HashMap<>();
+    private Map<Bullet, Integer> where = new IdentityHashMap<>();
+    private Map<Bullet, Integer> order = new IdentityHashMap<>();
+
+    BulletsMap(int size) {
+        this.size = size;
+        xy = new LengthToXY(size);
+    }
+
+    void reset(List<Bullet> bullets) {
+        cells.clear();
+        where.clear();
+        order.clear();
+        for (Bullet bullet : bullets) {
+            order.put(bullet, order.size());
+            add(bullet);
+        }
+    }
+
+    private void add(Bullet bullet) {
+        if (bullet.isOutOf(size)) {
+            return;
+        }
+        int length = xy.getLength(bullet.getX(), bullet.getY());
+        cells.computeIfAbsent(length, key -> new LinkedList<>()).add(bullet);
+        where.put(bullet, length);
+    }
+
+    void moved(Bullet bullet) {
+        Integer was = where.remove(bullet);
+        if (was == null) {
+            return;
+        }
+        List<Bullet> list = cells.get(was);
+        list.removeIf(it -> it == bullet);
+        add(bullet);
+    }
+
+    /**
+     * @return первая пуля в клетке pt, кроме except; null - если таких нет
+     */
+    Bullet at(Point pt, Bullet except) {
+        if (pt.isOutOf(size)) {
+            return null;
+        }
+        List<Bullet> list = cells.get(xy.getLength(pt.getX(), pt.getY()));
+        if (list == null) {
+            return null;
+        }
+        Bullet result = null;
+        for (Bullet bullet : list) {
+            if (bullet == except || !bullet.onField()) {
+                continue;
+            }
+            if (result == null || order.get(bullet) < order.get(result)) {
+                result = bullet;
+            }
+        }
+        return result;
+    }
+}
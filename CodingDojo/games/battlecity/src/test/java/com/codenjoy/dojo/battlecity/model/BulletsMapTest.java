@@ -0,0 +1,116 @@
+package com.codenjoy.dojo.battlecity.model;
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2018 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.services.Direction;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static com.codenjoy.dojo.services.PointImpl.pt;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+
+public class BulletsMapTest {
+
+    private BulletsMap map;
+    private Field field;
+    private Tank owner;
+
+    @Before
+    public void setup() {
+        map = new BulletsMap(5);
+        field = mock(Field.class);
+        owner = mock(Tank.class);
+    }
+
+    private Bullet bullet(int x, int y) {
+        return new Bullet(field, Direction.UP, pt(x, y), owner, null);
+    }
+
+    @Test
+    public void shouldFindFirstBulletInCell() {
+        // given
+        Bullet bullet1 = bullet(1, 1);
+        Bullet bullet2 = bullet(2, 2);
+        Bullet bullet3 = bullet(2, 2);
+
+        // when
+        map.reset(Arrays.asList(bullet1, bullet2, bullet3));
+
+        // then
+        assertSame(bullet1, map.at(pt(1, 1), null));
+        assertSame(bullet2, map.at(pt(2, 2), null));
+        assertSame(bullet3, map.at(pt(2, 2), bullet2));
+        assertNull(map.at(pt(1, 1), bullet1));
+        assertNull(map.at(pt(3, 3), null));
+        assertNull(map.at(pt(-1, 3), null));
+    }
+
+    @Test
+    public void shouldFollowMovedBullet() {
+        // given
+        Bullet bullet1 = bullet(1, 1);
+        Bullet bullet2 = bullet(1, 3);
+        map.reset(Arrays.asList(bullet1, bullet2));
+
+        // when
+        bullet2.move(1, 1);
+        map.moved(bullet2);
+
+        // then
+        assertNull(map.at(pt(1, 3), null));
+        assertSame(bullet1, map.at(pt(1, 1), null));
+        assertSame(bullet1, map.at(pt(1, 1), bullet2));
+        assertSame(bullet2, map.at(pt(1, 1), bullet1));
+    }
+
+    @Test
+    public void shouldSkipRemovedBullet() {
+        // given
+        Bullet bullet1 = bullet(1, 1);
+        Bullet bullet2 = bullet(1, 1);
+        map.reset(Arrays.asList(bullet1, bullet2));
+
+        // when
+        bullet1.onDestroy();
+
+        // then
+        assertSame(bullet2, map.at(pt(1, 1), null));
+    }
+
+    @Test
+    public void shouldKeepBoomedBullet() {
+        // given
+        Bullet bullet1 = bullet(1, 1);
+        map.reset(Arrays.asList(bullet1));
+
+        // when
+        bullet1.boom();
+
+        // then
+        assertSame(bullet1, map.at(pt(1, 1), null));
+    }
+}
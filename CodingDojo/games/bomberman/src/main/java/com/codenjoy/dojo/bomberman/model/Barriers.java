@@ -0,0 +1,88 @@
+package com.codenjoy.dojo.bomberman.model;
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2018 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+
+import com.codenjoy.dojo.services.Point;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Карта препятствий для взрыва - по биту на клетку, вместо поиска в списке.
+ * Строится один раз на тик, в котором что-то взорвалось.
+ */
+public class Barriers {
+
+    private int size;
+
+    // тут взрыв останавливается
+    private BitSet barriers;
+
+    // а сюда (неразрушаемые стены) даже не попадает
+    private BitSet walls;
+
+    /**
+     * @param points препятствия - если их несколько в клетке, то как и раньше
+     *               учитывается первое из списка
+     * @param size размер поля
+     */
+    public Barriers(List<? extends Point> points, int size) {
+        this.size = size;
+        barriers = new BitSet(size * size);
+        walls = new BitSet(size * size);
+        for (Point pt : points) {
+            if (!isOnBoard(pt.getX(), pt.getY())) {
+                continue;
+            }
+            int index = index(pt.getX(), pt.getY());
+            if (barriers.get(index)) {
+                continue;
+            }
+            barriers.set(index);
+            if (pt.getClass().equals(Wall.class)) {
+                walls.set(index);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isOnBoard(int x, int y) {
+        return x >= 0 && y >= 0 && x < size && y < size;
+    }
+
+    public boolean isBarrier(int x, int y) {
+        return isOnBoard(x, y) && barriers.get(index(x, y));
+    }
+
+    public boolean isWall(int x, int y) {
+        return isOnBoard(x, y) && walls.get(index(x, y));
+    }
+
+    private int index(int x, int y) {
+        return y * size + x;
+    }
+}
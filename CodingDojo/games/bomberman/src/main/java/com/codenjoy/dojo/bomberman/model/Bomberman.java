@@ -116,10 +116,16 @@ public class Bomberman implements Field {
             bomb.tick();
         }
 
+        // до конца тика ни стенки, ни бомберы не двигаются,
+        // а потому карта препятствий одна на все взрывы
+        Barriers barriers = null;
         for (Bomb bomb : destroyedBombs) {
             bombs.remove(bomb);
 
-            List<Blast> blast = makeBlast(bomb);
+            if (barriers == null) {
+                barriers = barriers();
+            }
+            List<Blast> blast = makeBlast(barriers, bomb);
             killAllNear(blast, bomb);
             blasts.addAll(blast);
         }
@@ -159,11 +165,14 @@ public class Bomberman implements Field {
         destroyedBombs.add(bomb);
     }
 
-    private List<Blast> makeBlast(Bomb bomb) {
+    private Barriers barriers() {
         List barriers = walls.subList(Wall.class);
         barriers.addAll(getBombermans());
+        return new Barriers(barriers, size.getValue());
+    }
 
-        return new BoomEngineOriginal(bomb.getOwner()).boom(barriers, size.getValue(), bomb, bomb.getPower());   // TODO move bomb inside BoomEngine
+    private List<Blast> makeBlast(Barriers barriers, Bomb bomb) {
+        return new BoomEngineOriginal(bomb.getOwner()).boom(barriers, bomb, bomb.getPower());   // TODO move bomb inside BoomEngine
     }
 
     private void killAllNear(List<Blast> blasts, Bomb bomb) {
@@ -216,11 +225,8 @@ public class Bomberman implements Field {
                 return true;
             }
         }
-        for (Wall wall : walls) {
-            if (wall instanceof MeatChopper && !isWithMeatChopper) {
-                continue;
-            }
-            if (wall.itsMe(x, y)) {
+        if (walls.itsMe(x, y)) {
+            if (isWithMeatChopper || !(walls.get(x, y) instanceof MeatChopper)) {
                 return true;
             }
         }
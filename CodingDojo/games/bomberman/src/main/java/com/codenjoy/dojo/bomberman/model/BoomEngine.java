@@ -32,4 +32,6 @@ public interface BoomEngine {
 
     List<Blast> boom(List<? extends Point> barriers, int boardSize, Point source, int radius);
 
+    List<Blast> boom(Barriers barriers, Point source, int radius);
+
 }
@@ -24,11 +24,9 @@ package com.codenjoy.dojo.bomberman.model;
 
 
 import com.codenjoy.dojo.services.Point;
-import com.codenjoy.dojo.services.PointImpl;
 
 import java.util.LinkedList;
 import java.util.List;
-import static com.codenjoy.dojo.services.PointImpl.*;
 
 public class BoomEngineOriginal implements BoomEngine {
 
@@ -40,14 +38,19 @@ public class BoomEngineOriginal implements BoomEngine {
 
     @Override
     public List<Blast> boom(List<? extends Point> barriers, int boardSize, Point source, int radius) {
+        return boom(new Barriers(barriers, boardSize), source, radius);
+    }
+
+    @Override
+    public List<Blast> boom(Barriers barriers, Point source, int radius) {
         List<Blast> blasts = new LinkedList<>();
 
-        add(barriers, boardSize, blasts, source.getX(), source.getY());
+        add(barriers, blasts, source.getX(), source.getY());
 
         for (int dx = 1; dx <= radius; dx++) {
             int x = source.getX() + dx;
             int y = source.getY() + 0;
-            if (!add(barriers, boardSize, blasts, x, y)) {
+            if (!add(barriers, blasts, x, y)) {
                 break;
             }
         }
@@ -55,7 +58,7 @@ public class BoomEngineOriginal implements BoomEngine {
         for (int dx = -1; dx >= -radius; dx--) {
             int x = source.getX() + dx;
             int y = source.getY() + 0;
-            if (!add(barriers, boardSize, blasts, x, y)) {
+            if (!add(barriers, blasts, x, y)) {
                 break;
             }
         }
@@ -64,7 +67,7 @@ public class BoomEngineOriginal implements BoomEngine {
             int x = source.getX() + 0;
             int y = source.getY() + dy;
 
-            if (!add(barriers, boardSize, blasts, x, y)) {
+            if (!add(barriers, blasts, x, y)) {
                 break;
             }
         }
@@ -73,7 +76,7 @@ public class BoomEngineOriginal implements BoomEngine {
             int x = source.getX() + 0;
             int y = source.getY() + dy;
 
-            if (!add(barriers, boardSize, blasts, x, y)) {
+            if (!add(barriers, blasts, x, y)) {
                 break;
             }
         }
@@ -81,15 +84,13 @@ public class BoomEngineOriginal implements BoomEngine {
         return blasts;
     }
 
-    private boolean add(List<? extends Point> barriers, int boardSize, List<Blast> blasts, int x, int y) {
-        Point pt = pt(x, y);
-
-        if (!isOnBoard(pt, boardSize)) {
+    private boolean add(Barriers barriers, List<Blast> blasts, int x, int y) {
+        if (!barriers.isOnBoard(x, y)) {
             return false;
         }
 
-        if (barriers.contains(pt)) {
-            if (!barriers.get(barriers.indexOf(pt)).getClass().equals(Wall.class)) {    // TODO немного жвачка
+        if (barriers.isBarrier(x, y)) {
+            if (!barriers.isWall(x, y)) {
                 blasts.add(new Blast(x, y, bomberman));
             }
             return false;
@@ -98,8 +99,4 @@ public class BoomEngineOriginal implements BoomEngine {
         blasts.add(new Blast(x, y, bomberman));
         return true;
     }
-
-    private boolean isOnBoard(Point pt, int boardSize) {
-        return pt.getX() >= 0 && pt.getY() >= 0 && pt.getX() < boardSize && pt.getY() < boardSize;
-    }
 }
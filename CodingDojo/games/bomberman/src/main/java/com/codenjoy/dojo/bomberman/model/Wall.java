@@ -23,12 +23,20 @@ package com.codenjoy.dojo.bomberman.model;
  */
 
 
+import com.codenjoy.dojo.services.Point;
 import com.codenjoy.dojo.services.PointImpl;
 import com.codenjoy.dojo.services.State;
 
 import static com.codenjoy.dojo.bomberman.model.Elements.WALL;
 
 public class Wall extends PointImpl implements State<Elements, Player> {
+
+    // сетка, в которой лежит стенка - ей надо знать, когда митчопер сдвинулся
+    private WallsImpl owner;
+
+    // место стенки в списке ее типа у owner - чтобы удалять без поиска
+    private int index;
+
     public Wall(int x, int y) {
         super(x, y);
     }
@@ -41,8 +49,45 @@ public class Wall extends PointImpl implements State<Elements, Player> {
         return new Wall(this);
     }
 
+    void owner(WallsImpl owner) {
+        this.owner = owner;
+    }
+
+    int index() {
+        return index;
+    }
+
+    void index(int index) {
+        this.index = index;
+    }
+
+    @Override
+    public void move(int x, int y) {
+        int oldX = this.x;
+        int oldY = this.y;
+        super.move(x, y);
+        if (owner != null) {
+            owner.moved(this, oldX, oldY);
+        }
+    }
+
+    @Override
+    public void move(Point pt) {
+        move(pt.getX(), pt.getY());
+    }
+
+    @Override
+    public void change(Point delta) {
+        move(x + delta.getX(), y + delta.getY());
+    }
+
     @Override
     public Elements state(Player player, Object... alsoAtPoint) {
         return WALL;
     }
+
+    @Override
+    public boolean isSameForAll() {
+        return true;
+    }
 }
@@ -23,21 +23,29 @@ package com.codenjoy.dojo.bomberman.model;
  */
 
 
-import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.*;
 
+/**
+ * Стенки разложены по типам (в порядке добавления) и по клеткам сетки,
+ * а потому itsMe/get/destroy не перебирают все поле, а subList - чужие типы.
+ * Из списка типа стенка удаляется за O(1): на ее место ставится последняя,
+ * так что порядок внутри типа после удалений не сохраняется.
+ * Сетка строится при первом поиске по координате: копии для отрисовки ее не строят.
+ */
 public class WallsImpl implements Walls {
-    private List<Wall> walls;
+
+    private Map<Class<? extends Wall>, List<Wall>> types;
+    private List<Wall>[] cells;
+    private int width;
 
     public WallsImpl() {
-        walls = new LinkedList<Wall>();
+        types = new LinkedHashMap<>();
     }
 
     public WallsImpl(Walls sourceWalls) {
         this();
         for (Wall wall : sourceWalls) {
-            walls.add(wall.copy());
+            add(wall.copy());
         }
     }
 
@@ -48,27 +56,21 @@ public class WallsImpl implements Walls {
 
     @Override
     public Iterator<Wall> iterator() {
-        LinkedList result = new LinkedList();
-        result.addAll(walls);
-        return result.iterator();
+        return subList(Wall.class).iterator();
     }
 
     @Override
     public boolean itsMe(int x, int y) {
-        for (Wall wall : walls) {
-            if (wall.itsMe(x, y)) {
-                return true;
-            }
-        }
-        return false;
+        List<Wall> cell = cell(x, y);
+        return cell != null && !cell.isEmpty();
     }
 
     @Override
     public <T extends Wall> List<T> subList(Class<T> filter) {
-        List<Wall> result = new LinkedList<Wall>();
-        for (Wall input: walls) {
-            if (filter.isAssignableFrom(input.getClass())) {
-                result.add(input);
+        List<Wall> result = new ArrayList<>();
+        for (Map.Entry<Class<? extends Wall>, List<Wall>> entry : types.entrySet()) {
+            if (filter.isAssignableFrom(entry.getKey())) {
+                result.addAll(entry.getValue());
             }
         }
         return (List<T>) result;
@@ -76,29 +78,132 @@ public class WallsImpl implements Walls {
 
     @Override
     public void add(Wall wall) {
+        List<Wall> walls = types.computeIfAbsent(wall.getClass(), key -> new ArrayList<>());
+        wall.index(walls.size());
         walls.add(wall);
+        wall.owner(this);
+        if (cells != null) {
+            put(wall);
+        }
     }
 
     @Override
     public Wall destroy(int x, int y) {
-        int index = walls.indexOf(new Wall(x, y));
-        if (index == -1) {
+        List<Wall> cell = cell(x, y);
+        if (cell == null || cell.isEmpty()) {
             return new Wall(-1, -1);
         }
-        return walls.remove(index);
+        Wall wall = cell.remove(0);
+        removeFromType(wall);
+        wall.owner(null);
+        return wall;
     }
 
     @Override
     public Wall get(int x, int y) {
-        int index = walls.indexOf(new Wall(x, y));
-        if (index == -1) {
+        List<Wall> cell = cell(x, y);
+        if (cell == null || cell.isEmpty()) {
             return new Wall(-1, -1);
         }
-        return walls.get(index);
+        return cell.get(0);
     }
 
     @Override
     public void tick() {
         // do nothing
     }
+
+    /**
+     * Стенка сама сообщает, что сдвинулась - переносим ее в новую клетку.
+     */
+    void moved(Wall wall, int oldX, int oldY) {
+        if (cells == null) {
+            return;
+        }
+        if (inside(oldX, oldY)) {
+            removeSame(cells[index(oldX, oldY)], wall);
+        }
+        put(wall);
+    }
+
+    private List<Wall> cell(int x, int y) {
+        if (cells == null) {
+            build(width);
+        }
+        if (!inside(x, y)) {
+            return null;
+        }
+        return cells[index(x, y)];
+    }
+
+    private void build(int width) {
+        for (List<Wall> walls : types.values()) {
+            for (Wall wall : walls) {
+                width = Math.max(width, Math.max(wall.getX(), wall.getY()) + 1);
+            }
+        }
+
+        this.width = width;
+        cells = new List[width * width];
+        for (List<Wall> walls : types.values()) {
+            for (Wall wall : walls) {
+                place(wall);
+            }
+        }
+    }
+
+    private void put(Wall wall) {
+        if (!inside(wall.getX(), wall.getY())
+                && wall.getX() >= 0 && wall.getY() >= 0)
+        {
+            // стенка за пределами сетки - пересобираем ее с запасом
+            build(width * 2);
+            return;
+        }
+        place(wall);
+    }
+
+    private void place(Wall wall) {
+        int x = wall.getX();
+        int y = wall.getY();
+        if (!inside(x, y)) {
+            return;
+        }
+
+        int index = index(x, y);
+        if (cells[index] == null) {
+            cells[index] = new ArrayList<>(1);
+        }
+        cells[index].add(wall);
+    }
+
+    private boolean inside(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < width;
+    }
+
+    private int index(int x, int y) {
+        return y * width + x;
+    }
+
+    private void removeFromType(Wall wall) {
+        List<Wall> walls = types.get(wall.getClass());
+        Wall last = walls.remove(walls.size() - 1);
+        if (last != wall) {
+            walls.set(wall.index(), last);
+            last.index(wall.index());
+        }
+    }
+
+    // equals у стенок по координатам, а удалять надо именно этот объект
+    private static void removeSame(List<Wall> walls, Wall wall) {
+        if (walls == null) {
+            return;
+        }
+        for (int index = 0; index < walls.size(); index++) {
+            if (walls.get(index) == wall) {
+                walls.remove(index);
+                return;
+            }
+        }
+    }
 }
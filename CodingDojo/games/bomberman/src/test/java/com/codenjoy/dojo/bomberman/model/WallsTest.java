@@ -35,6 +35,7 @@ import org.mockito.stubbing.Answer;
 
 import static com.codenjoy.dojo.services.settings.SimpleParameter.v;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.mock;
@@ -151,6 +152,121 @@ public class WallsTest {
                 "☼☼☼☼☼☼☼☼☼\n", actual.replace('&', ' '));
     }
 
+    @Test
+    public void shouldFindWallAfterMeatChopperMoved() {
+        // given
+        WallsImpl walls = new WallsImpl();
+        walls.add(1, 1);
+        MeatChopper chopper = new MeatChopper(2, 2);
+        walls.add(chopper);
+        assertEquals(true, walls.itsMe(2, 2));
+
+        // when
+        chopper.move(3, 2);
+
+        // then
+        assertEquals(false, walls.itsMe(2, 2));
+        assertEquals(true, walls.itsMe(3, 2));
+        assertSame(chopper, walls.get(3, 2));
+    }
+
+    @Test
+    public void shouldDestroyOnlyWallAtPoint() {
+        // given
+        WallsImpl walls = new WallsImpl();
+        walls.add(1, 1);
+        walls.add(new DestroyWall(2, 1));
+        walls.add(new MeatChopper(3, 1));
+
+        // when
+        Wall destroyed = walls.destroy(2, 1);
+
+        // then
+        assertEquals(DestroyWall.class, destroyed.getClass());
+        assertEquals(false, walls.itsMe(2, 1));
+        assertEquals("[]", walls.subList(DestroyWall.class).toString());
+        assertEquals("[[3,1]]", walls.subList(MeatChopper.class).toString());
+        assertEquals("[[1,1], [3,1]]", walls.subList(Wall.class).toString());
+
+        // when
+        destroyed = walls.destroy(2, 1);
+
+        // then
+        assertEquals("[-1,-1]", destroyed.toString());
+    }
+
+    @Test
+    public void shouldDestroyWallFromMiddleOfType() {
+        // given
+        WallsImpl walls = new WallsImpl();
+        walls.add(new DestroyWall(1, 1));
+        walls.add(new DestroyWall(2, 1));
+        walls.add(new DestroyWall(3, 1));
+        walls.add(new DestroyWall(4, 1));
+
+        // when
+        walls.destroy(2, 1);
+
+        // then
+        // на место удаленной стала последняя
+        assertEquals("[[1,1], [4,1], [3,1]]", walls.subList(DestroyWall.class).toString());
+
+        // when
+        walls.destroy(3, 1);
+        walls.destroy(1, 1);
+        walls.add(new DestroyWall(5, 1));
+
+        // then
+        assertEquals("[[4,1], [5,1]]", walls.subList(DestroyWall.class).toString());
+        assertEquals(false, walls.itsMe(1, 1));
+        assertEquals(false, walls.itsMe(3, 1));
+
+        // when
+        walls.destroy(5, 1);
+        walls.destroy(4, 1);
+
+        // then
+        assertEquals("[]", walls.subList(DestroyWall.class).toString());
+        assertEquals("[-1,-1]", walls.destroy(4, 1).toString());
+    }
+
+    @Test
+    public void shouldGrowGrid_whenWallAddedOutside() {
+        // given
+        WallsImpl walls = new WallsImpl();
+        walls.add(1, 1);
+        assertEquals(true, walls.itsMe(1, 1));
+
+        // when
+        walls.add(100, 50);
+        MeatChopper chopper = new MeatChopper(2, 2);
+        walls.add(chopper);
+        chopper.move(200, 3);
+
+        // then
+        assertEquals(true, walls.itsMe(1, 1));
+        assertEquals(true, walls.itsMe(100, 50));
+        assertEquals(true, walls.itsMe(200, 3));
+        assertEquals(false, walls.itsMe(2, 2));
+        assertEquals(false, walls.itsMe(-1, 0));
+    }
+
+    @Test
+    public void shouldNotTrackCopies() {
+        // given
+        WallsImpl walls = new WallsImpl();
+        MeatChopper chopper = new MeatChopper(2, 2);
+        walls.add(chopper);
+        WallsImpl copy = new WallsImpl(walls);
+
+        // when
+        chopper.move(3, 2);
+
+        // then
+        assertEquals(true, copy.itsMe(2, 2));
+        assertEquals(false, copy.itsMe(3, 2));
+    }
+
     private String getBoardWithDestroyWalls() {
         walls = new EatSpaceWalls(new OriginalWalls(v(SIZE)), board, v(SIZE * SIZE / 10), new RandomDice());
         walls.tick();
@@ -25,4 +25,13 @@ package com.codenjoy.dojo.services;
 
 public interface State<E, T> {
     E state(T player, Object... alsoAtPoint);
+
+    /**
+     * @return true, если то, как выглядит элемент, не зависит от игрока.
+     * Такие клетки при общей отрисовке поля рисуются один раз
+     * для всех игроков (см. {@link com.codenjoy.dojo.services.printer.FieldCells}).
+     */
+    default boolean isSameForAll() {
+        return false;
+    }
 }
@@ -0,0 +1,239 @@
+package com.codenjoy.dojo.services.algs;
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2018 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.services.Direction;
+import com.codenjoy.dojo.services.LengthToXY;
+import com.codenjoy.dojo.services.Point;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+import static com.codenjoy.dojo.services.PointImpl.pt;
+
+/**
+ * Поиск в ширину по плоским массивам, проиндексированным через LengthToXY.
+ * Все цели ищутся за один проход, путь восстанавливается по направлениям,
+ * которыми пришли в клетку. Буферы переиспользуются между вызовами,
+ * а потому экземпляр лучше держать, а не создавать на каждый поиск.
+ * Из равных по длине путей выбирается путь к цели, которая раньше в списке.
+ *
+ * Possible.possible(from, direction) спрашивается только для клеток,
+ * до которых дошел поиск. Если ответ зависит от порядка вызовов (например,
+ * там бросают кубик), можно попросить опросить все клетки заранее
+ * в том порядке, как это делал DeikstraFindWay.
+ */
+public class BfsFindWay {
+
+    private static final Direction[] DIRECTIONS = {Direction.UP, Direction.DOWN, Direction.LEFT, Direction.RIGHT};
+
+    private boolean allMoves;
+    private int size;
+    private LengthToXY xy;
+
+    // номер поиска, в котором клетку уже нашли / она является целью
+    private int[] visited;
+    private int[] goals;
+    private int search;
+
+    private int[] order;
+    private int[] distance;
+    private byte[] came;
+    private int[] queue;
+
+    // разрешенные ходы из клетки битами по DIRECTIONS, если опрашивали заранее
+    private byte[] moves;
+
+    public BfsFindWay() {
+        this(false);
+    }
+
+    /**
+     * @param allMoves опрашивать ли possible(from, direction) для всех клеток поля
+     *                 до начала поиска, по x, потом по y, потом по направлениям
+     */
+    public BfsFindWay(boolean allMoves) {
+        this.allMoves = allMoves;
+    }
+
+    public List<Direction> getShortestWay(int size, Point from, List<Point> goals, DeikstraFindWay.Possible possible) {
+        prepare(size);
+        if (allMoves) {
+            calculateMoves(possible);
+        }
+        if (from.isOutOf(size)) {
+            return Arrays.asList();
+        }
+
+        if (!markGoals(goals)) {
+            return Arrays.asList();
+        }
+
+        int found = search(xy.getLength(from.getX(), from.getY()), possible);
+        if (found == -1) {
+            return Arrays.asList();
+        }
+
+        return path(found);
+    }
+
+    private void prepare(int size) {
+        if (this.size != size || visited == null) {
+            this.size = size;
+            xy = new LengthToXY(size);
+            int length = size * size;
+            visited = new int[length];
+            goals = new int[length];
+            order = new int[length];
+            distance = new int[length];
+            came = new byte[length];
+            queue = new int[length];
+            moves = allMoves ? new byte[length] : null;
+            search = 0;
+        }
+
+        if (search == Integer.MAX_VALUE) {
+            Arrays.fill(visited, 0);
+            Arrays.fill(goals, 0);
+            search = 0;
+        }
+        search++;
+    }
+
+    private void calculateMoves(DeikstraFindWay.Possible possible) {
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                Point from = pt(x, y);
+                int mask = 0;
+                for (int index = 0; index < DIRECTIONS.length; index++) {
+                    if (possible.possible(from, DIRECTIONS[index])) {
+                        mask |= 1 << index;
+                    }
+                }
+                moves[xy.getLength(x, y)] = (byte) mask;
+            }
+        }
+    }
+
+    /**
+     * Ходы из клетки, рассчитанные перед последним поиском.
+     * Есть только если опрашивали все клетки заранее.
+     */
+    public List<Direction> getMoves(Point from) {
+        List<Direction> result = new LinkedList<>();
+        if (moves == null || from.isOutOf(size)) {
+            return result;
+        }
+        int mask = moves[xy.getLength(from.getX(), from.getY())];
+        for (int index = 0; index < DIRECTIONS.length; index++) {
+            if ((mask & (1 << index)) != 0) {
+                result.add(DIRECTIONS[index]);
+            }
+        }
+        return result;
+    }
+
+    private boolean canMove(int cell, Point from, int index, DeikstraFindWay.Possible possible) {
+        if (allMoves) {
+            return (moves[cell] & (1 << index)) != 0;
+        }
+        return possible.possible(from, DIRECTIONS[index]);
+    }
+
+    private boolean markGoals(List<Point> points) {
+        boolean any = false;
+        int index = 0;
+        for (Point goal : points) {
+            if (!goal.isOutOf(size)) {
+                int cell = xy.getLength(goal.getX(), goal.getY());
+                if (goals[cell] != search) {
+                    goals[cell] = search;
+                    order[cell] = index;
+                    any = true;
+                }
+            }
+            index++;
+        }
+        return any;
+    }
+
+    /**
+     * @return ближайшая цель (из равноудаленных та, что раньше в списке), или -1
+     */
+    private int search(int start, DeikstraFindWay.Possible possible) {
+        int head = 0;
+        int tail = 0;
+        visited[start] = search;
+        distance[start] = 0;
+        queue[tail++] = start;
+
+        int found = -1;
+        int best = Integer.MAX_VALUE;
+        while (head < tail) {
+            int current = queue[head++];
+            int next = distance[current] + 1;
+            if (next > best) {
+                break;
+            }
+
+            Point from = xy.getXY(current);
+            for (int index = 0; index < DIRECTIONS.length; index++) {
+                if (!canMove(current, from, index, possible)) continue;
+
+                Direction direction = DIRECTIONS[index];
+                Point to = direction.change(from);
+                if (to.isOutOf(size)) continue;
+                if (!possible.possible(to)) continue;
+
+                int cell = xy.getLength(to.getX(), to.getY());
+                if (visited[cell] == search) continue;
+
+                visited[cell] = search;
+                distance[cell] = next;
+                came[cell] = (byte) index;
+                queue[tail++] = cell;
+
+                if (goals[cell] == search
+                        && (found == -1 || order[cell] < order[found]))
+                {
+                    found = cell;
+                    best = next;
+                }
+            }
+        }
+        return found;
+    }
+
+    private List<Direction> path(int cell) {
+        LinkedList<Direction> result = new LinkedList<>();
+        Point current = xy.getXY(cell);
+        for (int step = distance[cell]; step > 0; step--) {
+            Direction direction = DIRECTIONS[came[cell]];
+            result.addFirst(direction);
+            current = direction.inverted().change(current);
+            cell = xy.getLength(current.getX(), current.getY());
+        }
+        return result;
+    }
+}
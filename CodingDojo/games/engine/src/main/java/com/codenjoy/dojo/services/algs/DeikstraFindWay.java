@@ -25,18 +25,20 @@ package com.codenjoy.dojo.services.algs;
 
 import com.codenjoy.dojo.services.Direction;
 import com.codenjoy.dojo.services.Point;
-import com.codenjoy.dojo.services.PointImpl;
 
 import java.util.*;
 
 import static com.codenjoy.dojo.services.PointImpl.pt;
 
+/**
+ * Оставлен ради совместимости, сам поиск делает {@link BfsFindWay}.
+ * Ходы из всех клеток опрашиваются заранее, как и раньше - многие ai
+ * бросают кубик в Possible, и от порядка вызовов зависит их поведение.
+ */
 public class DeikstraFindWay {
 
-    private static final List<Direction> DIRECTIONS = Arrays.asList(Direction.UP, Direction.DOWN, Direction.LEFT, Direction.RIGHT);
-    private Map<Point, List<Direction>> possibleWays;
+    private BfsFindWay bfs;
     private int size;
-    private Possible possible;
 
     public static interface Possible {
         boolean possible(Point from, Direction direction);
@@ -44,97 +46,22 @@ public class DeikstraFindWay {
     }
 
     public DeikstraFindWay() {
+        bfs = new BfsFindWay(true);
     }
 
     public List<Direction> getShortestWay(int size, Point from, List<Point> goals, Possible possible) {
         this.size = size;
-        this.possible = possible;
-        setupPossibleWays();
-
-        List<List<Direction>> paths = new LinkedList<List<Direction>>();
-        for (Point to : goals) {
-            List<Direction> path = getPath(from).get(to);
-            if (path == null || path.isEmpty()) continue;
-            paths.add(path);
-        }
-
-        int minDistance = Integer.MAX_VALUE;
-        int indexMin = 0;
-        for (int index = 0; index < paths.size(); index++) {
-            List<Direction> path = paths.get(index);
-            if (minDistance > path.size()) {
-                minDistance = path.size();
-                indexMin = index;
-            }
-        }
-
-        if (paths.isEmpty()) return Arrays.asList();
-        List<Direction> shortest = paths.get(indexMin);
-        if (shortest.size() == 0) return Arrays.asList();
-
-        return shortest;
+        return bfs.getShortestWay(size, from, goals, possible);
     }
 
-    private Map<Point, List<Direction>> getPath(Point from) {
-        Map<Point, List<Direction>> path = new HashMap<Point, List<Direction>>();
-        for (Point point : possibleWays.keySet()) {
-            path.put(point, new LinkedList<Direction>());
-        }
-
-        boolean[][] processed = new boolean[size][size];
-        LinkedList<Point> toProcess = new LinkedList<Point>();
-
-        Point current = from;
-        do {
-            if (current == null) {
-                if (toProcess.isEmpty()) { // TODO test me
-                    break;
-                }
-                current = toProcess.remove();
-            }
-            List<Direction> before = path.get(current);
-            for (Direction direction : possibleWays.get(current)) {
-                Point to = direction.change(current);
-                if (possible != null) {
-                    if (!possible.possible(to)) continue;
-                }
-                if (processed[to.getX()][to.getY()]) continue;
-
-                List<Direction> directions = path.get(to);
-                if (directions.isEmpty() || directions.size() > before.size() + 1) {
-                    directions.addAll(before);
-                    directions.add(direction);
-
-                    if (!processed[to.getX()][to.getY()]) {
-                        toProcess.add(to);
-                    }
-                }
-            }
-            processed[current.getX()][current.getY()] = true;
-            current = null;
-        } while (!toProcess.isEmpty());
-
-        return path;
-    }
-
-    private void setupPossibleWays() {
-        possibleWays = new TreeMap<>();
-
+    public Map<Point, List<Direction>> getPossibleWays() {
+        Map<Point, List<Direction>> result = new TreeMap<>();
         for (int x = 0; x < size; x++) {
             for (int y = 0; y < size; y++) {
                 Point from = pt(x, y);
-                List<Direction> directions = new LinkedList<>();
-                for (Direction direction : DIRECTIONS) {
-                    if (possible.possible(from, direction)) {
-                        directions.add(direction);
-                    }
-                }
-                possibleWays.put(from, directions);
+                result.put(from, bfs.getMoves(from));
             }
         }
-    }
-
-    public Map<Point, List<Direction>> getPossibleWays() {
-        return possibleWays;
+        return result;
     }
 }
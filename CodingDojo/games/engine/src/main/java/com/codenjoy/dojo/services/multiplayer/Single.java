@@ -27,6 +27,7 @@ import com.codenjoy.dojo.services.Game;
 import com.codenjoy.dojo.services.Joystick;
 import com.codenjoy.dojo.services.hero.HeroData;
 import com.codenjoy.dojo.services.hero.HeroDataImpl;
+import com.codenjoy.dojo.services.printer.FieldCells;
 import com.codenjoy.dojo.services.printer.Printer;
 import com.codenjoy.dojo.services.printer.PrinterFactory;
 import org.json.JSONObject;
@@ -63,7 +64,7 @@ public class Single implements Game {
         if (field == null) {
             printer = null;
         } else {
-            printer = factory.getPrinter(field.reader(), player);
+            printer = factory.getPrinter(field, player);
         }
     }
 
@@ -107,6 +108,7 @@ public class Single implements Game {
     @Override
     public void newGame() {
         field.newGame(player);
+        FieldCells.changed(field);
     }
 
     @Override
@@ -115,6 +117,7 @@ public class Single implements Game {
             save.remove("levelProgress");
         }
         field.loadSave(save);
+        FieldCells.changed(field);
     }
 
     @Override
@@ -145,6 +148,7 @@ public class Single implements Game {
     public void close() {
         if (field != null) {
             field.remove(player);
+            FieldCells.changed(field);
         }
         on(null);
     }
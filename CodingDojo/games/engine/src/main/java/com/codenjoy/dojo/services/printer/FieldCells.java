@@ -0,0 +1,249 @@
+package com.codenjoy.dojo.services.printer;
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2018 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+
+
+import com.codenjoy.dojo.services.Point;
+import com.codenjoy.dojo.services.State;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Раскладка элементов поля по клеткам - то, что {@link PrinterImpl}
+ * строит перед отрисовкой доски. Для всех игроков одного поля она
+ * одинакова, а отличается только то, как каждый игрок видит элементы
+ * (своего героя, чужих героев и т.д.) - см. {@link com.codenjoy.dojo.services.State}.
+ *
+ * В режиме shared раскладка строится один раз на поле и переиспользуется
+ * всеми принтерами этого поля, пока поле не изменится (тик, новый игрок и т.д.).
+ * Там же один раз рисуется общая основа доски - клетки, все элементы которых
+ * выглядят одинаково для всех игроков ({@link State#isSameForAll()}),
+ * а каждый игрок дорисовывает только оставшиеся клетки -
+ * так стоимость отрисовки растет с количеством полей, а не игроков.
+ *
+ * Раскладка держит элементы поля, а те - само поле, а потому
+ * когда поле больше не нужно, его надо убрать через {@link #remove(Object)}.
+ */
+public class FieldCells {
+
+    private static volatile boolean shared;
+    private static final Map<Object, FieldCells> cache = new ConcurrentHashMap<>();
+
+    private final BoardReader reader;
+    private boolean actual;
+
+    // клетки хранятся в плоских массивах (индекс x * size + y)
+    // и переиспользуются между тиками, пока не поменялся размер поля
+    private int size;
+    private Object[][] field;
+    private byte[] len;
+
+    // общая для всех игроков основа доски и клетки, которые каждый рисует сам
+    private boolean based;
+    private char[] base;
+    private BitSet personal;
+
+    public FieldCells(BoardReader reader) {
+        this.reader = reader;
+    }
+
+    public static void shared(boolean enabled) {
+        shared = enabled;
+        if (!enabled) {
+            cache.clear();
+        }
+    }
+
+    public static boolean isShared() {
+        return shared;
+    }
+
+    /**
+     * @param key поле, для всех игроков которого раскладка общая
+     * @param reader любой из reader'ов этого поля
+     * @return общая раскладка поля
+     */
+    public static FieldCells get(Object key, BoardReader reader) {
+        return cache.computeIfAbsent(key, k -> new FieldCells(reader));
+    }
+
+    /**
+     * Поле больше не нужно (из него ушел последний игрок) - забываем раскладку.
+     * @param key поле
+     */
+    public static void remove(Object key) {
+        if (key != null) {
+            cache.remove(key);
+        }
+    }
+
+    static int cached() {
+        return cache.size();
+    }
+
+    /**
+     * Поле поменялось, а значит и раскладку надо будет построить заново.
+     * @param key поле
+     */
+    public static void changed(Object key) {
+        if (!shared || key == null) {
+            return;
+        }
+        FieldCells cells = cache.get(key);
+        if (cells != null) {
+            cells.changed();
+        }
+    }
+
+    public synchronized void changed() {
+        actual = false;
+    }
+
+    /**
+     * Перестраивает раскладку, если она устарела.
+     * В не shared режиме - перестраивает всегда.
+     */
+    public synchronized void update() {
+        if (actual && shared) {
+            return;
+        }
+
+        int newSize = reader.size();
+        if (field == null || newSize != size) {
+            size = newSize;
+            field = new Object[size * size][];
+            len = new byte[size * size];
+            base = new char[size * size];
+            personal = new BitSet(size * size);
+        } else {
+            clear();
+        }
+
+        addAll(reader.elements());
+        actual = true;
+        based = false;
+    }
+
+    /**
+     * Рисует общую основу доски, если она еще не нарисована после
+     * последнего изменения поля.
+     * @param player любой из игроков поля - для элементов
+     *               {@link State#isSameForAll()} неважно, какой
+     * @param empty чем рисовать пустую клетку
+     */
+    public synchronized <E extends CharElements, P> void base(P player, char empty) {
+        if (based) {
+            return;
+        }
+        personal.clear();
+        for (int index = 0; index < base.length; index++) {
+            Object[] elements = field[index];
+            int count = len[index];
+            if (elements == null || count == 0) {
+                base[index] = empty;
+                continue;
+            }
+
+            // '\0' - ни один элемент себя не нарисовал, клетка остается пустой
+            base[index] = '\0';
+            for (int i = 0; i < count; i++) {
+                State<E, P> state = (State<E, P>) elements[i];
+                if (!state.isSameForAll()) {
+                    personal.set(index);
+                    break;
+                }
+                E el = state.state(player, elements);
+                if (el != null) {
+                    base[index] = el.ch();
+                    break;
+                }
+            }
+        }
+        based = true;
+    }
+
+    /**
+     * @return true, если клетку каждый игрок рисует сам
+     */
+    public boolean isPersonal(int x, int y) {
+        return personal.get(x * size + y);
+    }
+
+    /**
+     * @return символ клетки из общей основы доски
+     */
+    public char base(int x, int y) {
+        return base[x * size + y];
+    }
+
+    /**
+     * Массивы клеток оставляем, а вот элементы в них затираем -
+     * иначе State.state(player, alsoAtPoint) увидит элементы прошлого тика.
+     */
+    private void clear() {
+        for (int index = 0; index < len.length; index++) {
+            if (len[index] != 0) {
+                Arrays.fill(field[index], 0, len[index], null);
+                len[index] = 0;
+            }
+        }
+    }
+
+    private void addAll(Iterable<? extends Point> elements) {
+        for (Point el : elements) {
+            int x = el.getX();
+            int y = el.getY();
+
+            if (x < 0 || y < 0 || x >= size || y >= size) {
+                continue; // TODO test me (пропускаем элементы за пределами борды)
+            }
+            int index = x * size + y;
+            Object[] existing = field[index];
+            if (existing == null) {
+                existing = new Object[7];
+                field[index] = existing;
+            }
+            existing[len[index]] = el;
+            len[index]++;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return элементы в клетке или null, если клетка пустая
+     */
+    public Object[] get(int x, int y) {
+        return field[x * size + y];
+    }
+
+    public int count(int x, int y) {
+        return len[x * size + y];
+    }
+}
@@ -23,12 +23,23 @@ package com.codenjoy.dojo.services.printer;
  */
 
 import com.codenjoy.dojo.services.GraphicPrinter;
+import com.codenjoy.dojo.services.multiplayer.GameField;
 import com.codenjoy.dojo.services.multiplayer.GamePlayer;
 
 @FunctionalInterface
 public interface PrinterFactory <E extends CharElements, P extends GamePlayer> {
     Printer getPrinter(BoardReader reader, P player);
 
+    /**
+     * @param field Поле, на котором играет игрок. Принтеры разных игроков
+     *              одного поля могут делить часть работы по отрисовке.
+     * @param player Игрок, для которого рисуем борду.
+     * @return Принтер борды для этого игрока.
+     */
+    default Printer getPrinter(GameField field, P player) {
+        return getPrinter(field.reader(), player);
+    }
+
     /**
      * @param printer Кастомный принтер, который будет прорисовывать борду.
      * @param <P> Тип объекта-игрока в игре (не путать с Player во время регистрации пользователя)
@@ -23,6 +23,7 @@ package com.codenjoy.dojo.services.printer;
  */
 
 
+import com.codenjoy.dojo.services.multiplayer.GameField;
 import com.codenjoy.dojo.services.multiplayer.GamePlayer;
 
 /**
@@ -33,4 +34,9 @@ public class PrinterFactoryImpl<E extends CharElements, P extends GamePlayer> im
     public Printer getPrinter(BoardReader reader, P player) {
         return PrinterImpl.getPrinter(reader, player);
     }
+
+    @Override
+    public Printer getPrinter(GameField field, P player) {
+        return PrinterImpl.getPrinter(field, player);
+    }
 }
@@ -24,27 +24,40 @@ package com.codenjoy.dojo.services.printer;
 
 
 import com.codenjoy.dojo.services.GamePrinter;
-import com.codenjoy.dojo.services.Point;
-import com.codenjoy.dojo.services.PointImpl;
 import com.codenjoy.dojo.services.State;
+import com.codenjoy.dojo.services.multiplayer.GameField;
 
-import static com.codenjoy.dojo.services.PointImpl.pt;
+import java.util.Arrays;
 
 /**
  * Этот малый умеет печатать состояние борды на экране.
  * @see PrinterImpl#print(Object...)
   */
-class PrinterImpl implements Printer<String> {
+class PrinterImpl implements Printer<String>, GamePrinter.Filler {
     public static final String ERROR_SYMBOL = "Ъ";
-    private char[][] field;
+    private static final char ERROR_CHAR = ERROR_SYMBOL.charAt(0);
+
+    // доска построчно, в конце каждой строки '\n' - переиспользуется между вызовами
+    private char[] field;
     private final int size;
     private GamePrinter printer;
+    private boolean error;
 
     public static <E extends CharElements, P> Printer getPrinter(BoardReader reader, P player) {
         return new PrinterImpl(reader.size(),
                 new GamePrinterImpl<E, P>(reader, player));
     }
 
+    /**
+     * Принтер, который делит раскладку элементов поля с другими
+     * игроками этого поля, если включен режим {@link FieldCells#shared(boolean)}.
+     */
+    public static <E extends CharElements, P> Printer getPrinter(GameField field, P player) {
+        BoardReader reader = field.reader();
+        return new PrinterImpl(reader.size(),
+                new GamePrinterImpl<E, P>(field, reader, player));
+    }
+
     public PrinterImpl(int size, GamePrinter printer) {
         this.printer = printer;
         this.size = size;
@@ -58,16 +71,8 @@ class PrinterImpl implements Printer<String> {
     public String print(Object... parameters) {
         fillField();
 
-        StringBuilder string = new StringBuilder();
-        for (char[] currentRow : field) {
-            for (char ch : currentRow) {
-                string.append(ch);
-            }
-            string.append("\n");
-        }
-
-        String result = string.toString();
-        if (result.contains(ERROR_SYMBOL)) {
+        String result = new String(field);
+        if (error) {
             throw new IllegalArgumentException("Обрати внимание на поле - в месте 'Ъ' появился " +
                     "null Element. И как только он туда попал?\n" + result);
         }
@@ -76,31 +81,53 @@ class PrinterImpl implements Printer<String> {
     }
 
     private void fillField() {
-        field = new char[size][size];
-        printer.init();
+        int width = size + 1;
+        if (field == null) {
+            field = new char[width * size];
+        }
+        for (int y = 0; y < size; y++) {
+            int row = y * width;
+            Arrays.fill(field, row, row + size, '\0');
+            field[row + size] = '\n';
+        }
+        error = false;
 
-        printer.printAll((x, y, ch) -> PrinterImpl.this.set(x, y, ch));
+        printer.init();
+        printer.printAll(this);
     }
 
-    private void set(int x, int y, char ch) {
+    @Override
+    public void set(int x, int y, char ch) {
         if (x == -1 || y == -1) { // TODO убрать это
             return;
         }
 
-        field[size - 1 - y][x] = ch;
+        if (ch == ERROR_CHAR) {
+            error = true;
+        }
+        field[(size - 1 - y) * (size + 1) + x] = ch;
     }
 
     static class GamePrinterImpl<E extends CharElements, P> implements GamePrinter {
 
         private final BoardReader board;
-        private int size;
+        private final Object key;
         private P player;
         private char emptyChar;
 
-        private Object[][] field;
-        private byte[][] len;
+        private FieldCells own;
+        private FieldCells cells;
 
         public GamePrinterImpl(BoardReader board, P player) {
+            this(null, board, player);
+        }
+
+        /**
+         * @param key поле, если раскладку элементов по клеткам
+         *            можно делить с другими игроками этого поля
+         */
+        public GamePrinterImpl(Object key, BoardReader board, P player) {
+            this.key = key;
             this.board = board;
             this.player = player;
             this.emptyChar = ' ';
@@ -108,42 +135,32 @@ class PrinterImpl implements Printer<String> {
 
         @Override
         public void init() {
-            size = board.size();
-            field = new Object[size][size];
-            len = new byte[size][size];
-
-            addAll(board.elements());
-        }
-
-        private void addAll(Iterable<? extends Point> elements) {
-            for (Point el : elements) {
-                int x = el.getX();
-                int y = el.getY();
-
-                if (pt(x, y).isOutOf(field.length)) {
-                    continue; // TODO test me (пропускаем элементы за пределами борды)
+            if (key != null && FieldCells.isShared()) {
+                cells = FieldCells.get(key, board);
+            } else {
+                if (own == null) {
+                    own = new FieldCells(board);
                 }
-                Object[] existing = (Object[]) field[x][y];
-                if (existing == null) {
-                    existing = new Object[7];
-                    field[x][y] = existing;
-                }
-                existing[len[x][y]] = el;
-                len[x][y]++;
+                cells = own;
             }
+            cells.update();
         }
 
         @Override
         public void printAll(Filler filler) {
+            cells.base(player, emptyChar);
+
+            int size = cells.size();
             for (int x = 0; x < size; x++) {
                 for (int y = 0; y < size; y++) {
-                    Object[] elements = (Object[]) field[x][y];
-                    if (elements == null || len[x][y] == 0) {
-                        filler.set(x, y, emptyChar);
+                    if (!cells.isPersonal(x, y)) {
+                        filler.set(x, y, cells.base(x, y));
                         continue;
                     }
 
-                    for (int index = 0; index < len[x][y]; index++) {
+                    Object[] elements = cells.get(x, y);
+                    int len = cells.count(x, y);
+                    for (int index = 0; index < len; index++) {
                         State<E, P> state = (State<E, P>)elements[index];
                         E el = state.state(player, elements);
                         if (el != null) {
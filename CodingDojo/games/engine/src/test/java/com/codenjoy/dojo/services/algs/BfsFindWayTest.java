@@ -0,0 +1,115 @@
+package com.codenjoy.dojo.services.algs;
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2018 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.services.Direction;
+import com.codenjoy.dojo.services.Point;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static com.codenjoy.dojo.services.PointImpl.pt;
+import static org.junit.Assert.assertEquals;
+
+public class BfsFindWayTest {
+
+    private BfsFindWay way = new BfsFindWay();
+    private boolean[][] walls;
+    private DeikstraFindWay.Possible possible;
+
+    private DeikstraFindWay.Possible possible(int size) {
+        walls = new boolean[size][size];
+        return new DeikstraFindWay.Possible() {
+            @Override
+            public boolean possible(Point from, Direction direction) {
+                Point to = direction.change(from);
+                return !to.isOutOf(size) && !walls[to.getX()][to.getY()];
+            }
+
+            @Override
+            public boolean possible(Point atWay) {
+                return true;
+            }
+        };
+    }
+
+    private String find(int size, Point from, Point... goals) {
+        return way.getShortestWay(size, from, Arrays.asList(goals), possible).toString();
+    }
+
+    @Test
+    public void shouldFindNearestGoal() {
+        possible = possible(5);
+
+        assertEquals("[UP, UP]",
+                find(5, pt(0, 0), pt(4, 4), pt(0, 2), pt(3, 0)));
+    }
+
+    @Test
+    public void shouldPreferFirstGoal_whenSameDistance() {
+        possible = possible(5);
+
+        assertEquals("[RIGHT, RIGHT]",
+                find(5, pt(2, 2), pt(4, 2), pt(0, 2)));
+
+        assertEquals("[LEFT, LEFT]",
+                find(5, pt(2, 2), pt(0, 2), pt(4, 2)));
+    }
+
+    @Test
+    public void shouldGoAroundWalls() {
+        possible = possible(5);
+        walls[1][0] = true;
+        walls[1][1] = true;
+
+        assertEquals("[UP, UP, RIGHT, RIGHT, DOWN, DOWN]",
+                find(5, pt(0, 0), pt(2, 0)));
+    }
+
+    @Test
+    public void shouldReturnEmpty_whenNoWay() {
+        possible = possible(5);
+        walls[1][0] = true;
+        walls[0][1] = true;
+
+        assertEquals("[]", find(5, pt(0, 0), pt(4, 4)));
+        assertEquals("[]", find(5, pt(4, 4), pt(4, 4)));
+        assertEquals("[]", find(5, pt(4, 4), pt(5, 4), pt(-1, 0)));
+        assertEquals("[]", find(5, pt(4, 4)));
+    }
+
+    @Test
+    public void shouldReuseBuffers_whenSizeChanged() {
+        possible = possible(5);
+        assertEquals("[RIGHT, RIGHT, RIGHT, RIGHT]",
+                find(5, pt(0, 0), pt(4, 0)));
+
+        possible = possible(3);
+        assertEquals("[RIGHT, RIGHT]",
+                find(3, pt(0, 0), pt(2, 0)));
+
+        List<Direction> again = way.getShortestWay(3, pt(0, 0), Arrays.asList(pt(2, 0)), possible);
+        assertEquals("[RIGHT, RIGHT]", again.toString());
+    }
+}
@@ -0,0 +1,286 @@
+package com.codenjoy.dojo.services.printer;
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2018 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+
+import com.codenjoy.dojo.services.Point;
+import com.codenjoy.dojo.services.PointImpl;
+import com.codenjoy.dojo.services.State;
+import com.codenjoy.dojo.services.multiplayer.GameField;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static com.codenjoy.dojo.services.PointImpl.pt;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.*;
+
+public class PrinterImplTest {
+
+    private GameField field;
+    private BoardReader reader;
+    private List<Point> elements;
+
+    enum Elements implements CharElements {
+
+        HERO('☺'), OTHER_HERO('☻'), WALL('#'), ERROR('Ъ');
+
+        private char ch;
+
+        Elements(char ch) {
+            this.ch = ch;
+        }
+
+        @Override
+        public char ch() {
+            return ch;
+        }
+    }
+
+    static class Hero extends PointImpl implements State<Elements, Object> {
+
+        private Object owner;
+
+        public Hero(Point point, Object owner) {
+            super(point);
+            this.owner = owner;
+        }
+
+        @Override
+        public Elements state(Object player, Object... alsoAtPoint) {
+            return (player == owner) ? Elements.HERO : Elements.OTHER_HERO;
+        }
+    }
+
+    static class Wall extends PointImpl implements State<Elements, Object> {
+
+        public Wall(Point point) {
+            super(point);
+        }
+
+        @Override
+        public Elements state(Object player, Object... alsoAtPoint) {
+            return Elements.WALL;
+        }
+    }
+
+    @Before
+    public void setup() {
+        elements = Arrays.asList(new Wall(pt(0, 0)), new Wall(pt(2, 2)),
+                new Hero(pt(1, 1), "player1"), new Hero(pt(2, 1), "player2"));
+
+        reader = mock(BoardReader.class);
+        when(reader.size()).thenReturn(3);
+        when(reader.elements()).thenAnswer(inv -> elements);
+
+        field = mock(GameField.class);
+        when(field.reader()).thenReturn(reader);
+    }
+
+    @After
+    public void after() {
+        FieldCells.shared(false);
+    }
+
+    @Test
+    public void shouldPrintPlayerView_whenNotShared() {
+        // given
+        Printer printer1 = PrinterImpl.getPrinter(field, "player1");
+        Printer printer2 = PrinterImpl.getPrinter(field, "player2");
+
+        // when then
+        assertEquals("  #\n" +
+                " ☺☻\n" +
+                "#  \n", printer1.print());
+
+        assertEquals("  #\n" +
+                " ☻☺\n" +
+                "#  \n", printer2.print());
+
+        verify(reader, times(2)).elements();
+    }
+
+    @Test
+    public void shouldBuildCellsOnce_whenShared() {
+        // given
+        FieldCells.shared(true);
+        Printer printer1 = PrinterImpl.getPrinter(field, "player1");
+        Printer printer2 = PrinterImpl.getPrinter(field, "player2");
+
+        // when then
+        assertEquals("  #\n" +
+                " ☺☻\n" +
+                "#  \n", printer1.print());
+
+        assertEquals("  #\n" +
+                " ☻☺\n" +
+                "#  \n", printer2.print());
+
+        verify(reader, times(1)).elements();
+    }
+
+    @Test
+    public void shouldRebuildCells_whenFieldChanged() {
+        // given
+        FieldCells.shared(true);
+        Printer printer = PrinterImpl.getPrinter(field, "player1");
+        printer.print();
+
+        elements = Arrays.asList(new Wall(pt(0, 0)), new Hero(pt(1, 2), "player1"));
+
+        // when
+        FieldCells.changed(field);
+
+        // then
+        assertEquals(" ☺ \n" +
+                "   \n" +
+                "#  \n", printer.print());
+
+        verify(reader, times(2)).elements();
+    }
+
+    static class SameWall extends Wall {
+
+        private int calls;
+
+        public SameWall(Point point) {
+            super(point);
+        }
+
+        @Override
+        public Elements state(Object player, Object... alsoAtPoint) {
+            calls++;
+            return super.state(player, alsoAtPoint);
+        }
+
+        @Override
+        public boolean isSameForAll() {
+            return true;
+        }
+    }
+
+    @Test
+    public void shouldPrintSameForAllCellsOnce_whenShared() {
+        // given
+        FieldCells.shared(true);
+        SameWall wall1 = new SameWall(pt(0, 0));
+        SameWall wall2 = new SameWall(pt(2, 2));
+        elements = Arrays.asList(wall1, wall2,
+                new Hero(pt(1, 1), "player1"), new Hero(pt(2, 1), "player2"));
+
+        Printer printer1 = PrinterImpl.getPrinter(field, "player1");
+        Printer printer2 = PrinterImpl.getPrinter(field, "player2");
+
+        // when then
+        assertEquals("  #\n" +
+                " ☺☻\n" +
+                "#  \n", printer1.print());
+
+        assertEquals("  #\n" +
+                " ☻☺\n" +
+                "#  \n", printer2.print());
+
+        assertEquals(1, wall1.calls);
+        assertEquals(1, wall2.calls);
+
+        // when
+        FieldCells.changed(field);
+        printer2.print();
+
+        // then
+        assertEquals(2, wall1.calls);
+    }
+
+    @Test
+    public void shouldPrintPersonalElement_whenItIsAboveSameForAll() {
+        // given
+        FieldCells.shared(true);
+        elements = Arrays.asList(new Hero(pt(0, 0), "player1"), new SameWall(pt(0, 0)));
+
+        Printer printer1 = PrinterImpl.getPrinter(field, "player1");
+        Printer printer2 = PrinterImpl.getPrinter(field, "player2");
+
+        // when then
+        assertEquals("   \n" +
+                "   \n" +
+                "☺  \n", printer1.print());
+
+        assertEquals("   \n" +
+                "   \n" +
+                "☻  \n", printer2.print());
+    }
+
+    @Test
+    public void shouldForgetCells_whenFieldRemoved() {
+        // given
+        FieldCells.shared(true);
+        PrinterImpl.getPrinter(field, "player1").print();
+        assertEquals(1, FieldCells.cached());
+
+        // when
+        FieldCells.remove(field);
+
+        // then
+        assertEquals(0, FieldCells.cached());
+    }
+
+    @Test
+    public void shouldReuseBuffers_whenPrintSeveralTimes() {
+        // given
+        Printer printer = PrinterImpl.getPrinter(field, "player1");
+        printer.print();
+
+        // when
+        elements = Arrays.asList(new Hero(pt(1, 2), "player1"));
+
+        // then
+        assertEquals(" ☺ \n" +
+                "   \n" +
+                "   \n", printer.print());
+    }
+
+    @Test
+    public void shouldFail_whenErrorElement() {
+        // given
+        Printer printer = PrinterImpl.getPrinter(field, "player1");
+        elements = Arrays.asList(new Wall(pt(0, 0)) {
+            @Override
+            public Elements state(Object player, Object... alsoAtPoint) {
+                return Elements.ERROR;
+            }
+        });
+
+        // when
+        try {
+            printer.print();
+            fail("Expected exception");
+        } catch (IllegalArgumentException e) {
+            // then
+            assertEquals(true, e.getMessage().contains("Ъ  \n"));
+        }
+    }
+}
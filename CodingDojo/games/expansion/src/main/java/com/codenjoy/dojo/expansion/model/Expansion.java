@@ -25,6 +25,7 @@ package com.codenjoy.dojo.expansion.model;
 import com.codenjoy.dojo.expansion.model.levels.Cell;
 import com.codenjoy.dojo.expansion.model.levels.Item;
 import com.codenjoy.dojo.expansion.model.levels.Level;
+import com.codenjoy.dojo.expansion.model.levels.LevelImpl;
 import com.codenjoy.dojo.expansion.model.levels.items.*;
 import com.codenjoy.dojo.expansion.model.replay.GameLogger;
 import com.codenjoy.dojo.expansion.services.Events;
@@ -228,12 +229,7 @@ public class Expansion implements Tickable, IField {
         private int count;
 
         public int count() {
-            return Arrays.asList(level.getCells()).stream()
-                    .mapToInt(cell -> {
-                        List<HeroForces> items = cell.getItems(HeroForces.class);
-                        if (items.isEmpty()) return 0;
-                        return items.stream().mapToInt((heroForces) -> heroForces.getCount()).sum();
-                    }).sum();
+            return level.forces();
         }
 
         public void before(){
@@ -314,27 +310,17 @@ public class Expansion implements Tickable, IField {
     private Events checkStatus(Player player, Hero hero) {
         if (losers.contains(player)) return null;
         if (players.size() == 1) {
-            List<Cell> freeCells = level.getCellsWith(
-                    cell -> cell.getItems(HeroForces.class).isEmpty() &&
-                            cell.isPassable() && cell.getItem(Hole.class) == null
-            );
-            if (freeCells.isEmpty()) {
+            if (occupiedRegions() == level.regions()) {
                 return DRAW_MULTIPLE;
             }
             return null;
         }
 
-        List<HeroForces> allForces = level.getItems(HeroForces.class);
-        boolean alone = true;
-        boolean exists = false;
-        for (HeroForces item : allForces) {
-            alone &= item.itsMe(hero);
-            exists |= item.itsMe(hero);
-        }
-        if (alone) {
+        int occupied = level.occupied(hero);
+        if (occupied == level.occupied()) {
             return WIN_MULTIPLE;
         }
-        if (!exists) {
+        if (occupied == 0) {
             losers.add(player);
             player.hero.die();
             return LOOSE;
@@ -342,6 +328,16 @@ public class Expansion implements Tickable, IField {
         return null;
     }
 
+    private int occupiedRegions() {
+        int result = 0;
+        for (Cell cell : level.getCellsWith(HeroForces.class)) {
+            if (LevelImpl.isRegion(cell)) {
+                result++;
+            }
+        }
+        return result;
+    }
+
     private boolean isWaitingOthers() {
         return isMultiplayer && data.waitingOthers() && gameNotStarted() && players.size() != 4;
     }
@@ -460,13 +456,18 @@ public class Expansion implements Tickable, IField {
 
     @Override
     public int totalRegions(){
-        return level.getCellsWith(cell -> cell.isPassable()
-                && cell.getItem(Hole.class) == null).size();
+        return level.regions();
     }
 
     @Override
     public int regionsCount(Hero hero) {
-        return level.getCellsWith(cell -> cell.busy(hero)).size();
+        int result = 0;
+        for (Cell cell : level.getCellsWith(HeroForces.class)) {
+            if (cell.busy(hero)) {
+                result++;
+            }
+        }
+        return result;
     }
 
     @Override
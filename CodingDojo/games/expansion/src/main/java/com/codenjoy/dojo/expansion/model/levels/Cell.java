@@ -50,5 +50,10 @@ public interface Cell extends Point {
 
     void removeItem(Item item);
 
+    /**
+     * Количество войск в клетке изменилось на delta.
+     */
+    void changed(HeroForces forces, int delta);
+
     boolean busy(Hero hero);
 }
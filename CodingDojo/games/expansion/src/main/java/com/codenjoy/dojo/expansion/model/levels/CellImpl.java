@@ -42,6 +42,9 @@ public class CellImpl extends PointImpl implements Cell {
 
     private List<Item> items = new ArrayList<>();
 
+    // уровень, который помнит в каких клетках какие предметы
+    private LevelImpl level;
+
     public CellImpl(int x, int y) {
         super(x, y);
     }
@@ -50,6 +53,14 @@ public class CellImpl extends PointImpl implements Cell {
         super(point);
     }
 
+    void setLevel(LevelImpl level) {
+        this.level = level;
+    }
+
+    List<Item> items() {
+        return items;
+    }
+
     @Override
     public void captureBy(HeroForces income) {
         addItem(income);
@@ -60,6 +71,9 @@ public class CellImpl extends PointImpl implements Cell {
     public void addItem(Item item) {
         items.add(item);
         item.setCell(this);
+        if (level != null) {
+            level.added(this, item);
+        }
     }
 
     private void preformAction(Item coming, boolean comeInOrLeave) {
@@ -125,10 +139,19 @@ public class CellImpl extends PointImpl implements Cell {
 
     @Override
     public void removeItem(Item item) {
-        items.remove(item);
+        if (items.remove(item) && level != null) {
+            level.removed(this, item);
+        }
         preformAction(item, false);
     }
 
+    @Override
+    public void changed(HeroForces forces, int delta) {
+        if (level != null) {
+            level.changed(forces, delta);
+        }
+    }
+
     @Override
     public boolean busy(Hero hero) {
         HeroForces item = getItem(HeroForces.class);
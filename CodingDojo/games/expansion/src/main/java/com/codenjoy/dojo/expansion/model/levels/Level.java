@@ -24,6 +24,7 @@ package com.codenjoy.dojo.expansion.model.levels;
 
 
 import com.codenjoy.dojo.expansion.model.IField;
+import com.codenjoy.dojo.expansion.model.levels.items.Hero;
 import com.codenjoy.dojo.services.Point;
 
 import java.util.List;
@@ -49,6 +50,32 @@ public interface Level {
 
     List<Cell> getCellsWith(Predicate<Cell> is);
 
+    /**
+     * @return сколько всего войск у героя на поле
+     */
+    int forces(Hero hero);
+
+    /**
+     * @return сколько всего войск всех героев на поле
+     */
+    int forces();
+
+    /**
+     * @return в скольких клетках стоят войска героя
+     */
+    int occupied(Hero hero);
+
+    /**
+     * @return в скольких клетках стоят войска всех героев
+     * (клетка, где идет бой, считается за каждого)
+     */
+    int occupied();
+
+    /**
+     * @return сколько на поле клеток, которые можно захватить
+     */
+    int regions();
+
     void setField(IField field);
 
     String getName();
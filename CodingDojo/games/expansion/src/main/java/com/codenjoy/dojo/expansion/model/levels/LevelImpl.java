@@ -31,8 +31,12 @@ import com.codenjoy.dojo.services.LengthToXY;
 import com.codenjoy.dojo.services.Point;
 import com.codenjoy.dojo.services.multiplayer.PlayerHero;
 
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.function.BiConsumer;
 import java.util.function.Predicate;
 
@@ -46,6 +50,17 @@ public class LevelImpl implements Level {
     private LengthToXY xy;
     private String name;
 
+    // для каждого запрошенного класса - клетки, где есть такие предметы;
+    // строится при первом запросе, дальше обновляется из CellImpl
+    private Map<Class, BitSet> index = new LinkedHashMap<>();
+
+    // войска каждого героя на поле: сколько всего и в скольких клетках
+    private Map<Hero, Integer> forces = new IdentityHashMap<>();
+    private Map<Hero, Integer> occupied = new IdentityHashMap<>();
+
+    // клетки, которые можно занять; -1 - надо пересчитать
+    private int regions = -1;
+
     public LevelImpl(String name, String map, int viewSize) {
         this.name = name;
         cells = new Cell[map.length()];
@@ -79,8 +94,9 @@ public class LevelImpl implements Level {
             super(hero, 0);
         }
 
+        @Override
         public void setCount(int count) {
-            this.count = count;
+            super.setCount(count);
         }
     }
 
@@ -116,7 +132,9 @@ public class LevelImpl implements Level {
                 int length = xy.getLength(x, y);
                 Cell cell = cells[length];
                 if (cell == null) {
-                    cell = new CellImpl(x, y);
+                    CellImpl created = new CellImpl(x, y);
+                    created.setLevel(this);
+                    cell = created;
                 }
                 String ch = map.substring(indexChar*len, (indexChar + 1)*len);
                 function.accept(cell, String.valueOf(ch));
@@ -168,10 +186,14 @@ public class LevelImpl implements Level {
     @Override
     public <T> List<T> getItems(Class<T> clazz) {
         List<T> result = new LinkedList<T>();
-        for (Cell cell : cells) {
-            for (Item item : cell.getItems()) {
-                if (clazz.isInstance(item)) {
-                    result.add((T)item);
+        BitSet where = index(clazz);
+
+        // порядок тот же, что и при обходе всех клеток подряд
+        for (int i = where.nextSetBit(0); i >= 0; i = where.nextSetBit(i + 1)) {
+            List<Item> items = ((CellImpl) cells[i]).items();
+            for (int j = 0; j < items.size(); ++j) {
+                if (clazz.isInstance(items.get(j))) {
+                    result.add((T) items.get(j));
                 }
             }
         }
@@ -181,17 +203,129 @@ public class LevelImpl implements Level {
     @Override
     public List<Cell> getCellsWith(Class with) {
         List<Cell> result = new LinkedList<Cell>();
-        for (Cell cell : cells) {
-            for (Item item : cell.getItems()) {
-                if (with.isInstance(item)) {
-                    result.add(cell);
-                    break;
-                }
+        BitSet where = index(with);
+        for (int i = where.nextSetBit(0); i >= 0; i = where.nextSetBit(i + 1)) {
+            result.add(cells[i]);
+        }
+        return result;
+    }
+
+    private BitSet index(Class clazz) {
+        return index.computeIfAbsent(clazz, this::find);
+    }
+
+    private BitSet find(Class clazz) {
+        BitSet result = new BitSet(cells.length);
+        for (int i = 0; i < cells.length; ++i) {
+            if (contains((CellImpl) cells[i], clazz)) {
+                result.set(i);
             }
         }
         return result;
     }
 
+    private boolean contains(CellImpl cell, Class clazz) {
+        List<Item> items = cell.items();
+        for (int i = 0; i < items.size(); ++i) {
+            if (clazz.isInstance(items.get(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void added(CellImpl cell, Item item) {
+        int length = xy.getLength(cell.getX(), cell.getY());
+        for (Map.Entry<Class, BitSet> entry : index.entrySet()) {
+            if (entry.getKey().isInstance(item)) {
+                entry.getValue().set(length);
+            }
+        }
+        if (item instanceof HeroForces) {
+            HeroForces income = (HeroForces) item;
+            add(occupied, income.getHero(), 1);
+            add(forces, income.getHero(), income.getCount());
+        }
+        changedRegions(item);
+    }
+
+    void removed(CellImpl cell, Item item) {
+        int length = xy.getLength(cell.getX(), cell.getY());
+        for (Map.Entry<Class, BitSet> entry : index.entrySet()) {
+            if (entry.getKey().isInstance(item) && !contains(cell, entry.getKey())) {
+                entry.getValue().clear(length);
+            }
+        }
+        if (item instanceof HeroForces) {
+            HeroForces leave = (HeroForces) item;
+            add(occupied, leave.getHero(), -1);
+            add(forces, leave.getHero(), -leave.getCount());
+        }
+        changedRegions(item);
+    }
+
+    void changed(HeroForces item, int delta) {
+        add(forces, item.getHero(), delta);
+    }
+
+    private void add(Map<Hero, Integer> map, Hero hero, int delta) {
+        if (hero == null || delta == 0) {
+            return;
+        }
+        int value = map.getOrDefault(hero, 0) + delta;
+        if (value == 0) {
+            map.remove(hero);
+        } else {
+            map.put(hero, value);
+        }
+    }
+
+    private void changedRegions(Item item) {
+        if (item instanceof Hole || item.hasFeature(FeatureItem.IMPASSABLE)) {
+            regions = -1;
+        }
+    }
+
+    @Override
+    public int forces(Hero hero) {
+        return forces.getOrDefault(hero, 0);
+    }
+
+    @Override
+    public int forces() {
+        return sum(forces);
+    }
+
+    @Override
+    public int occupied(Hero hero) {
+        return occupied.getOrDefault(hero, 0);
+    }
+
+    @Override
+    public int occupied() {
+        return sum(occupied);
+    }
+
+    private int sum(Map<Hero, Integer> map) {
+        int result = 0;
+        for (int value : map.values()) {
+            result += value;
+        }
+        return result;
+    }
+
+    @Override
+    public int regions() {
+        if (regions == -1) {
+            regions = getCellsWith(cell -> isRegion(cell)).size();
+        }
+        return regions;
+    }
+
+    public static boolean isRegion(Cell cell) {
+        return cell.isPassable() && cell.getItem(Hole.class) == null;
+    }
+
     @Override
     public List<Cell> getCellsWith(Predicate<Cell> is) {
         List<Cell> result = new LinkedList<Cell>();
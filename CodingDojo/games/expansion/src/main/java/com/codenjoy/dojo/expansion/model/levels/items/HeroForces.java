@@ -26,6 +26,7 @@ package com.codenjoy.dojo.expansion.model.levels.items;
 import com.codenjoy.dojo.expansion.model.Elements;
 import com.codenjoy.dojo.expansion.model.Forces;
 import com.codenjoy.dojo.expansion.model.Player;
+import com.codenjoy.dojo.expansion.model.levels.Cell;
 
 /**
  * Created by Oleksandr_Baglai on 2017-08-29.
@@ -68,6 +69,10 @@ public class HeroForces extends FieldItem {
         return new Forces(this.getCell(), count);
     }
 
+    public Hero getHero() {
+        return hero;
+    }
+
     public boolean itsMe(Hero hero) {
         return hero == this.hero;
     }
@@ -79,11 +84,12 @@ public class HeroForces extends FieldItem {
         if (this.count - countToStay < count) {
             count = this.count - countToStay;
         }
-        this.count -= count;
-        if (this.count < 0) {
-            this.count = 0;
+        int value = this.count - count;
+        if (value < 0) {
+            value = 0;
             System.out.println("Hero leave negative count on cell!");
         }
+        setCount(value);
         if (this.count == 0) {
             removeFromCell();
         }
@@ -91,10 +97,20 @@ public class HeroForces extends FieldItem {
     }
 
     public void move() {
-        count += increase;
+        setCount(count + increase);
         increase = 0;
     }
 
+    protected void setCount(int count) {
+        int delta = count - this.count;
+        this.count = count;
+        // уровень ведет общий счет войск каждого героя
+        Cell cell = getCell();
+        if (delta != 0 && cell != null) {
+            cell.changed(this, delta);
+        }
+    }
+
     public void startMove(int increase) {
         this.increase += increase;
     }
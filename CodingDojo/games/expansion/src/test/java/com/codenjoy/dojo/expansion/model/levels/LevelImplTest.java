@@ -0,0 +1,152 @@
+package com.codenjoy.dojo.expansion.model.levels;
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2018 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.expansion.model.Elements;
+import com.codenjoy.dojo.expansion.model.levels.items.Hero;
+import com.codenjoy.dojo.expansion.model.levels.items.HeroForces;
+import com.codenjoy.dojo.expansion.model.levels.items.Hole;
+import com.codenjoy.dojo.expansion.model.levels.items.Start;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class LevelImplTest {
+
+    private LevelImpl level;
+    private Hero hero1;
+    private Hero hero2;
+
+    @Before
+    public void setup() {
+        level = new LevelImpl("name",
+                "╔══┐" +
+                "║1.│" +
+                "║.2│" +
+                "└──┘", -1);
+
+        List<Start> bases = level.getItems(Start.class);
+        hero1 = hero(bases.get(0));
+        hero2 = hero(bases.get(1));
+    }
+
+    private Hero hero(Start base) {
+        Hero result = mock(Hero.class);
+        when(result.getBase()).thenReturn(base);
+        return result;
+    }
+
+    private HeroForces capture(Hero hero, int x, int y, int count) {
+        HeroForces result = new HeroForces(hero, count);
+        level.getCell(x, y).captureBy(result);
+        return result;
+    }
+
+    private String forcesCells() {
+        return level.getCellsWith(HeroForces.class).stream()
+                .map(cell -> "[" + cell.getX() + "," + cell.getY() + "]")
+                .collect(toList())
+                .toString();
+    }
+
+    @Test
+    public void shouldCountForces_whenCapture() {
+        // when
+        capture(hero1, 1, 2, 10);
+        capture(hero1, 2, 2, 5);
+        capture(hero2, 2, 1, 7);
+
+        // then
+        assertEquals(15, level.forces(hero1));
+        assertEquals(7, level.forces(hero2));
+        assertEquals(22, level.forces());
+
+        assertEquals(2, level.occupied(hero1));
+        assertEquals(1, level.occupied(hero2));
+        assertEquals(3, level.occupied());
+
+        assertEquals("[[1,2], [2,2], [2,1]]", forcesCells());
+    }
+
+    @Test
+    public void shouldCountForces_whenMoveAndLeave() {
+        // given
+        HeroForces forces = capture(hero1, 1, 2, 10);
+
+        // when
+        forces.startMove(3);
+        forces.move();
+
+        // then
+        assertEquals(13, level.forces(hero1));
+        assertEquals(1, level.occupied(hero1));
+
+        // when
+        forces.leave(4, 1);
+
+        // then
+        assertEquals(9, level.forces(hero1));
+        assertEquals(1, level.occupied(hero1));
+
+        // when
+        forces.leave(9, 0);
+
+        // then
+        assertEquals(0, level.forces(hero1));
+        assertEquals(0, level.occupied(hero1));
+        assertEquals("[]", forcesCells());
+    }
+
+    @Test
+    public void shouldCountForces_whenRemoved() {
+        // given
+        capture(hero1, 1, 2, 10);
+        HeroForces forces = capture(hero2, 1, 2, 4);
+
+        // when
+        forces.removeFromCell();
+
+        // then
+        assertEquals(10, level.forces());
+        assertEquals(1, level.occupied());
+        assertEquals(0, level.occupied(hero2));
+        assertEquals("[[1,2]]", forcesCells());
+    }
+
+    @Test
+    public void shouldCountRegions() {
+        assertEquals(4, level.regions());
+
+        // when
+        level.getCell(1, 1).addItem(new Hole(Elements.HOLE));
+
+        // then
+        assertEquals(3, level.regions());
+    }
+}
@@ -43,6 +43,9 @@ public class Cell extends PointImpl implements ICell {
 
     private List<IItem> items = new ArrayList<>();
 
+    // уровень, который помнит в каких клетках какие предметы
+    private LevelImpl level;
+
     //================================ Constructors ================================
 
     public Cell(int x, int y) {
@@ -53,6 +56,26 @@ public class Cell extends PointImpl implements ICell {
         super(point);
     }
 
+    void setLevel(LevelImpl level) {
+        this.level = level;
+    }
+
+    List<IItem> items() {
+        return items;
+    }
+
+    private void added(IItem item) {
+        if (level != null) {
+            level.added(this, item);
+        }
+    }
+
+    private void removed(IItem item) {
+        if (level != null) {
+            level.removed(this, item);
+        }
+    }
+
     //================================ Implements ================================
 
     @Override
@@ -61,6 +84,7 @@ public class Cell extends PointImpl implements ICell {
 
         items.add(item);
         item.setCell(this);
+        added(item);
     }
 
     @Override
@@ -131,10 +155,13 @@ public class Cell extends PointImpl implements ICell {
         for (int i = 0; i < items.size(); ++i) {
             if (items.get(i) == item) {
                 items.remove(i);
+                removed(item);
                 return;
             }
         }
-        items.remove(item);
+        if (items.remove(item)) {
+            removed(item);
+        }
     }
 
     @Override
@@ -151,7 +178,9 @@ public class Cell extends PointImpl implements ICell {
 
         if (twoLayers) {
             // если два слоя, то добавляем воздух
-            items.add(LAYER2, new Air());
+            Air air = new Air();
+            items.add(LAYER2, air);
+            added(air);
         } else if (threeLayers) {
             // если три слоя, то ставим игрока выше
             items.add(items.remove(LAYER2));
@@ -170,7 +199,7 @@ public class Cell extends PointImpl implements ICell {
         if (isAirOnSecondLayer) {
             // если в процессе полета на втором слое был воздух мы его удаляем
             // TODO подумать о сценарии, когда воздух остался в клетке, а мы ее покинули
-            items.remove(LAYER2);
+            removed(items.remove(LAYER2));
         }
     }
 
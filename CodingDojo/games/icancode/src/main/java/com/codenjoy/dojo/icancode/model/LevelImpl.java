@@ -33,8 +33,11 @@ import com.codenjoy.dojo.icancode.model.items.FieldItem;
 import com.codenjoy.dojo.services.LengthToXY;
 import com.codenjoy.dojo.services.Point;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.fest.reflect.core.Reflection.constructor;
 
@@ -43,6 +46,10 @@ public class LevelImpl implements ILevel {
     private int size;
     private LengthToXY xy;
 
+    // для каждого запрошенного в getItems класса - клетки, где есть такие предметы;
+    // строится при первом запросе, дальше обновляется из Cell
+    private Map<Class, BitSet> index = new LinkedHashMap<>();
+
     public LevelImpl(String map) {
         cells = new ICell[map.length()];
         size = (int) Math.sqrt(map.length());
@@ -61,6 +68,7 @@ public class LevelImpl implements ILevel {
             for (int x = 0; x < size; ++x) {
 
                 Cell cell = new Cell(x, y);
+                cell.setLevel(this);
                 Elements element = Elements.valueOf(map.charAt(indexChar));
                 BaseItem item = getBaseItem(element);
 
@@ -112,15 +120,16 @@ public class LevelImpl implements ILevel {
 
     @Override
     public <T extends IItem> List<T> getItems(Class clazz) {
-        List<T> result = new LinkedList<>();
-        List<T> items;
+        List<T> result = new ArrayList<>();
+        BitSet where = index.computeIfAbsent(clazz, this::find);
 
-        for (int i = 0; i < cells.length; ++i) {
-            items = cells[i].getItems();
+        // порядок тот же, что и при обходе всех клеток подряд
+        for (int i = where.nextSetBit(0); i >= 0; i = where.nextSetBit(i + 1)) {
+            List<IItem> items = ((Cell) cells[i]).items();
 
             for (int j = 0; j < items.size(); ++j) {
                 if (clazz.isInstance(items.get(j))) {
-                    result.add(items.get(j));
+                    result.add((T) items.get(j));
                 }
             }
         }
@@ -128,6 +137,43 @@ public class LevelImpl implements ILevel {
         return result;
     }
 
+    private BitSet find(Class clazz) {
+        BitSet result = new BitSet(cells.length);
+        for (int i = 0; i < cells.length; ++i) {
+            if (contains((Cell) cells[i], clazz)) {
+                result.set(i);
+            }
+        }
+        return result;
+    }
+
+    private boolean contains(Cell cell, Class clazz) {
+        List<IItem> items = cell.items();
+        for (int i = 0; i < items.size(); ++i) {
+            if (clazz.isInstance(items.get(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void added(Cell cell, IItem item) {
+        int length = xy.getLength(cell.getX(), cell.getY());
+        for (Map.Entry<Class, BitSet> entry : index.entrySet()) {
+            if (entry.getKey().isInstance(item)) {
+                entry.getValue().set(length);
+            }
+        }
+    }
+
+    void removed(Cell cell, IItem item) {
+        int length = xy.getLength(cell.getX(), cell.getY());
+        for (Map.Entry<Class, BitSet> entry : index.entrySet()) {
+            if (entry.getKey().isInstance(item) && !contains(cell, entry.getKey())) {
+                entry.getValue().clear(length);
+            }
+        }
+    }
 
 
     @Override
@@ -25,6 +25,7 @@ package com.codenjoy.dojo.icancode.model.items;
 import com.codenjoy.dojo.icancode.model.interfaces.IField;
 import com.codenjoy.dojo.services.Direction;
 import com.codenjoy.dojo.services.Point;
+import com.codenjoy.dojo.services.algs.BfsFindWay;
 import com.codenjoy.dojo.services.algs.DeikstraFindWay;
 
 import java.util.List;
@@ -33,6 +34,9 @@ import static java.util.stream.Collectors.toList;
 
 public class ZombieBrain {
 
+    // мозг один на всех зомби, а поля могут тикать в разных потоках
+    private static final ThreadLocal<BfsFindWay> WAY = ThreadLocal.withInitial(BfsFindWay::new);
+
     public Direction whereToGo(Point zombie, IField field) {
         List<Point> heroes = field.getLevel().getItems(HeroItem.class).stream()
                 .map(item -> item.getCell()).collect(toList());
@@ -49,8 +53,7 @@ public class ZombieBrain {
 
     List<Direction> getShortestWay(IField field, Point from, List<Point> to) {
         DeikstraFindWay.Possible map = possible(field);
-        DeikstraFindWay findWay = new DeikstraFindWay();
-        List<Direction> shortestWay = findWay.getShortestWay(field.size(), from, to, map);
+        List<Direction> shortestWay = WAY.get().getShortestWay(field.size(), from, to, map);
         return shortestWay;
     }
 
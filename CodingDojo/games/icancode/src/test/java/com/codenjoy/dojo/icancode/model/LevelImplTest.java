@@ -0,0 +1,87 @@
+package com.codenjoy.dojo.icancode.model;
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2018 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.icancode.model.interfaces.IItem;
+import com.codenjoy.dojo.icancode.model.items.Box;
+import com.codenjoy.dojo.icancode.model.items.Gold;
+import org.junit.Test;
+
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+
+public class LevelImplTest {
+
+    private LevelImpl level = new LevelImpl(
+            "B.$" +
+            ".S." +
+            "$.B");
+
+    private String cells(List<? extends IItem> items) {
+        return items.stream()
+                .map(item -> "[" + item.getCell().getX() + "," + item.getCell().getY() + "]")
+                .collect(toList())
+                .toString();
+    }
+
+    @Test
+    public void shouldGetItemsInMapOrder() {
+        assertEquals("[[0,2], [2,0]]", cells(level.getItems(Box.class)));
+        assertEquals("[[2,2], [0,0]]", cells(level.getItems(Gold.class)));
+    }
+
+    @Test
+    public void shouldUpdateItems_whenMoved() {
+        List<Box> boxes = level.getItems(Box.class);
+        assertEquals("[[0,2], [2,0]]", cells(boxes));
+
+        level.getCell(1, 1).addItem(boxes.get(0));
+        assertEquals("[[1,1], [2,0]]", cells(level.getItems(Box.class)));
+
+        level.getCell(0, 0).addItem(boxes.get(0));
+        assertEquals("[[0,0], [2,0]]", cells(level.getItems(Box.class)));
+    }
+
+    @Test
+    public void shouldUpdateItems_whenRemoved() {
+        List<Gold> golds = level.getItems(Gold.class);
+
+        golds.get(1).removeFromCell();
+        assertEquals("[[2,2]]", cells(level.getItems(Gold.class)));
+
+        level.getCell(1, 1).addItem(golds.get(1));
+        assertEquals("[[2,2], [1,1]]", cells(level.getItems(Gold.class)));
+    }
+
+    @Test
+    public void shouldKeepCell_whenOneOfSameItemsLeft() {
+        List<Box> boxes = level.getItems(Box.class);
+        level.getCell(2, 0).addItem(boxes.get(0));
+        assertEquals("[[2,0], [2,0]]", cells(level.getItems(Box.class)));
+
+        boxes.get(1).removeFromCell();
+        assertEquals("[[2,0]]", cells(level.getItems(Box.class)));
+    }
+}
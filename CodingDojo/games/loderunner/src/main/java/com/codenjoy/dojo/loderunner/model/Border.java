@@ -37,4 +37,9 @@ public class Border extends PointImpl implements State<Elements, Player> {
     public Elements state(Player player, Object... alsoAtPoint) {
         return Elements.UNDESTROYABLE_WALL;
     }
+
+    @Override
+    public boolean isSameForAll() {
+        return true;
+    }
 }
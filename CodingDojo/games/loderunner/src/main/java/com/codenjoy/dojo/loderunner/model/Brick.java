@@ -77,6 +77,11 @@ public class Brick extends PointImpl implements Tickable, State<Elements, Player
         }
     }
 
+    @Override
+    public boolean isSameForAll() {
+        return true;
+    }
+
     public Hero getDrilledBy() {
         return drilledBy;
     }
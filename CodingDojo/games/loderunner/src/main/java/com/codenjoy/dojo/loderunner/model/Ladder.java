@@ -37,4 +37,9 @@ public class Ladder extends PointImpl implements State<Elements, Player> {
     public Elements state(Player player, Object... alsoAtPoint) {
         return Elements.LADDER;
     }
+
+    @Override
+    public boolean isSameForAll() {
+        return true;
+    }
 }
@@ -44,6 +44,14 @@ public class Loderunner implements Field {
     private List<Enemy> enemies;
     private List<Gold> gold;
 
+    // сколько золота и чертиков в каждой клетке, обновляется при каждом изменении
+    private int[][] goldAt;
+    private int[][] enemiesAt;
+
+    // герои и их клетки - только на время тика, вне тика герои берутся у игроков
+    private List<Hero> heroes;
+    private int[][] heroesAt;
+
     private final int size;
     private Dice dice;
 
@@ -58,12 +66,20 @@ public class Loderunner implements Field {
         toField(level.getPipe());
 
         gold = level.getGold();
+        goldAt = new int[size][size];
+        for (Gold item : gold) {
+            put(goldAt, item, 1);
+        }
 
         enemies = level.getEnemies();
+        enemiesAt = new int[size][size];
         for (Enemy enemy : enemies) {
             enemy.init(this);
+            put(enemiesAt, enemy, 1);
         }
 
+        heroesAt = new int[size][size];
+
         players = new LinkedList<>();
     }
 
@@ -73,17 +89,54 @@ public class Loderunner implements Field {
         }
     }
 
+    private boolean outOf(int x, int y) {
+        return x < 0 || y < 0 || x > size - 1 || y > size - 1;
+    }
+
+    private void put(int[][] grid, Point pt, int delta) {
+        put(grid, pt.getX(), pt.getY(), delta);
+    }
+
+    private void put(int[][] grid, int x, int y, int delta) {
+        if (!outOf(x, y)) {
+            grid[x][y] += delta;
+        }
+    }
+
+    private void moved(int[][] grid, int x, int y, Point pt) {
+        if (x != pt.getX() || y != pt.getY()) {
+            put(grid, x, y, -1);
+            put(grid, pt, 1);
+        }
+    }
+
+    private boolean has(int[][] grid, int x, int y) {
+        return !outOf(x, y) && grid[x][y] > 0;
+    }
+
     @Override
     public void tick() {
         Set<Player> die = new HashSet<>();
 
-        heroesGo();
-        die.addAll(getDied());
+        heroes = getHeroes();
+        for (Hero hero : heroes) {
+            put(heroesAt, hero, 1);
+        }
 
-        enemiesGo();
-        die.addAll(getDied());
+        try {
+            heroesGo();
+            die.addAll(getDied());
 
-        die.addAll(bricksGo());
+            enemiesGo();
+            die.addAll(getDied());
+
+            die.addAll(bricksGo());
+        } finally {
+            for (Hero hero : heroes) {
+                put(heroesAt, hero, -1);
+            }
+            heroes = null;
+        }
 
         for (Player player : die) {
             player.event(Events.KILL_HERO);
@@ -206,10 +259,13 @@ public class Loderunner implements Field {
         for (Player player : players) {
             Hero hero = player.getHero();
 
+            int x = hero.getX();
+            int y = hero.getY();
             hero.tick();
+            moved(heroesAt, x, y, hero);
 
-            if (gold.contains(hero)) {
-                gold.remove(hero);
+            if (isGoldAt(hero)) {
+                removeGold(hero);
                 player.event(Events.GET_GOLD);
 
                 Point pos = getFreeRandom();
@@ -220,15 +276,27 @@ public class Loderunner implements Field {
 
     private void enemiesGo() {
         for (Enemy enemy : enemies) {
+            int x = enemy.getX();
+            int y = enemy.getY();
             enemy.tick();
+            moved(enemiesAt, x, y, enemy);
 
-            if (gold.contains(enemy) && !enemy.withGold()) {
-                gold.remove(enemy);
+            if (isGoldAt(enemy) && !enemy.withGold()) {
+                removeGold(enemy);
                 enemy.getGold();
             }
         }
     }
 
+    private boolean isGoldAt(Point pt) {
+        return has(goldAt, pt.getX(), pt.getY());
+    }
+
+    private void removeGold(Point pt) {
+        gold.remove(pt);
+        put(goldAt, pt, -1);
+    }
+
     private Player getPlayer(Hero hero) {
         for (Player player : players) {
             if (player.getHero() == hero) {
@@ -257,10 +325,10 @@ public class Loderunner implements Field {
 
         Point over = pt(x, y + 1);
         if (is(over, Ladder.class)
-                || gold.contains(over)
+                || isGoldAt(over)
                 || isFullBrick(over.getX(), over.getY())
-                || getHeroes().contains(over)
-                || enemies.contains(over))
+                || isHeroAt(over.getX(), over.getY())
+                || isEnemyAt(over.getX(), over.getY()))
         {
             return false;
         }
@@ -281,8 +349,8 @@ public class Loderunner implements Field {
         return !(isFullBrick(pt.getX(), pt.getY())
                 || is(pt, Ladder.class)
                 || is(pt, Border.class)
-                || getHeroes().contains(pt)
-                || enemies.contains(pt));
+                || isHeroAt(pt.getX(), pt.getY())
+                || isEnemyAt(pt.getX(), pt.getY()));
     }
 
     @Override
@@ -317,16 +385,19 @@ public class Loderunner implements Field {
 
     @Override
     public boolean isFree(Point pt) {
-        return !(gold.contains(pt)
+        return !(isGoldAt(pt)
                 || is(pt, Border.class)
                 || is(pt, Brick.class)
-                || getHeroes().contains(pt)
+                || isHeroAt(pt.getX(), pt.getY())
                 || is(pt, Pipe.class)
                 || is(pt, Ladder.class));
     }
 
     @Override
     public boolean isHeroAt(int x, int y) {
+        if (heroes != null) {
+            return has(heroesAt, x, y);
+        }
         return getHeroes().contains(pt(x, y));
     }
 
@@ -337,12 +408,14 @@ public class Loderunner implements Field {
 
     @Override
     public boolean isEnemyAt(int x, int y) {
-        return enemies.contains(pt(x, y));
+        return has(enemiesAt, x, y);
     }
 
     @Override
     public void leaveGold(int x, int y) {
-        gold.add(new Gold(x, y));
+        Gold item = new Gold(x, y);
+        gold.add(item);
+        put(goldAt, item, 1);
     }
 
     @Override
@@ -361,6 +434,9 @@ public class Loderunner implements Field {
 
     @Override
     public List<Hero> getHeroes() {
+        if (heroes != null) {
+            return heroes;
+        }
         return players.stream()
                 .map(Player::getHero)
                 .collect(toList());
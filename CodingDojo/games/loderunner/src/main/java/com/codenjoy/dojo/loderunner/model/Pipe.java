@@ -37,4 +37,9 @@ public class Pipe extends PointImpl  implements State<Elements, Player> {
     public Elements state(Player player, Object... alsoAtPoint) {
         return Elements.PIPE;
     }
+
+    @Override
+    public boolean isSameForAll() {
+        return true;
+    }
 }
@@ -33,9 +33,14 @@ import org.junit.Before;
 import org.junit.Test;
 import org.mockito.stubbing.OngoingStubbing;
 
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
 import static com.codenjoy.dojo.services.PointImpl.pt;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
@@ -3815,6 +3820,219 @@ public class LoderunnerTest {
 
     }
 
+    // золото исчезает из клетки, когда его берут, и появляется там, где его оставили
+    @Test
+    public void shouldUpdateGoldCells_whenGoldPickedAndLeft() {
+        givenFl("☼☼☼☼☼" +
+                "☼   ☼" +
+                "☼ ►$☼" +
+                "☼###☼" +
+                "☼☼☼☼☼");
+
+        assertFalse(game.isFree(pt(3, 2)));
+        assertTrue(game.isFree(pt(2, 3)));
+
+        dice(2, 3);
+        hero.right();
+        game.tick();
+
+        assertE("☼☼☼☼☼" +
+                "☼ $ ☼" +
+                "☼  ►☼" +
+                "☼###☼" +
+                "☼☼☼☼☼");
+
+        assertFalse(game.isFree(pt(2, 3)));
+        assertEquals("[[2,3]]", game.getGold().toString());
+
+        hero.left();
+        game.tick();
+
+        // в клетке, где было золото, его больше нет
+        assertTrue(game.isFree(pt(3, 2)));
+        assertFalse(game.isFree(pt(2, 2)));
+        assertFalse(game.isFree(pt(2, 3)));
+    }
+
+    // чертик забирает золото из клетки
+    @Test
+    public void shouldUpdateGoldCells_whenEnemyGetGold() {
+        givenFl("☼☼☼☼►" +
+                "☼   ☼" +
+                "☼«$ ☼" +
+                "☼###☼" +
+                "☼☼☼☼☼");
+
+        assertFalse(game.isFree(pt(2, 2)));
+
+        enemy.right();
+        game.tick();
+
+        assertEquals("[]", game.getGold().toString());
+        assertTrue(game.isFree(pt(2, 2)));
+
+        enemy.right();
+        game.tick();
+
+        assertE("☼☼☼☼►" +
+                "☼   ☼" +
+                "☼  »☼" +
+                "☼###☼" +
+                "☼☼☼☼☼");
+
+        assertTrue(game.isFree(pt(2, 2)));
+        assertTrue(game.isFree(pt(3, 2)));
+    }
+
+    // клетки чертиков обновляются после их перемещения
+    @Test
+    public void shouldUpdateEnemyCells_whenEnemyMoved() {
+        givenFl("☼☼☼☼►" +
+                "☼   ☼" +
+                "☼ « ☼" +
+                "☼###☼" +
+                "☼☼☼☼☼");
+
+        assertTrue(game.isEnemyAt(2, 2));
+        assertFalse(game.isPit(2, 3));
+        assertTrue(game.isPit(1, 3));
+
+        enemy.left();
+        game.tick();
+
+        assertE("☼☼☼☼►" +
+                "☼   ☼" +
+                "☼«  ☼" +
+                "☼###☼" +
+                "☼☼☼☼☼");
+
+        assertFalse(game.isEnemyAt(2, 2));
+        assertTrue(game.isEnemyAt(1, 2));
+        assertTrue(game.isPit(2, 3));
+        assertFalse(game.isPit(1, 3));
+
+        enemy.right();
+        game.tick();
+        enemy.right();
+        game.tick();
+
+        assertFalse(game.isEnemyAt(1, 2));
+        assertFalse(game.isEnemyAt(2, 2));
+        assertTrue(game.isEnemyAt(3, 2));
+        assertTrue(game.isPit(1, 3));
+        assertFalse(game.isPit(3, 3));
+    }
+
+    // клетки героев обновляются после их перемещения
+    @Test
+    public void shouldUpdateHeroCells_whenHeroMoved() {
+        givenFl("☼☼☼☼☼" +
+                "☼   ☼" +
+                "☼►  ☼" +
+                "☼###☼" +
+                "☼☼☼☼☼");
+
+        assertFalse(game.isFree(pt(1, 2)));
+        assertTrue(game.isFree(pt(2, 2)));
+        assertFalse(game.isPit(1, 3));
+        assertTrue(game.isPit(2, 3));
+
+        hero.right();
+        game.tick();
+
+        assertE("☼☼☼☼☼" +
+                "☼   ☼" +
+                "☼ ► ☼" +
+                "☼###☼" +
+                "☼☼☼☼☼");
+
+        assertTrue(game.isFree(pt(1, 2)));
+        assertFalse(game.isFree(pt(2, 2)));
+        assertTrue(game.isPit(1, 3));
+        assertFalse(game.isPit(2, 3));
+        assertFalse(game.isHeroAt(1, 2));
+        assertTrue(game.isHeroAt(2, 2));
+    }
+
+    // во время тика чертик видит героя уже на новом месте
+    @Test
+    public void shouldSeeMovedHero_duringTick() {
+        givenFl("☼☼☼☼☼☼" +
+                "☼    ☼" +
+                "☼    ☼" +
+                "☼►  «☼" +
+                "☼####☼" +
+                "☼☼☼☼☼☼");
+
+        List<Boolean> atOld = new LinkedList<>();
+        List<Boolean> atNew = new LinkedList<>();
+        List<List<Hero>> heroes = new LinkedList<>();
+        when(ai.getDirection(any(Field.class), any(), any(Point.class)))
+                .thenAnswer(inv -> {
+                    atOld.add(game.isHeroAt(1, 2));
+                    atNew.add(game.isHeroAt(2, 2));
+                    heroes.add(new LinkedList<>(game.getHeroes()));
+                    return null;
+                });
+
+        hero.right();
+        game.tick();
+
+        assertEquals("[false]", atOld.toString());
+        assertEquals("[true]", atNew.toString());
+        assertEquals(Arrays.asList(Arrays.asList(hero)), heroes);
+
+        // после тика героев снова берем у игроков
+        assertTrue(game.isHeroAt(2, 2));
+        assertEquals(Arrays.asList(hero), game.getHeroes());
+    }
+
+    // героя игрока можно подменить между тиками
+    @Test
+    public void shouldUseNewHero_whenReplacedBetweenTicks() {
+        givenFl("☼☼☼☼☼☼" +
+                "☼    ☼" +
+                "☼    ☼" +
+                "☼►  «☼" +
+                "☼####☼" +
+                "☼☼☼☼☼☼");
+
+        List<Boolean> atOld = new LinkedList<>();
+        List<Boolean> atNew = new LinkedList<>();
+        when(ai.getDirection(any(Field.class), any(), any(Point.class)))
+                .thenAnswer(inv -> {
+                    atOld.add(game.isHeroAt(1, 2));
+                    atNew.add(game.isHeroAt(3, 2));
+                    return null;
+                });
+
+        game.tick();
+
+        // when
+        Hero other = new Hero(pt(2, 2), Direction.LEFT);
+        other.init(game);
+        player.hero = other;
+
+        // then
+        assertFalse(game.isHeroAt(1, 2));
+        assertTrue(game.isHeroAt(2, 2));
+        assertTrue(game.isFree(pt(1, 2)));
+        assertFalse(game.isFree(pt(2, 2)));
+        assertEquals(Arrays.asList(other), game.getHeroes());
+
+        // when
+        other.right();
+        game.tick();
+
+        // then
+        assertEquals("[true, false]", atOld.toString());
+        assertEquals("[false, true]", atNew.toString());
+        assertTrue(game.isHeroAt(3, 2));
+        assertFalse(game.isHeroAt(1, 2));
+        assertFalse(game.isHeroAt(2, 2));
+        assertEquals(Arrays.asList(other), game.getHeroes());
+    }
+
     // если монстр не успел вылезти из ямки и она заросла то монстр умирает?
     // когда монстр умирает, то на карте появляется новый
 
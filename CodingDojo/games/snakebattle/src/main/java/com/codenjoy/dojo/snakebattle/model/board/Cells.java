@@ -0,0 +1,79 @@
+package com.codenjoy.dojo.snakebattle.model.board;
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2018 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.services.Point;
+
+/**
+ * Объекты поля (стены, старты, яблоки, камни, пилюли, золото) по клеткам,
+ * чтобы проверять клетку без поиска по спискам.
+ * В одной клетке может быть только один объект.
+ */
+class Cells {
+
+    private int size;
+    private Point[] cells;
+
+    Cells(int size) {
+        this.size = size;
+        cells = new Point[size * size];
+    }
+
+    public void add(Point object) {
+        if (object.isOutOf(size)) {
+            return;
+        }
+        cells[index(object)] = object;
+    }
+
+    public void addAll(Iterable<? extends Point> objects) {
+        objects.forEach(this::add);
+    }
+
+    public void remove(Point pt) {
+        if (pt.isOutOf(size)) {
+            return;
+        }
+        cells[index(pt)] = null;
+    }
+
+    public Point get(Point pt) {
+        if (pt.isOutOf(size)) {
+            return null;
+        }
+        return cells[index(pt)];
+    }
+
+    public boolean is(Point pt, Class<? extends Point> type) {
+        Point object = get(pt);
+        return object != null && object.getClass() == type;
+    }
+
+    public boolean isEmpty(Point pt) {
+        return get(pt) == null;
+    }
+
+    private int index(Point pt) {
+        return pt.getX() * size + pt.getY();
+    }
+}
@@ -31,6 +31,8 @@ import com.codenjoy.dojo.snakebattle.model.hero.Hero;
 
 public interface Field extends GameField<Player> {
 
+    int size();
+
     boolean isBarrier(Point p);
 
     Point getFreeRandom();
@@ -51,6 +51,7 @@ public class SnakeBoard implements Field {
     private List<FlyingPill> flyingPills;
     private List<FuryPill> furyPills;
     private List<Gold> gold;
+    private Cells cells;
 
     private List<Player> players;
     private List<Player> theWalkingDead;
@@ -86,6 +87,14 @@ public class SnakeBoard implements Field {
         furyPills = level.getFuryPills();
         gold = level.getGold();
         size = level.getSize();
+        cells = new Cells(size);
+        cells.addAll(walls);
+        cells.addAll(starts);
+        cells.addAll(apples);
+        cells.addAll(stones);
+        cells.addAll(flyingPills);
+        cells.addAll(furyPills);
+        cells.addAll(gold);
         players = new LinkedList<>();
         theWalkingDead = new LinkedList<>();
 
@@ -325,29 +334,39 @@ public class SnakeBoard implements Field {
             Point head = hero.head();
             hero.eat();
 
-            if (apples.contains(head)) {
-                apples.remove(head);
+            if (isApple(head)) {
+                remove(apples, head);
                 player.event(Events.APPLE);
             }
-            if (stones.contains(head) && !hero.isFlying()) {
-                stones.remove(head);
+            if (isStone(head) && !hero.isFlying()) {
+                remove(stones, head);
                 if (player.isAlive()) {
                     player.event(Events.STONE);
                 }
             }
-            if (gold.contains(head)) {
-                gold.remove(head);
+            if (isGold(head)) {
+                remove(gold, head);
                 player.event(Events.GOLD);
             }
-            if (flyingPills.contains(head)) {
-                flyingPills.remove(head);
+            if (isFlyingPill(head)) {
+                remove(flyingPills, head);
             }
-            if (furyPills.contains(head)) {
-                furyPills.remove(head);
+            if (isFuryPill(head)) {
+                remove(furyPills, head);
             }
         }
     }
 
+    private void remove(List<? extends Point> objects, Point pt) {
+        objects.remove(pt);
+        cells.remove(pt);
+    }
+
+    private <T extends Point> void add(List<T> objects, T object) {
+        objects.add(object);
+        cells.add(object);
+    }
+
     private Stream<Hero> notFlyingHeroes() {
         return aliveActive().stream()
                 .map(Player::getHero)
@@ -377,13 +396,16 @@ public class SnakeBoard implements Field {
         return round >= roundsPerMatch.getValue();
     }
 
+    @Override
     public int size() {
         return size;
     }
 
     @Override
     public boolean isBarrier(Point p) {
-        return p.isOutOf(size) || walls.contains(p) || starts.contains(p);
+        return p.isOutOf(size)
+                || cells.is(p, Wall.class)
+                || cells.is(p, StartFloor.class);
     }
 
     @Override
@@ -406,22 +428,18 @@ public class SnakeBoard implements Field {
     public boolean isFreeForStone(Point pt) {
         Point leftSide = pt.copy();
         leftSide.change(Direction.LEFT);
-        return isFree(pt) && !starts.contains(leftSide);
+        return isFree(pt) && !cells.is(leftSide, StartFloor.class);
     }
 
     public boolean isFreeOfObjects(Point pt) {
-        return !(apples.contains(pt) ||
-                stones.contains(pt) ||
-                walls.contains(pt) ||
-                starts.contains(pt) ||
-                flyingPills.contains(pt) ||
-                furyPills.contains(pt) ||
-                gold.contains(pt));
+        // за пределами поля объекты не ставим - их не видно
+        return !pt.isOutOf(size) && cells.isEmpty(pt);
     }
 
     private boolean freeOfHero(Point pt) {
-        for (Hero h : getHeroes()) {
-            if (h != null && h.body().contains(pt) &&
+        for (Player player : players) {
+            Hero h = player.getHero();
+            if (h != null && h.isMe(pt) &&
                     !pt.equals(h.getTailPoint()))
                 return false;
         }
@@ -430,34 +448,34 @@ public class SnakeBoard implements Field {
 
     @Override
     public boolean isApple(Point p) {
-        return apples.contains(p);
+        return cells.is(p, Apple.class);
     }
 
     @Override
     public boolean isStone(Point p) {
-        return stones.contains(p);
+        return cells.is(p, Stone.class);
     }
 
     @Override
     public boolean isFlyingPill(Point p) {
-        return flyingPills.contains(p);
+        return cells.is(p, FlyingPill.class);
     }
 
     @Override
     public boolean isFuryPill(Point p) {
-        return furyPills.contains(p);
+        return cells.is(p, FuryPill.class);
     }
 
     @Override
     public boolean isGold(Point p) {
-        return gold.contains(p);
+        return cells.is(p, Gold.class);
     }
 
     @Override
     public Hero enemyEatenWith(Hero me) {
         return aliveEnemies(me)
                 .filter(h -> !h.isFlying())
-                .filter(h -> h.body().contains(me.head()))
+                .filter(h -> h.isMe(me.head()))
                 .findFirst()
                 .orElse(null);
     }
@@ -514,13 +532,13 @@ public class SnakeBoard implements Field {
     @Override
     public void setApple(Point p) {
         if (isFree(p))
-            apples.add(new Apple(p));
+            add(apples, new Apple(p));
     }
 
     @Override
     public boolean setStone(Point p) {
         if (isFreeForStone(p)) {
-            stones.add(new Stone(p));
+            add(stones, new Stone(p));
             return true;
         }
         return false;
@@ -529,19 +547,19 @@ public class SnakeBoard implements Field {
     @Override
     public void setFlyingPill(Point p) {
         if (isFree(p))
-            flyingPills.add(new FlyingPill(p));
+            add(flyingPills, new FlyingPill(p));
     }
 
     @Override
     public void setFuryPill(Point p) {
         if (isFree(p))
-            furyPills.add(new FuryPill(p));
+            add(furyPills, new FuryPill(p));
     }
 
     @Override
     public void setGold(Point p) {
         if (isFree(p))
-            gold.add(new Gold(p));
+            add(gold, new Gold(p));
     }
 
     public List<Apple> getApples() {
@@ -643,29 +661,12 @@ public class SnakeBoard implements Field {
     }
 
     public Point getOn(Point pt) {
-        if (apples.contains(pt)) {
-            return new Apple(pt);
-        }
-        if (stones.contains(pt)) {
-            return new Stone(pt);
-        }
-        if (flyingPills.contains(pt)) {
-            return new FlyingPill(pt);
-        }
-        if (furyPills.contains(pt)) {
-            return new FuryPill(pt);
-        }
-        if (gold.contains(pt)) {
-            return new Gold(pt);
-        }
-        if (starts.contains(pt)) {
-            return new StartFloor(pt);
-        }
-        if (walls.contains(pt)) {
-            return new Wall(pt);
+        Point object = cells.get(pt);
+        if (object != null) {
+            return object;
         }
         for (Player player : players) {
-            if (player.getHero().body().contains(pt)) {
+            if (player.getHero().isMe(pt)) {
                 return player.getHero().neck(); // это просто любой объект типа Tail
             }
         }
@@ -0,0 +1,93 @@
+package com.codenjoy.dojo.snakebattle.model.hero;
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2018 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.services.Point;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Клетки поля, занятые телом змейки, чтобы не искать по списку.
+ * Летящая змейка может накладываться сама на себя - тогда при удалении
+ * такой клетки маска перестраивается по телу заново.
+ * Точки за пределами поля не индексируются, для них ищем по телу.
+ */
+class BodyCells {
+
+    private int size;
+    private BitSet cells;
+    private int overlaps;
+    private int outside;
+
+    BodyCells(int size) {
+        this.size = size;
+        cells = new BitSet(size * size);
+    }
+
+    public void rebuild(List<? extends Point> body) {
+        cells.clear();
+        overlaps = 0;
+        outside = 0;
+        body.forEach(this::add);
+    }
+
+    public void add(Point pt) {
+        if (pt.isOutOf(size)) {
+            outside++;
+            return;
+        }
+        int index = index(pt);
+        if (cells.get(index)) {
+            overlaps++;
+        } else {
+            cells.set(index);
+        }
+    }
+
+    /**
+     * @param body тело змейки, уже без удаленной точки
+     */
+    public void remove(Point pt, List<? extends Point> body) {
+        if (pt.isOutOf(size)) {
+            outside--;
+            return;
+        }
+        if (overlaps > 0) {
+            rebuild(body);
+            return;
+        }
+        cells.clear(index(pt));
+    }
+
+    public boolean contains(Point pt, List<? extends Point> body) {
+        if (pt.isOutOf(size)) {
+            return outside > 0 && body.contains(pt);
+        }
+        return cells.get(index(pt));
+    }
+
+    private int index(Point pt) {
+        return pt.getX() * size + pt.getY();
+    }
+}
@@ -44,6 +44,7 @@ public class Hero extends PlayerHero<Field> implements State<LinkedList<Tail>, P
     public static final boolean NEXT_TICK = !NOW;
 
     private LinkedList<Tail> elements;
+    private BodyCells cells;
     private boolean alive;
     private Direction direction;
     private Direction newDirection;
@@ -64,6 +65,7 @@ public class Hero extends PlayerHero<Field> implements State<LinkedList<Tail>, P
 
     public Hero(Direction direction) {
         elements = new LinkedList<>();
+        cells = new BodyCells(0);
         growBy = 0;
         leaveApples = false;
         this.direction = direction;
@@ -137,6 +139,13 @@ public class Hero extends PlayerHero<Field> implements State<LinkedList<Tail>, P
     @Override
     public void init(Field field) {
         this.field = field;
+        cells = new BodyCells(field == null ? 0 : field.size());
+        cells.rebuild(elements);
+    }
+
+    private void setBody(List<Tail> body) {
+        elements = new LinkedList<>(body);
+        cells.rebuild(elements);
     }
 
     @Override
@@ -272,7 +281,7 @@ public class Hero extends PlayerHero<Field> implements State<LinkedList<Tail>, P
             if (growBy < -elements.size()) {
                 die();
             } else {
-                elements = new LinkedList<>(elements.subList(-growBy, elements.size()));
+                setBody(elements.subList(-growBy, elements.size()));
                 // TODO тут тоже надо по идее lastTailPosition = getTailPoint();
             }
             growBy = 0;
@@ -282,14 +291,14 @@ public class Hero extends PlayerHero<Field> implements State<LinkedList<Tail>, P
     private void selfReduce(Point from) {
         if (from.equals(getTailPoint()))
             return;
-        elements = new LinkedList<>(elements.subList(elements.indexOf(from), elements.size()));
+        setBody(elements.subList(elements.indexOf(from), elements.size()));
         // TODO тут тоже надо по идее lastTailPosition = getTailPoint();
     }
 
     public int reduceFrom(Point from) {
         int was = size();
         lastTailPosition = from;
-        elements = new LinkedList<>(elements.subList(elements.indexOf(from) + 1, elements.size()));
+        setBody(elements.subList(elements.indexOf(from) + 1, elements.size()));
         if (size() < MINIMUM_LENGTH) {
             die();
             return was; // TODO я не нашел случая когда это может случиться
@@ -305,7 +314,7 @@ public class Hero extends PlayerHero<Field> implements State<LinkedList<Tail>, P
             return was;
         } else {
             if (now) {
-                elements = new LinkedList<>(elements.subList(len, elements.size()));
+                setBody(elements.subList(len, elements.size()));
                 // TODO тут тоже надо по идее lastTailPosition = getTailPoint();
             } else {
                 growBy = -len;
@@ -320,13 +329,15 @@ public class Hero extends PlayerHero<Field> implements State<LinkedList<Tail>, P
 
     private void grow() {
         growBy--;
-        elements.addFirst(new Tail(lastTailPosition, this));
+        addTail(lastTailPosition);
     }
 
     private void go(Point newLocation) {
         lastTailPosition = getTailPoint();
-        elements.add(new Tail(newLocation, this));
-        elements.removeFirst();
+        Tail head = new Tail(newLocation, this);
+        elements.add(head);
+        cells.add(head);
+        cells.remove(elements.removeFirst(), elements);
     }
 
     public boolean isAlive() {
@@ -396,8 +407,8 @@ public class Hero extends PlayerHero<Field> implements State<LinkedList<Tail>, P
         return head() == point;
     }
 
-    boolean isMe(Point next) {
-        return elements.contains(next);
+    public boolean isMe(Point pt) {
+        return cells.contains(pt, elements);
     }
 
     boolean itsMyTail(Point point) {
@@ -410,7 +421,7 @@ public class Hero extends PlayerHero<Field> implements State<LinkedList<Tail>, P
 
     public void clear() {
         List<Point> points = new LinkedList<>(elements);
-        elements = new LinkedList<>();
+        setBody(new LinkedList<>());
         if (leaveApples) {
             points.forEach(e -> field.setApple(e));
             leaveApples = false;
@@ -460,13 +471,17 @@ public class Hero extends PlayerHero<Field> implements State<LinkedList<Tail>, P
     }
 
     public void addTail(Point part) {
-        elements.addFirst(new Tail(part, this));
+        Tail tail = new Tail(part, this);
+        elements.addFirst(tail);
+        cells.add(tail);
     }
 
     public void addTail(List<Point> tail) {
-        elements.addAll(tail.stream()
+        List<Tail> parts = tail.stream()
                 .map(pt -> new Tail(pt, this))
-                .collect(toList()));
+                .collect(toList());
+        elements.addAll(parts);
+        parts.forEach(cells::add);
     }
 
     public int getBodyIndex(Point pt) {
@@ -0,0 +1,99 @@
+package com.codenjoy.dojo.snakebattle.model.hero;
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2018 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.services.Point;
+import org.junit.Test;
+
+import java.util.LinkedList;
+import java.util.List;
+
+import static com.codenjoy.dojo.services.PointImpl.pt;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BodyCellsTest {
+
+    private BodyCells cells = new BodyCells(5);
+    private LinkedList<Point> body = new LinkedList<>();
+
+    private void add(Point pt) {
+        body.add(pt);
+        cells.add(pt);
+    }
+
+    private void removeFirst() {
+        cells.remove(body.removeFirst(), body);
+    }
+
+    @Test
+    public void shouldContainsOnlyBody() {
+        add(pt(1, 1));
+        add(pt(2, 1));
+
+        assertTrue(cells.contains(pt(1, 1), body));
+        assertTrue(cells.contains(pt(2, 1), body));
+        assertFalse(cells.contains(pt(1, 2), body));
+        assertFalse(cells.contains(pt(-1, 1), body));
+    }
+
+    @Test
+    public void shouldKeepCell_whenBodyOverlapsItself() {
+        // летящая змейка прошла по своему же хвосту
+        add(pt(1, 1));
+        add(pt(2, 1));
+        add(pt(1, 1));
+
+        removeFirst();
+        assertTrue(cells.contains(pt(1, 1), body));
+
+        removeFirst();
+        assertTrue(cells.contains(pt(1, 1), body));
+        assertFalse(cells.contains(pt(2, 1), body));
+    }
+
+    @Test
+    public void shouldFindOutOfBoardPoints() {
+        add(pt(4, 1));
+        add(pt(5, 1));
+
+        assertTrue(cells.contains(pt(5, 1), body));
+
+        removeFirst();
+        removeFirst();
+        assertFalse(cells.contains(pt(5, 1), body));
+    }
+
+    @Test
+    public void shouldRebuild() {
+        List<Point> list = new LinkedList<>();
+        list.add(pt(0, 0));
+        list.add(pt(0, 1));
+        cells.add(pt(3, 3));
+
+        cells.rebuild(list);
+
+        assertTrue(cells.contains(pt(0, 1), list));
+        assertFalse(cells.contains(pt(3, 3), list));
+    }
+}
@@ -26,8 +26,7 @@ package com.codenjoy.dojo.tetris.model;
 import com.codenjoy.dojo.services.EventListener;
 import com.codenjoy.dojo.tetris.services.Events;
 
-import java.math.BigInteger;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.function.Supplier;
@@ -35,12 +34,17 @@ import java.util.function.Supplier;
 public class GlassImpl implements Glass {
 
     public static final int BITS = 3; // per point
-    public static final BigInteger Ob111 = new BigInteger("111", 2);
+    public static final int COLOR = 0b111;
 
     private int width;
     private int height;
+    private int words; // long'ов на строку
+    private long full; // маска заполненного последнего long'а строки
     private EventListener listener;
-    private List<BigInteger> occupied = new ArrayList<>();
+    // занятые клетки - по биту на клетку, строки снизу вверх
+    private long[] occupied;
+    // цвет каждой клетки - код из Figure.rowCodes, 0 если пусто
+    private byte[] colors;
     private Figure figure;
     private int x;
     private int y;
@@ -50,9 +54,26 @@ public class GlassImpl implements Glass {
         this.width = width;
         this.height = height;
         this.getLevel = supplier;
-        for (int i = 0; i < height; i++) {
-            occupied.add(BigInteger.ZERO);
+        words = Math.max(1, (width + Long.SIZE - 1) / Long.SIZE);
+        int last = width - (words - 1) * Long.SIZE;
+        full = (last == Long.SIZE) ? -1L : (1L << last) - 1;
+        occupied = new long[height * words];
+        colors = new byte[height * width];
+    }
+
+    private boolean isOccupied(int x, int y) {
+        if (x < 0 || x >= width) {
+            return false;
         }
+        return (occupied[y * words + x / Long.SIZE] & (1L << (x % Long.SIZE))) != 0;
+    }
+
+    private void set(int x, int y, int color) {
+        if (x < 0 || x >= width) {
+            return;
+        }
+        occupied[y * words + x / Long.SIZE] |= 1L << (x % Long.SIZE);
+        colors[y * width + x] = (byte) color;
     }
 
     public boolean accept(Figure figure, int x, int y) {
@@ -60,18 +81,22 @@ public class GlassImpl implements Glass {
             return false;
         }
 
-        BigInteger[] aligned = alignRowWithGlass(figure, x, true);
-        boolean occupied = false;
-        for (int i = 0; i < aligned.length; i++) {
-            BigInteger figureLine = aligned[i];
+        // самая правая клетка фигуры лежит в младших битах кода строки
+        int right = x + figure.right();
+        int[] rows = figure.rowCodes(true);
+        for (int i = 0; i < rows.length; i++) {
             int pos = y - i + figure.top();
             if (pos >= height) {
                 continue;
             }
-            BigInteger line = this.occupied.get(pos);
-            occupied |= (line.and(figureLine).compareTo(BigInteger.ZERO) == 1);
+            int code = rows[i];
+            for (int dx = 0; code != 0; dx++, code >>= BITS) {
+                if ((code & COLOR) != 0 && isOccupied(right - dx, pos)) {
+                    return false;
+                }
+            }
         }
-        return !occupied;
+        return true;
     }
 
     private boolean isOutside(Figure figure, int x, int y) {
@@ -112,15 +137,20 @@ public class GlassImpl implements Glass {
     }
 
     private void performDrop(Figure figure, int x, int position) {
-        BigInteger[] aligned = alignRowWithGlass(figure, x, false);
-        for (int i = 0; i < aligned.length; i++) {
-            int row = position + aligned.length - i - 1;
-            if (row >= occupied.size()) {
+        int right = x + figure.right();
+        int[] rows = figure.rowCodes(false);
+        for (int i = 0; i < rows.length; i++) {
+            int row = position + rows.length - i - 1;
+            if (row >= height) {
                 continue;
             }
-            BigInteger line = occupied.get(row);
-            BigInteger figureLine = aligned[i];
-            occupied.set(row, line.or(figureLine));
+            int code = rows[i];
+            for (int dx = 0; code != 0; dx++, code >>= BITS) {
+                int color = code & COLOR;
+                if (color != 0) {
+                    set(right - dx, row, color);
+                }
+            }
         }
 
         if (listener != null) {
@@ -129,15 +159,22 @@ public class GlassImpl implements Glass {
     }
 
     private void removeLines() {
-        int removed = 0;
-        for (int i = 0; i < occupied.size(); i++) {
-            while (wholeLine(i)) {
-                occupied.remove(i);
-                occupied.add(BigInteger.ZERO);
-                removed++;
+        // сдвигаем вниз все неполные строки, сверху остаются пустые
+        int to = 0;
+        for (int from = 0; from < height; from++) {
+            if (wholeLine(from)) {
+                continue;
+            }
+            if (to != from) {
+                System.arraycopy(occupied, from * words, occupied, to * words, words);
+                System.arraycopy(colors, from * width, colors, to * width, width);
             }
+            to++;
         }
+        int removed = height - to;
         if (removed > 0) {
+            Arrays.fill(occupied, to * words, height * words, 0L);
+            Arrays.fill(colors, to * width, height * width, (byte) 0);
             if (listener != null) {
                 listener.event(Events.linesRemoved(getLevel.get(), removed));
             }
@@ -145,10 +182,9 @@ public class GlassImpl implements Glass {
     }
 
     private boolean wholeLine(int y) {
-        for (int i = 0; i < width; i++) {
-            BigInteger line = occupied.get(y);
-            BigInteger atPos = Ob111.shiftLeft((i + 1)*BITS);
-            if ((line.and(atPos).equals(BigInteger.ZERO))) {
+        for (int i = 0; i < words; i++) {
+            long expected = (i == words - 1) ? full : -1L;
+            if (occupied[y * words + i] != expected) {
                 return false;
             }
         }
@@ -162,20 +198,9 @@ public class GlassImpl implements Glass {
         return yy;
     }
 
-    private BigInteger[] alignRowWithGlass(Figure figure, int x, boolean ignoreColors) {
-        int[] rows = figure.rowCodes(ignoreColors);
-        BigInteger[] result = new BigInteger[rows.length];
-        for (int i = 0; i < rows.length; i++) {
-            result[i] = BigInteger.valueOf((long) rows[i])
-                    .shiftLeft((width - x - figure.right()) * BITS);
-        }
-        return result;
-    }
-
     public void empty() {
-        for (int i = 0; i < occupied.size(); i++) {
-            occupied.set(i, BigInteger.ZERO);
-        }
+        Arrays.fill(occupied, 0L);
+        Arrays.fill(colors, (byte) 0);
         if (listener != null) {
             listener.event(Events.glassOverflown(getLevel.get()));
         }
@@ -191,14 +216,13 @@ public class GlassImpl implements Glass {
     @Override
     public List<Plot> dropped() {
         LinkedList<Plot> plots = new LinkedList<>();
-        for (int y = 0; y < occupied.size(); y++) {
-            for (int x = width; x >= 0; x--) {
-                BigInteger line = occupied.get(y);
-                int color = line.shiftRight(x * BITS).and(new BigInteger("111", 2)).intValue();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int color = colors[y * width + x];
                 if (color == 0) {
                     continue;
                 }
-                plots.add(new Plot(0 - x + width, y, findColor(color - 1)));
+                plots.add(new Plot(x, y, findColor(color - 1)));
             }
         }
         return plots;
@@ -219,7 +243,7 @@ public class GlassImpl implements Glass {
 
         for (int i = 0; i < rowCodes.length; i++) {
             for (int x = rowWidth; x >= 0; x--) {
-                int color = (rowCodes[i] >> (x * BITS)) & 0b111;
+                int color = (rowCodes[i] >> (x * BITS)) & COLOR;
                 if (color == 0) {
                     continue;
                 }
@@ -233,8 +257,8 @@ public class GlassImpl implements Glass {
 
     @Override
     public boolean isEmpty() {
-        for (BigInteger row : occupied) {
-            if (!row.equals(BigInteger.ZERO)) {
+        for (long word : occupied) {
+            if (word != 0) {
                 return false;
             }
         }
@@ -251,7 +275,8 @@ public class GlassImpl implements Glass {
         GlassImpl result = new GlassImpl(width, height, getLevel);
         result.setListener(listener);
         result.figureAt(figure, x, y);
-        result.occupied = new LinkedList<>(occupied);
+        result.occupied = occupied.clone();
+        result.colors = colors.clone();
         return result;
     }
 
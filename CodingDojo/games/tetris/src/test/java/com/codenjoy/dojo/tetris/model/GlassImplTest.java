@@ -443,6 +443,40 @@ public class GlassImplTest {
         assertTrue(glass.accept(point, 1, 0));
     }
 
+    @Test
+    public void shouldWorkWithGlassWiderThanLong() {
+        glass = new GlassImpl(70, HEIGHT, () -> 1);
+        glass.setListener(listener);
+
+        for (int x = 0; x < 60; x += 10) {
+            glass.drop(createLine("##########"), x, TOP_Y);
+        }
+        glass.drop(createLine("#####"), 60, TOP_Y);
+
+        assertFalse(glass.accept(point, 64, 0));
+        assertTrue(glass.accept(point, 65, 0));
+        assertContainsPlot(64, 0, Elements.BLUE, glass.dropped().toArray(new Plot[0]));
+        assertEquals(65, glass.dropped().size());
+
+        glass.drop(createLine("#####"), 65, TOP_Y);
+
+        verify(listener).event(Events.linesRemoved(1, 1));
+        assertTrue(glass.isEmpty());
+    }
+
+    @Test
+    public void shouldNotChangeOriginal_whenDropToClone() {
+        glass.drop(point, 0, TOP_Y);
+
+        Glass clone = glass.clone();
+        clone.drop(point, 1, TOP_Y);
+
+        assertFalse(clone.accept(point, 1, 0));
+        assertTrue(glass.accept(point, 1, 0));
+        assertEquals(1, glass.dropped().size());
+        assertEquals(2, clone.dropped().size());
+    }
+
     private Figure createLine(Type type, String ... lines) {
         return new FigureImpl(0, 0, type, lines);
     }
@@ -43,13 +43,13 @@ public class AppConfig {
     }
 
     @Bean
-    public PlayerTransport controlPlayerTransport() {
-        return new PlayerTransportImpl();
+    public PlayerTransport controlPlayerTransport(@Value("${mvc.async-send:true}") boolean async) {
+        return new PlayerTransportImpl(async);
     }
 
     @Bean
-    public PlayerTransport screenPlayerTransport() {
-        return new PlayerTransportImpl();
+    public PlayerTransport screenPlayerTransport(@Value("${mvc.async-send:true}") boolean async) {
+        return new PlayerTransportImpl(async);
     }
 
 }
@@ -23,7 +23,6 @@ package com.codenjoy.dojo.services;
  */
 
 
-import com.codenjoy.dojo.services.jdbc.JDBCTimeUtils;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.ToString;
@@ -45,7 +44,7 @@ public class BoardLog {
 
     public BoardLog(ResultSet resultSet) {
         try {
-            time = JDBCTimeUtils.getTimeLong(resultSet);
+            time = resultSet.getLong("tick");
             playerName = resultSet.getString("player_name");
             gameType = resultSet.getString("game_type");
             score = resultSet.getInt("score");
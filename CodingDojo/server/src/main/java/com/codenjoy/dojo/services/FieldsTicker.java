@@ -0,0 +1,107 @@
+package com.codenjoy.dojo.services;
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2018 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Тикает все поля (комнаты) за один тик сервера.
+ * Поля между собой никак не связаны, а потому в parallel режиме
+ * они тикаются одновременно на пуле потоков. Метод {@link #tick(List)}
+ * в любом режиме возвращает управление только после того, как
+ * тикнулись все поля - так что дальше (отрисовка досок и рассылка)
+ * все происходит так же, как и в последовательном режиме.
+ */
+@Component
+@Slf4j
+public class FieldsTicker {
+
+    private boolean parallel;
+    private int threads;
+    private ExecutorService executor;
+
+    @Value("${game.tick.parallel:false}")
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    /**
+     * @param threads количество потоков пула, если 0 - по числу ядер
+     */
+    @Value("${game.tick.threads:0}")
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    public void tick(List<Tickable> fields) {
+        if (!parallel || fields.size() < 2) {
+            fields.forEach(Tickable::quietTick);
+            return;
+        }
+
+        List<Callable<Object>> tasks = fields.stream()
+                .map(field -> Executors.callable(field::quietTick))
+                .collect(toList());
+
+        try {
+            // invokeAll дожидается окончания всех задач - это и есть наш барьер
+            executor().invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Parallel fields tick was interrupted", e);
+        }
+    }
+
+    private synchronized ExecutorService executor() {
+        if (executor == null) {
+            int count = (threads > 0) ? threads : Runtime.getRuntime().availableProcessors();
+            executor = new ForkJoinPool(count);
+        }
+        return executor;
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+}
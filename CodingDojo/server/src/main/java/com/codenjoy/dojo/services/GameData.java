@@ -24,14 +24,16 @@ package com.codenjoy.dojo.services;
 
 
 import com.codenjoy.dojo.services.hero.HeroData;
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import org.json.JSONObject;
 
 import java.util.List;
 import java.util.Map;
 
-@AllArgsConstructor
+/**
+ * Снимок комнаты на текущий тик - один на всех ее участников,
+ * а потому json строится лениво и только однажды.
+ */
 public class GameData {
 
     @Getter private int boardSize;
@@ -41,15 +43,37 @@ public class GameData {
     private Map<String, HeroData> coordinates;
     private Map<String, String> readableNames;
 
-    public JSONObject getScores() {
-        return new JSONObject(scores);
+    private JSONObject scoresJson;
+    private JSONObject heroesDataJson;
+
+    public GameData(int boardSize, GuiPlotColorDecoder decoder,
+                    Map<String, Object> scores, List<String> group,
+                    Map<String, HeroData> coordinates,
+                    Map<String, String> readableNames)
+    {
+        this.boardSize = boardSize;
+        this.decoder = decoder;
+        this.scores = scores;
+        this.group = group;
+        this.coordinates = coordinates;
+        this.readableNames = readableNames;
+    }
+
+    public synchronized JSONObject getScores() {
+        if (scoresJson == null) {
+            scoresJson = new JSONObject(scores);
+        }
+        return scoresJson;
     }
 
-    public JSONObject getHeroesData() {
-        JSONObject result = new JSONObject();
-        result.put("coordinates", coordinates);
-        result.put("group", group);
-        result.put("readableNames", readableNames);
-        return result;
+    public synchronized JSONObject getHeroesData() {
+        if (heroesDataJson == null) {
+            JSONObject result = new JSONObject();
+            result.put("coordinates", coordinates);
+            result.put("group", group);
+            result.put("readableNames", readableNames);
+            heroesDataJson = result;
+        }
+        return heroesDataJson;
     }
 }
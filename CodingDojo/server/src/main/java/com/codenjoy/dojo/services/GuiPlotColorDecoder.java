@@ -22,32 +22,63 @@ package com.codenjoy.dojo.services;
  * #L%
  */
 
-
 import lombok.AllArgsConstructor;
+import lombok.Getter;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
-@AllArgsConstructor
 public class GuiPlotColorDecoder {
 
     public static String GUI = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
-    private Object[] values;
 
-    private char getGuiChar(char consoleChar) {
-        return GUI.charAt(getIndex(consoleChar));
+    private static final char NONE = '\0';
+
+    // console char -> gui char, строится один раз на GameType
+    private char[] table;
+
+    public GuiPlotColorDecoder(Object[] values) {
+        table = buildTable(values);
     }
 
-    private int getIndex(char ch) {
-        for (int index = 0; index < values.length; index++) {
-            if (values[index].toString().equals(String.valueOf(ch))) {
-                return index;
+    private static char[] buildTable(Object[] values) {
+        if (values == null) {
+            return new char[0];
+        }
+
+        int max = -1;
+        for (Object value : values) {
+            String string = value.toString();
+            if (string.length() == 1) {
+                max = Math.max(max, string.charAt(0));
+            }
+        }
+
+        char[] result = new char[max + 1];
+        int count = Math.min(values.length, GUI.length());
+        for (int index = 0; index < count; index++) {
+            String string = values[index].toString();
+            if (string.length() != 1) {
+                continue;
+            }
+            char ch = string.charAt(0);
+            // как и при линейном поиске - побеждает первое вхождение
+            if (result[ch] == NONE) {
+                result[ch] = GUI.charAt(index);
             }
         }
-        throw new IllegalArgumentException("Not enum symbol '" + ch + "'");
+        return result;
+    }
+
+    private char getGuiChar(char consoleChar) {
+        char result = (consoleChar < table.length) ? table[consoleChar] : NONE;
+        if (result == NONE) {
+            throw new IllegalArgumentException("Not enum symbol '" + consoleChar + "'");
+        }
+        return result;
     }
 
     public String encodeForClient(Object board) {
-        return board.toString().replaceAll("\n", "");
+        return removeN(board.toString());
     }
 
     public Object encodeForBrowser(Object board) {
@@ -75,11 +106,69 @@ public class GuiPlotColorDecoder {
         return result;
     }
 
+    /**
+     * Кодирует борду сразу для клиента и для браузера.
+     * Строковая борда проходится один раз.
+     */
+    public Encoded encode(Object board) {
+        if (!(board instanceof String)) {
+            // encodeForBrowser меняет JSONObject, потому клиенту отдаем до этого
+            String client = encodeForClient(board);
+            return new Encoded(client, encodeForBrowser(board));
+        }
+
+        String string = (String) board;
+        int length = string.length();
+        char[] client = new char[length];
+        char[] browser = new char[length];
+        int count = 0;
+        for (int index = 0; index < length; index++) {
+            char ch = string.charAt(index);
+            if (ch == '\n') {
+                continue;
+            }
+            client[count] = ch;
+            browser[count] = getGuiChar(ch);
+            count++;
+        }
+        return new Encoded(new String(client, 0, count),
+                new String(browser, 0, count));
+    }
+
     private String encode(String board) {
-        char[] chars = board.replaceAll("\n", "").toCharArray();
-        for (int index = 0; index < chars.length; index++) {
-            chars[index] = getGuiChar(chars[index]);
+        int length = board.length();
+        char[] chars = new char[length];
+        int count = 0;
+        for (int index = 0; index < length; index++) {
+            char ch = board.charAt(index);
+            if (ch != '\n') {
+                chars[count++] = getGuiChar(ch);
+            }
         }
-        return String.copyValueOf(chars);
+        return new String(chars, 0, count);
+    }
+
+    private static String removeN(String board) {
+        if (board.indexOf('\n') == -1) {
+            return board;
+        }
+        int length = board.length();
+        char[] chars = new char[length];
+        int count = 0;
+        for (int index = 0; index < length; index++) {
+            char ch = board.charAt(index);
+            if (ch != '\n') {
+                chars[count++] = ch;
+            }
+        }
+        return new String(chars, 0, count);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Encoded {
+
+        private String client;
+        private Object browser;
     }
 }
@@ -44,6 +44,9 @@ public class PlayerGame implements Tickable {
     private String roomName;
     private LazyJoystick joystick;
 
+    // тик работает со снимком реестра, а из него игрока могли уже удалить
+    private volatile boolean removed;
+
     public PlayerGame(Player player, Game game, String roomName) {
         this.player = player;
         this.game = game;
@@ -101,6 +104,7 @@ public class PlayerGame implements Tickable {
     }
 
     public void remove(Consumer<PlayerGame> onRemove) {
+        removed = true;
         if (onRemove != null) {
             onRemove.accept(this);
         }
@@ -112,6 +116,10 @@ public class PlayerGame implements Tickable {
         return game.getField();
     }
 
+    public boolean isRemoved() {
+        return removed;
+    }
+
     @Override
     public String toString() {
         return String.format("PlayerGame[player=%s, roomName=%s, game=%s]",
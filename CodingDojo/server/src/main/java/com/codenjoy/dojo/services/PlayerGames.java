@@ -23,17 +23,19 @@ package com.codenjoy.dojo.services;
  */
 
 
+import com.codenjoy.dojo.services.lock.FieldLocks;
 import com.codenjoy.dojo.services.lock.LockedGame;
+import com.codenjoy.dojo.services.metrics.TickMetrics;
 import com.codenjoy.dojo.services.multiplayer.*;
 import com.codenjoy.dojo.services.nullobj.NullPlayerGame;
+import com.codenjoy.dojo.services.printer.FieldCells;
 import com.google.common.collect.Multimap;
 import lombok.experimental.FieldNameConstants;
 import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 
@@ -44,13 +46,52 @@ import static java.util.stream.Collectors.toList;
 @FieldNameConstants
 public class PlayerGames implements Iterable<PlayerGame>, Tickable {
 
-    private List<PlayerGame> all = new LinkedList<>();
+    // порядок добавления сохраняем, а удаляем за O(1) - по ссылке, потому что
+    // equals у PlayerGame по имени, а игроков с одним именем может быть несколько
+    private Map<Ref, PlayerGame> all = new LinkedHashMap<>();
+
+    // список для all() и get(index) - строится заново только после изменений
+    private List<PlayerGame> list;
+
+    // индексы, чтобы не бегать по всему списку all при каждом поиске
+    // обновляются при добавлении, удалении и перезагрузке игроков
+    // (игроков с одинаковым именем может быть несколько - берем первого)
+    // внутри как и в all - по ссылке и в порядке добавления, чтобы удалять за O(1)
+    private Map<String, Map<Ref, PlayerGame>> byName = new HashMap<>();
+    private Map<GamePlayer, PlayerGame> byGamePlayer = new IdentityHashMap<>();
+    private Map<GameField, Map<Ref, PlayerGame>> byField = new LinkedHashMap<>();
+    private Map<GameType, Map<Ref, PlayerGame>> byGameType = new LinkedHashMap<>();
+    private Map<String, Map<Ref, PlayerGame>> byGameName = new HashMap<>();
+
+    // поля каждой комнаты - когда последнее уходит, чистим метрики комнаты
+    // имя комнаты запоминаем для поля, т.к. при reload у игрока оно уже новое
+    private Map<String, Set<GameField>> roomFields = new HashMap<>();
+    private Map<GameField, String> fieldRooms = new HashMap<>();
+
+    // растет при каждом изменении индексов - по нему
+    // PlayerGamesView понимает, что составы комнат поменялись
+    private volatile long version;
 
     private Consumer<PlayerGame> onAdd;
     private Consumer<PlayerGame> onRemove;
-    private ReadWriteLock lock;
+    private FieldLocks locks;
     private Spreader spreader = new Spreader();
 
+    @Autowired
+    private FieldsTicker fieldsTicker;
+
+    @Autowired
+    private TickRates tickRates;
+
+    @Autowired
+    private TickMetrics metrics;
+
+    // номер тика - по нему TickRates решает, чья очередь тикаться
+    private long ticks;
+
+    // игроки, чьи комнаты тикаются в текущем тике
+    private List<PlayerGame> due = Collections.emptyList();
+
     public void onAdd(Consumer<PlayerGame> consumer) {
         this.onAdd = consumer;
     }
@@ -59,12 +100,26 @@ public class PlayerGames implements Iterable<PlayerGame>, Tickable {
         this.onRemove = consumer;
     }
 
-    public void init(ReadWriteLock lock) {
-        this.lock = lock;
+    public PlayerGames() {
+        locks = new FieldLocks();
+        fieldsTicker = new FieldsTicker();
+        tickRates = new TickRates();
+        metrics = new TickMetrics();
     }
 
-    public PlayerGames() {
-        lock = new ReentrantReadWriteLock();
+    // for testing only
+    void setFieldsTicker(FieldsTicker fieldsTicker) {
+        this.fieldsTicker = fieldsTicker;
+    }
+
+    // for testing only
+    void setTickRates(TickRates tickRates) {
+        this.tickRates = tickRates;
+    }
+
+    // for testing only
+    void setMetrics(TickMetrics metrics) {
+        this.metrics = metrics;
     }
 
     // удаление текущего игрока
@@ -80,9 +135,12 @@ public class PlayerGames implements Iterable<PlayerGame>, Tickable {
     }
 
     private void remove(Player player, boolean reloadAlone) {
-        int index = all.indexOf(player);
-        if (index == -1) return;
-        PlayerGame game = all.remove(index);
+        PlayerGame game = get(player.getName());
+        if (game == NullPlayerGame.INSTANCE) return;
+        all.remove(new Ref(game));
+        list = null;
+        unindex(game);
+        unindexField(game);
 
         if (reloadAlone) {
             removeWithResetAlone(game.getGame());
@@ -94,22 +152,27 @@ public class PlayerGames implements Iterable<PlayerGame>, Tickable {
 
     private void removeWithResetAlone(Game game) {
         List<PlayerGame> alone = removeAndLeaveAlone(game);
-        alone.forEach(gp -> play(gp.getGame(), gp.getRoomName(),
+        alone.forEach(gp -> play(gp, gp.getRoomName(),
                 gp.getGameType(), gp.getGame().getSave()));
     }
 
     public PlayerGame get(String playerName) {
-        return all.stream()
-                .filter(pg -> pg.getPlayer().getName().equals(playerName))
-                .findFirst()
-                .orElse(NullPlayerGame.INSTANCE);
+        Map<Ref, PlayerGame> games = byName.get(playerName);
+        return (games != null) ? games.values().iterator().next() : NullPlayerGame.INSTANCE;
     }
 
     public PlayerGame get(GamePlayer player) {
-        return all.stream()
-                .filter(pg -> pg.getGame().getPlayer().equals(player))
-                .findFirst()
-                .orElse(null);
+        return byGamePlayer.get(player);
+    }
+
+    public List<PlayerGame> getAll(GameField field) {
+        return Collections.unmodifiableList(valuesOf(byField, field));
+    }
+
+    private void play(PlayerGame playerGame, String roomName, GameType gameType, JSONObject save) {
+        unindexField(playerGame);
+        play(playerGame.getGame(), roomName, gameType, save);
+        indexField(playerGame);
     }
 
     private void play(Game game, String roomName, GameType gameType, JSONObject save) {
@@ -142,18 +205,113 @@ public class PlayerGames implements Iterable<PlayerGame>, Tickable {
 
         Single single = buildSingle(player, gameType);
 
-        Game game = new LockedGame(lock).wrap(single);
-
-        play(game, roomName, gameType, parseSave(save));
+        Game game = new LockedGame(locks).wrap(single);
 
         PlayerGame playerGame = new PlayerGame(player, game, roomName);
+        play(playerGame, roomName, gameType, parseSave(save));
+
         if (onAdd != null) {
             onAdd.accept(playerGame);
         }
-        all.add(playerGame);
+        all.put(new Ref(playerGame), playerGame);
+        list = null;
+        index(playerGame);
         return playerGame;
     }
 
+    private void index(PlayerGame playerGame) {
+        version++;
+        addTo(byName, playerGame.getPlayer().getName(), playerGame);
+        byGamePlayer.put(playerGame.getGame().getPlayer(), playerGame);
+        addTo(byGameType, playerGame.getGameType(), playerGame);
+        addTo(byGameName, playerGame.getPlayer().getGameName(), playerGame);
+    }
+
+    private void unindex(PlayerGame playerGame) {
+        version++;
+        removeFrom(byName, playerGame.getPlayer().getName(), playerGame);
+        byGamePlayer.remove(playerGame.getGame().getPlayer());
+        removeFrom(byGameType, playerGame.getGameType(), playerGame);
+        removeFrom(byGameName, playerGame.getPlayer().getGameName(), playerGame);
+    }
+
+    private void indexField(PlayerGame playerGame) {
+        GameField field = playerGame.getField();
+        if (field == null) {
+            return;
+        }
+        addTo(byField, field, playerGame);
+        if (!fieldRooms.containsKey(field)) {
+            String roomName = playerGame.getRoomName();
+            fieldRooms.put(field, roomName);
+            roomFields.computeIfAbsent(roomName, key -> new HashSet<>())
+                    .add(field);
+        }
+        version++;
+    }
+
+    private void unindexField(PlayerGame playerGame) {
+        GameField field = playerGame.getField();
+        if (field == null) {
+            return;
+        }
+        removeFrom(byField, field, playerGame);
+        if (!byField.containsKey(field)) {
+            // в комнате никого не осталось - забываем ее общую раскладку
+            FieldCells.remove(field);
+            removeRoomField(field);
+        }
+        version++;
+    }
+
+    private void removeRoomField(GameField field) {
+        String roomName = fieldRooms.remove(field);
+        Set<GameField> fields = roomFields.get(roomName);
+        if (fields == null) {
+            return;
+        }
+        fields.remove(field);
+        if (fields.isEmpty()) {
+            roomFields.remove(roomName);
+            metrics.removeRoom(roomName);
+        }
+    }
+
+    private <K> void addTo(Map<K, Map<Ref, PlayerGame>> index, K key, PlayerGame playerGame) {
+        index.computeIfAbsent(key, k -> new LinkedHashMap<>())
+                .put(new Ref(playerGame), playerGame);
+    }
+
+    private <K> void removeFrom(Map<K, Map<Ref, PlayerGame>> index, K key, PlayerGame playerGame) {
+        Map<Ref, PlayerGame> games = index.get(key);
+        if (games == null) {
+            return;
+        }
+        games.remove(new Ref(playerGame));
+        if (games.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private <K> List<PlayerGame> valuesOf(Map<K, Map<Ref, PlayerGame>> index, K key) {
+        Map<Ref, PlayerGame> games = index.get(key);
+        return (games != null) ? new LinkedList<>(games.values()) : new LinkedList<>();
+    }
+
+    /**
+     * Имя игрока - ключ индекса, а потому менять его надо через этот метод.
+     */
+    public void rename(PlayerGame playerGame, String name) {
+        removeFrom(byName, playerGame.getPlayer().getName(), playerGame);
+        playerGame.getPlayer().setName(name);
+        addTo(byName, name, playerGame);
+        version++;
+    }
+
+    public long version() {
+        return version;
+    }
+
     private Single buildSingle(Player player, GameType gameType) {
         GamePlayer gamePlayer = gameType.createPlayer(player.getEventListener(),
                 player.getName());
@@ -189,11 +347,11 @@ public class PlayerGames implements Iterable<PlayerGame>, Tickable {
 
     @Override
     public Iterator<PlayerGame> iterator() {
-        return all.iterator();
+        return all().iterator();
     }
 
     public List<Player> players() {
-        return all.stream()
+        return all().stream()
                 .map(PlayerGame::getPlayer)
                 .collect(toList());
     }
@@ -207,33 +365,39 @@ public class PlayerGames implements Iterable<PlayerGame>, Tickable {
     }
 
     public List<PlayerGame> getAll(String gameType) {
-        return all.stream()
-                .filter(pg -> pg.getPlayer().getGameName().equals(gameType))
-                .collect(toList());
+        return valuesOf(byGameName, gameType);
     }
 
     public List<GameType> getGameTypes() {
-        List<GameType> result = new LinkedList<>();
-
-        for (PlayerGame playerGame : all) {
-            GameType gameType = playerGame.getGameType();
-            if (!result.contains(gameType)) {
-                result.add(gameType);
-            }
-        }
-
-        return result;
+        return new LinkedList<>(byGameType.keySet());
     }
 
     @Override
     public void tick() {
+        prepareTick().tick();
+    }
+
+    /**
+     * Часть тика, которая может менять реестр игроков (перезагрузки тех,
+     * у кого gameOver) - а потому ее вызывают под глобальным lock.
+     * @return тик самих полей - его можно запускать уже без глобального lock,
+     *          каждое поле тикается под своим lock (см. {@link FieldLocks})
+     */
+    public Tickable prepareTick() {
+        // комнаты, которые настроены тикаться реже, в этот раз могут пропускать
+        long tick = ticks++;
+        List<PlayerGame> due = all().stream()
+                .filter(playerGame -> tickRates.isDue(playerGame, tick))
+                .collect(toList());
+        this.due = Collections.unmodifiableList(due);
+
         // по всем джойстикам отправили сообщения играм
-        all.forEach(PlayerGame::quietTick);
+        due.forEach(PlayerGame::quietTick);
 
         // если в TRAINING кто-то isWin то мы его относим на следующий уровень
         // если в DISPOSABLE уровнях кто-то shouldLeave то мы его перезагружаем - от этого он появится на другом поле
         // а для всех остальных, кто уже isGameOver - создаем новые игры на том же поле
-        for (PlayerGame playerGame : all) {
+        for (PlayerGame playerGame : due) {
             Game game = playerGame.getGame();
             String roomName = playerGame.getRoomName();
             MultiplayerType multiplayerType = playerGame.getGameType().getMultiplayerType();
@@ -265,14 +429,40 @@ public class PlayerGames implements Iterable<PlayerGame>, Tickable {
         // независимо от типа игры нам нужно тикнуть все
         //      но только те, которые не DISPOSABLE и одновременно
         //      недокомплектованные пользователями
-        all.stream()
-                .map(PlayerGame::getField)
+        // поля независимы, а потому могут тикаться параллельно (если так настроено)
+        // каждое поле тикается под своим lock, чтобы не пересечься с командами джойстиков
+        Map<GameField, PlayerGame> byFields = new LinkedHashMap<>();
+        due.forEach(playerGame -> byFields.putIfAbsent(playerGame.getField(), playerGame));
+        List<Tickable> fields = byFields.entrySet().stream()
+                .filter(entry -> isMatchCanBeStarted(entry.getKey()))
+                .map(entry -> (Tickable) () -> tickField(entry.getKey(), entry.getValue()))
+                .collect(toList());
+        List<GameType> types = due.stream()
+                .map(PlayerGame::getGameType)
                 .distinct()
-                .filter(this::isMatchCanBeStarted)
-                .forEach(GameField::quietTick);
+                .collect(toList());
+
+        return () -> {
+            fieldsTicker.tick(fields);
 
-        // ну и тикаем все GameRunner мало ли кому надо на это подписаться
-        getGameTypes().forEach(GameType::quietTick);
+            // ну и тикаем все GameRunner мало ли кому надо на это подписаться
+            types.forEach(GameType::quietTick);
+        };
+    }
+
+    /**
+     * @return игроки, чьи комнаты тикались в последнем {@link #prepareTick()} -
+     *          только им и надо рисовать борды и отправлять их
+     */
+    public List<PlayerGame> due() {
+        return due;
+    }
+
+    private void tickField(GameField field, PlayerGame playerGame) {
+        long time = TickMetrics.now();
+        locks.quietTick(field);
+        metrics.record(TickMetrics.FIELD, playerGame.getGameType().name(),
+                playerGame.getRoomName(), TickMetrics.now() - time);
     }
 
     private void fireOnLevelChanged(PlayerGame playerGame) {
@@ -301,7 +491,7 @@ public class PlayerGames implements Iterable<PlayerGame>, Tickable {
             removeWithResetAlone(game);
         }
 
-        play(game, roomName, gameType, save);
+        play(playerGame, roomName, gameType, save);
     }
 
     // перевод текущего игрока в новую комнату
@@ -314,7 +504,7 @@ public class PlayerGames implements Iterable<PlayerGame>, Tickable {
     // при этом если надо перемешиваем их
     public void reloadAll(boolean shuffle) {
         new LinkedList<PlayerGame>(){{
-            addAll(all);
+            addAll(all());
             if (shuffle) {
                 Collections.shuffle(this);
             }
@@ -322,7 +512,12 @@ public class PlayerGames implements Iterable<PlayerGame>, Tickable {
     }
 
     private PlayerGame getPlayerGame(Game game) {
-        return all.stream()
+        PlayerGame result = get(game.getPlayer());
+        if (result != null && result.equals(by(game))) {
+            return result;
+        }
+
+        return all().stream()
                 .filter(pg -> pg.equals(by(game)))
                 .findFirst()
                 .orElseThrow(IllegalStateException::new);
@@ -334,14 +529,12 @@ public class PlayerGames implements Iterable<PlayerGame>, Tickable {
 
     // for testing only
     void clean() {
-        new LinkedList<>(all)
-                .forEach(pg -> remove(pg.getPlayer()));
+        all().forEach(pg -> remove(pg.getPlayer()));
     }
 
     public List<Player> getPlayers(String gameName) {
-        return all.stream()
+        return valuesOf(byGameName, gameName).stream()
                 .map(playerGame -> playerGame.getPlayer())
-                .filter(player -> player.getGameName().equals(gameName))
                 .collect(toList());
     }
 
@@ -380,15 +573,40 @@ public class PlayerGames implements Iterable<PlayerGame>, Tickable {
     }
 
     public PlayerGame get(int index) {
-        return all.get(index);
+        return all().get(index);
     }
 
+    /**
+     * @return неизменяемый снимок - его не испортят последующие добавления/удаления
+     */
     public List<PlayerGame> all() {
-        return all;
+        if (list == null) {
+            list = Collections.unmodifiableList(new ArrayList<>(all.values()));
+        }
+        return list;
     }
 
     public Stream<PlayerGame> stream() {
-        return all.stream();
+        return all().stream();
+    }
+
+    private static class Ref {
+
+        private final PlayerGame game;
+
+        Ref(PlayerGame game) {
+            this.game = game;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Ref && ((Ref) o).game == game;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(game);
+        }
     }
 
     public Multimap<String, Room> rooms() {
@@ -23,11 +23,14 @@ package com.codenjoy.dojo.services;
  */
 
 import com.codenjoy.dojo.services.hero.HeroData;
+import com.codenjoy.dojo.services.multiplayer.GameField;
 import com.codenjoy.dojo.web.rest.pojo.PScoresOf;
+import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static java.util.stream.Collectors.*;
 
@@ -37,48 +40,96 @@ public class PlayerGamesView {
     @Autowired
     protected PlayerGames service;
 
-    public Map<String, GameData> getGamesDataMap() {
-        Map<GameType, GuiPlotColorDecoder> decoders = getDecoders();
-        Map<String, List<String>> groupsMap = getGroupsMap();
-        Map<String, Object> scores = getScores();
-        Map<String, HeroData> coordinates = getCoordinates();
-        Map<String, String> readableNames = getReadableNames();
+    // декодеры строятся один раз на GameType, а не каждый тик
+    private Map<GameType, GuiPlotColorDecoder> decoders = new ConcurrentHashMap<>();
 
-        return service.all().stream()
-                .collect(toMap(
-                        pg -> pg.getPlayer().getName(),
-                        pg -> {
-                            GameType gameType = pg.getGameType();
-                            String player = pg.getPlayer().getName();
-                            List<String> group = groupsMap.get(player);
-
-                            return new GameData(
-                                    gameType.getBoardSize().getValue(),
-                                    decoders.get(gameType),
-                                    filterByGroup(scores, group),
-                                    group,
-                                    filterByGroup(coordinates, group),
-                                    filterByGroup(readableNames, group));
-                        }));
+    // составы комнат меняются только при join/leave/reload/rename,
+    // потому пересобираем их лишь когда поменялась версия PlayerGames
+    private volatile Rooms rooms = new Rooms(-1, Arrays.asList());
+
+    /**
+     * Комната - игроки на одном поле и их имена в порядке добавления.
+     */
+    @AllArgsConstructor
+    private static class Room {
+
+        private GameType gameType;
+        private List<PlayerGame> members;
+        private List<String> group;
     }
 
-    private Map<GameType, GuiPlotColorDecoder> getDecoders() {
-        return service.getGameTypes().stream()
-                .collect(toMap(type -> type,
-                        type -> new GuiPlotColorDecoder(type.getPlots())));
+    @AllArgsConstructor
+    private static class Rooms {
+
+        private long version;
+        private List<Room> list;
     }
 
-    private <K, V> Map<K, V> filterByGroup(Map<K, V> map, List<String> group) {
-        return map.entrySet().stream()
-                .filter(entry -> group.contains(entry.getKey()))
-                .collect(toMap(entry -> entry.getKey(),
-                        entry -> entry.getValue()));
+    private List<Room> getRooms() {
+        long version = service.version();
+        Rooms current = rooms;
+        if (current.version == version) {
+            return current.list;
+        }
+
+        Map<GameField, List<PlayerGame>> byField = new LinkedHashMap<>();
+        for (PlayerGame playerGame : service) {
+            byField.computeIfAbsent(playerGame.getField(), key -> new LinkedList<>())
+                    .add(playerGame);
+        }
+
+        List<Room> list = byField.values().stream()
+                .map(members -> new Room(
+                        members.get(0).getGameType(),
+                        Collections.unmodifiableList(new ArrayList<>(members)),
+                        Collections.unmodifiableList(members.stream()
+                                .map(pg -> pg.getPlayer().getName())
+                                .collect(toList()))))
+                .collect(toList());
+
+        rooms = new Rooms(version, list);
+        return list;
     }
 
-    private Map<String, HeroData> getCoordinates() {
-        return service.all().stream()
-                .collect(toMap(pg -> pg.getPlayer().getName(),
-                        pg -> pg.getGame().getHero()));
+    /**
+     * Один неизменяемый GameData на комнату, общий для всех ее участников -
+     * так каждый тик стоит O(n), а не O(n^2) на фильтрацию по группам.
+     */
+    public Map<String, GameData> getGamesDataMap() {
+        Map<GameType, GuiPlotColorDecoder> decoders = getDecoders();
+
+        Map<String, GameData> result = new HashMap<>();
+        for (Room room : getRooms()) {
+            Map<String, Object> scores = new HashMap<>();
+            Map<String, HeroData> coordinates = new HashMap<>();
+            Map<String, String> readableNames = new HashMap<>();
+            for (PlayerGame playerGame : room.members) {
+                Player player = playerGame.getPlayer();
+                String name = player.getName();
+                scores.put(name, player.getScore());
+                coordinates.put(name, playerGame.getGame().getHero());
+                readableNames.put(name, player.getNotNullReadableName());
+            }
+
+            GameData data = new GameData(
+                    room.gameType.getBoardSize().getValue(),
+                    decoders.get(room.gameType),
+                    scores,
+                    room.group,
+                    coordinates,
+                    readableNames);
+
+            room.group.forEach(name -> result.putIfAbsent(name, data));
+        }
+        return result;
+    }
+
+    private Map<GameType, GuiPlotColorDecoder> getDecoders() {
+        List<GameType> types = service.getGameTypes();
+        decoders.keySet().retainAll(types);
+        types.forEach(type -> decoders.computeIfAbsent(type,
+                key -> new GuiPlotColorDecoder(key.getPlots())));
+        return decoders;
     }
 
     public Map<String, List<String>> getGroupsMap() {
@@ -95,12 +146,8 @@ public class PlayerGamesView {
     }
 
     public List<List<String>> getGroups() {
-        return service.all().stream()
-                    .collect(groupingBy(PlayerGame::getField))
-                    .values().stream()
-                    .map(group -> group.stream()
-                            .map(pg -> pg.getPlayer().getName())
-                            .collect(toList()))
+        return getRooms().stream()
+                    .map(room -> room.group)
                     .collect(toList());
     }
 
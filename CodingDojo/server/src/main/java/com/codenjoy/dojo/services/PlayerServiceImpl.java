@@ -32,10 +32,12 @@ import com.codenjoy.dojo.services.controller.Controller;
 import com.codenjoy.dojo.services.dao.ActionLogger;
 import com.codenjoy.dojo.services.dao.Registration;
 import com.codenjoy.dojo.services.hash.Hash;
+import com.codenjoy.dojo.services.metrics.TickMetrics;
 import com.codenjoy.dojo.services.nullobj.NullGameType;
 import com.codenjoy.dojo.services.nullobj.NullPlayer;
 import com.codenjoy.dojo.services.nullobj.NullPlayerGame;
 import com.codenjoy.dojo.services.playerdata.PlayerData;
+import com.codenjoy.dojo.services.printer.FieldCells;
 import com.codenjoy.dojo.transport.screen.ScreenData;
 import com.codenjoy.dojo.transport.screen.ScreenRecipient;
 import lombok.extern.slf4j.Slf4j;
@@ -49,6 +51,7 @@ import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Supplier;
@@ -56,12 +59,19 @@ import java.util.function.Supplier;
 @Component("playerService")
 @Slf4j
 public class PlayerServiceImpl implements PlayerService {
-    
+
+    // глобальный lock только для реестра игроков (регистрация, удаление, перезагрузка),
+    // все что происходит внутри игры блокирует лишь ее поле - см. FieldLocks
     private ReadWriteLock lock = new ReentrantReadWriteLock(true);
-    private Map<Player, String> cacheBoards = new HashMap<>();
+    private Map<Player, String> cacheBoards = new ConcurrentHashMap<>();
+
+    // последний кадр каждого игрока - комнаты, которые в этот тик
+    // не тикались, попадают на экран с ним, а не пропадают
+    private Map<Player, PlayerData> cacheScreens = new ConcurrentHashMap<>();
 
     @Autowired protected PlayerGames playerGames;
     @Autowired private PlayerGamesView playerGamesView;
+    @Autowired private TickMetrics metrics;
 
     @Autowired
     @Qualifier("playerController")
@@ -82,9 +92,17 @@ public class PlayerServiceImpl implements PlayerService {
     @Value("${game.ai}")
     protected boolean isAiNeeded;
 
+    /**
+     * @param shared если true - раскладка элементов поля строится
+     *               один раз на поле, а не для каждого игрока отдельно
+     */
+    @Value("${game.render.shared:false}")
+    public void setSharedRendering(boolean shared) {
+        FieldCells.shared(shared);
+    }
+
     @PostConstruct
     public void init() {
-        playerGames.init(lock);
         playerGames.onAdd(playerGame -> {
             Player player = playerGame.getPlayer();
             Joystick joystick = playerGame.getJoystick();
@@ -95,6 +113,9 @@ public class PlayerServiceImpl implements PlayerService {
             Player player = playerGame.getPlayer();
             playerController.unregisterPlayerTransport(player);
             screenController.unregisterPlayerTransport(player);
+            cacheBoards.remove(player);
+            cacheScreens.remove(player);
+            actionLogger.remove(player);
         });
     }
 
@@ -284,44 +305,78 @@ public class PlayerServiceImpl implements PlayerService {
 
     @Override
     public void tick() {
-        lock.writeLock().lock();
+        long start = TickMetrics.now();
         try {
-            long time = 0;
             log.debug("==================================================================================");
             log.debug("PlayerService.tick() starts");
-            time = System.currentTimeMillis();
+            long time = start;
+
+            // под глобальным lock только то, что меняет реестр игроков,
+            // а дальше работаем со снимком - каждое поле под своим lock
+            List<PlayerGame> games;
+            List<PlayerGame> due;
+            Tickable fields;
+            lock.writeLock().lock();
+            try {
+                autoSaver.tick();
+                time = metrics.done(TickMetrics.AUTO_SAVER, time);
+
+                games = playerGames.all();
+                fields = playerGames.prepareTick();
+                due = playerGames.due();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            // комнаты, которые в этот раз не тикались (см. TickRates),
+            // не логируем, не рисуем и не опрашиваем - у них ничего не поменялось,
+            // а на экран они идут с прошлым кадром
+
+            // борды с прошлого тика комнаты - ровно то, на что игроки отвечали
+            actionLogger.log(due, cacheBoards);
+            time = metrics.done(TickMetrics.ACTION_LOGGER, time);
+
+            fields.tick();
+            time = metrics.done(TickMetrics.PLAYER_GAMES, time);
 
-            actionLogger.log(playerGames);
-            autoSaver.tick();
+            sendScreenUpdates(games, due);
+            time = TickMetrics.now();
 
-            playerGames.tick();
-            sendScreenUpdates();
-            requestControls();
+            requestControls(due);
+            time = metrics.done(TickMetrics.CONTROLS, time);
 
             if (log.isDebugEnabled()) {
-                time = System.currentTimeMillis() - time;
                 log.debug("PlayerService.tick() for all {} games is {} ms",
-                        playerGames.size(), time);
+                        games.size(), (time - start) / 1_000_000);
             }
 
-            if (playerGames.isEmpty()) {
+            if (games.isEmpty()) {
                 return;
             }
 
-            semifinal.tick();
+            lock.writeLock().lock();
+            try {
+                semifinal.tick();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            metrics.done(TickMetrics.SEMIFINAL, time);
 
         } catch (Error e) {
             e.printStackTrace();
             log.error("PlayerService.tick() throws", e);
         } finally {
-            lock.writeLock().unlock();
+            metrics.done(TickMetrics.TOTAL, start);
         }
     }
 
-    private void requestControls() {
+    private void requestControls(List<PlayerGame> games) {
         int requested = 0;
 
-        for (PlayerGame playerGame : playerGames) {
+        for (PlayerGame playerGame : games) {
+            if (playerGame.isRemoved()) {
+                continue;
+            }
             Player player = playerGame.getPlayer();
             try {
                 String board = cacheBoards.get(player);
@@ -337,17 +392,52 @@ public class PlayerServiceImpl implements PlayerService {
         log.debug("tick().requestControls() {} players", requested);
     }
 
-    private void sendScreenUpdates() {
-        Map<ScreenRecipient, ScreenData> map = buildScreenData();
+    private void sendScreenUpdates(List<PlayerGame> games, List<PlayerGame> due) {
+        // ни одна комната не тикалась - кадр был бы тем же самым
+        if (due.isEmpty()) {
+            return;
+        }
+
+        long time = TickMetrics.now();
+        buildScreenData(due);
+        Map<ScreenRecipient, ScreenData> map = screens(games);
+        time = metrics.done(TickMetrics.RENDER, time);
+
         sendScreenForWebSockets(map);
+        metrics.done(TickMetrics.SCREEN, time);
     }
 
-    private Map<ScreenRecipient, ScreenData> buildScreenData() {
+    private Map<ScreenRecipient, ScreenData> screens(List<PlayerGame> games) {
         Map<ScreenRecipient, ScreenData> map = new HashMap<>();
-        cacheBoards.clear();
+        for (PlayerGame playerGame : games) {
+            if (playerGame.isRemoved()) {
+                continue;
+            }
+            Player player = playerGame.getPlayer();
+            PlayerData data = cacheScreens.get(player);
+            if (data != null) {
+                map.put(player, data);
+            }
+        }
+        return map;
+    }
+
+    // борды и кадры остальных комнат остаются с их прошлого тика, удаленных чистит onRemove
+    private void buildScreenData(List<PlayerGame> games) {
+
+        // очки и герои уже после тика полей, а составы комнат - из реестра
+        Map<String, GameData> gameDataMap;
+        lock.readLock().lock();
+        try {
+            gameDataMap = playerGamesView.getGamesDataMap();
+        } finally {
+            lock.readLock().unlock();
+        }
 
-        Map<String, GameData> gameDataMap = playerGamesView.getGamesDataMap();
-        for (PlayerGame playerGame : playerGames) {
+        for (PlayerGame playerGame : games) {
+            if (playerGame.isRemoved()) {
+                continue;
+            }
             Game game = playerGame.getGame();
             Player player = playerGame.getPlayer();
             try {
@@ -355,14 +445,16 @@ public class PlayerServiceImpl implements PlayerService {
                 GameData gameData = gameDataMap.get(player.getName());
 
                 // TODO вот например для бомбера всем отдаются одни и те же борды, отличие только в паре спрайтов
+                long time = TickMetrics.now();
                 Object board = game.getBoardAsString(); // TODO дольше всего строчка выполняется, прооптимизировать!
+                metrics.record(TickMetrics.BOARD, gameType, playerGame.getRoomName(),
+                        TickMetrics.now() - time);
 
-                GuiPlotColorDecoder decoder = gameData.getDecoder();
-                cacheBoards.put(player, decoder.encodeForClient(board));
-                Object encoded = decoder.encodeForBrowser(board);
+                GuiPlotColorDecoder.Encoded encoded = gameData.getDecoder().encode(board);
+                cacheBoards.put(player, encoded.getClient());
 
-                map.put(player, new PlayerData(gameData.getBoardSize(),
-                        encoded,
+                cacheScreens.put(player, new PlayerData(gameData.getBoardSize(),
+                        encoded.getBrowser(),
                         gameType,
                         player.getScore(),
                         player.getMessage(),
@@ -374,8 +466,6 @@ public class PlayerServiceImpl implements PlayerService {
                 e.printStackTrace();
             }
         }
-
-        return map;
     }
 
     private void sendScreenForWebSockets(Map<ScreenRecipient, ScreenData> map) {
@@ -473,7 +563,7 @@ public class PlayerServiceImpl implements PlayerService {
 
         boolean updateId = !playerGame.getPlayer().getName().equals(input.getName());
         if (updateId) {
-            updated.setName(input.getName());
+            playerGames.rename(playerGame, input.getName());
             registration.updateId(input.getReadableName(), input.getName());
         }
 
@@ -553,11 +643,12 @@ public class PlayerServiceImpl implements PlayerService {
 
     @Override
     public Joystick getJoystick(String name) {
-        lock.writeLock().lock();
+        lock.readLock().lock();
         try {
+            // сам джойстик блокирует только поле игрока
             return playerGames.get(name).getGame().getJoystick();
         } finally {
-            lock.writeLock().unlock();
+            lock.readLock().unlock();
         }
     }
 
@@ -0,0 +1,84 @@
+package com.codenjoy.dojo.services;
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2018 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Комнаты (или целые игры) могут тикаться реже основного таймера:
+ * every = 3 значит один тик на каждые 3 тика таймера.
+ * Сначала ищем по имени комнаты, потом по имени игры.
+ */
+@Component
+public class TickRates {
+
+    private Map<String, Integer> every = new ConcurrentHashMap<>();
+
+    /**
+     * @param config строка вида "snakebattle:2,room1:5"
+     */
+    @Value("${game.tick.every:}")
+    public void configure(String config) {
+        every.clear();
+        if (StringUtils.isBlank(config)) {
+            return;
+        }
+        for (String pair : config.split(",")) {
+            String[] parts = pair.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected 'name:every' but was: '" + pair + "'");
+            }
+            setEvery(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+    }
+
+    public void setEvery(String name, int value) {
+        if (value <= 1) {
+            every.remove(name);
+        } else {
+            every.put(name, value);
+        }
+    }
+
+    public int getEvery(String roomName, String gameName) {
+        Integer result = every.get(roomName);
+        if (result == null) {
+            result = every.get(gameName);
+        }
+        return (result == null) ? 1 : result;
+    }
+
+    public boolean isDue(PlayerGame playerGame, long tick) {
+        if (every.isEmpty()) {
+            return true;
+        }
+        int value = getEvery(playerGame.getRoomName(),
+                playerGame.getGameType().name());
+        return tick % value == 0;
+    }
+}
@@ -0,0 +1,91 @@
+package com.codenjoy.dojo.services;
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2018 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+/**
+ * Статистика тиков таймера: сколько длились и сколько раз не уложились в период.
+ */
+public class TickStats {
+
+    private long count;
+    private long last;
+    private long max;
+    private long total;
+    private long overruns;
+    private long skipped;
+
+    /**
+     * @param duration сколько длился тик, мс
+     * @param period сколько он должен был длиться максимум, мс
+     */
+    public synchronized void tick(long duration, long period) {
+        count++;
+        last = duration;
+        max = Math.max(max, duration);
+        total += duration;
+        if (duration > period) {
+            overruns++;
+        }
+    }
+
+    /**
+     * @param slots сколько тиков по расписанию пропущено из-за долгого тика
+     */
+    public synchronized void skipped(long slots) {
+        skipped += slots;
+    }
+
+    public synchronized void clear() {
+        count = last = max = total = overruns = skipped = 0;
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized long getLast() {
+        return last;
+    }
+
+    public synchronized long getMax() {
+        return max;
+    }
+
+    public synchronized long getAverage() {
+        return (count == 0) ? 0 : total / count;
+    }
+
+    public synchronized long getOverruns() {
+        return overruns;
+    }
+
+    public synchronized long getSkipped() {
+        return skipped;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("TickStats[count:%s, last:%s, max:%s, average:%s, overruns:%s, skipped:%s]",
+                count, last, max, getAverage(), overruns, skipped);
+    }
+}
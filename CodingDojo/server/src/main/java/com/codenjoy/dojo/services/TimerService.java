@@ -22,9 +22,10 @@ package com.codenjoy.dojo.services;
  * #L%
  */
 
-
+import com.codenjoy.dojo.services.controller.PlayerController;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.concurrent.ScheduledFuture;
@@ -35,24 +36,136 @@ import java.util.concurrent.TimeUnit;
 @Slf4j
 public class TimerService implements Runnable {
 
+    public enum Mode {
+
+        // тики по расписанию каждые period мс, если тик затянулся -
+        // пропущенные слоты не догоняем, а ждем следующий
+        FIXED_RATE,
+
+        // пауза в period мс после окончания тика
+        FIXED_DELAY,
+
+        // тик как только все клиенты ответили,
+        // но не чаще чем раз в minPeriod и не реже чем раз в period мс
+        ALL_ANSWERED
+    }
+
+    // как часто проверяем, ответили ли клиенты в режиме ALL_ANSWERED
+    private static final long POLL = 5;
+
+    private static final long DEFAULT_PERIOD = 1000;
+
     private ScheduledThreadPoolExecutor executor;
     private ScheduledFuture<?> future;
 
     @Autowired
     private PlayerService playerService;
 
+    @Autowired
+    private PlayerController playerController;
+
     private volatile boolean paused;
     private volatile long period;
+    private volatile long minPeriod = 100;
+    private volatile Mode mode = Mode.FIXED_RATE;
+    private TickStats stats = new TickStats();
+
+    // каждая перепланировка начинает новую цепочку, старые затухают сами
+    private long generation;
+
+    // начало прошлого тика и плановое время следующего (для FIXED_RATE)
+    private volatile long last;
+    private volatile long next;
+
+    @Value("${game.tick.mode:FIXED_RATE}")
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    @Value("${game.tick.min-period:100}")
+    public void setMinPeriod(long minPeriod) {
+        this.minPeriod = minPeriod;
+    }
 
     public void start() {
-        period = 1000;
+        period = DEFAULT_PERIOD;
         paused = true;
         executor = new ScheduledThreadPoolExecutor(1);
         schedule();
     }
 
-    private void schedule() {
-        future = executor.scheduleAtFixedRate(this, period, period, TimeUnit.MILLISECONDS);
+    private synchronized void schedule() {
+        generation++;
+        last = now();
+        next = last + period;
+        schedule(generation, period);
+    }
+
+    private synchronized void schedule(long generation, long delay) {
+        if (generation != this.generation) {
+            return;
+        }
+        future = executor.schedule(() -> step(generation),
+                delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void step(long generation) {
+        long start = now();
+        if (mode == Mode.ALL_ANSWERED && !isReady(start)) {
+            schedule(generation, POLL);
+            return;
+        }
+
+        run();
+
+        long end = now();
+        if (!paused) {
+            stats.tick(end - start, period);
+        }
+        last = start;
+        schedule(generation, delay(start, end));
+    }
+
+    private boolean isReady(long now) {
+        long passed = now - last;
+        if (passed >= period) {
+            return true;
+        }
+        return passed >= minPeriod
+                && playerController.isAllAnswered();
+    }
+
+    /**
+     * @return через сколько мс после окончания тика проверять/запускать следующий
+     */
+    long delay(long start, long end) {
+        // цепочка тиков держится только на этом значении - с нулем она
+        // либо упадет на делении, либо уйдет в холостой цикл
+        long period = this.period;
+        if (period <= 0) {
+            period = DEFAULT_PERIOD;
+        }
+
+        switch (mode) {
+            case FIXED_DELAY:
+                return period;
+
+            case ALL_ANSWERED:
+                return Math.max(0, Math.min(minPeriod, period) - (end - start));
+
+            default:
+                next += period;
+                if (next <= end) {
+                    long missed = (end - next) / period + 1;
+                    stats.skipped(missed);
+                    next += missed * period;
+                }
+                return next - end;
+        }
+    }
+
+    protected long now() {
+        return System.currentTimeMillis();
     }
 
     @Override
@@ -81,11 +194,26 @@ public class TimerService implements Runnable {
         return this.paused;
     }
 
-    public void changePeriod(long period) {
+    public synchronized void changePeriod(long period) {
+        if (period <= 0) {
+            log.warn("Timer period should be positive, but was: {}. " +
+                    "Keep current: {}", period, this.period);
+            return;
+        }
+
         this.period = period;
-        if (period > 0){
-            if (future != null){
-                future.cancel(true);
+        if (future != null) {
+            future.cancel(false);
+        }
+
+        schedule();
+    }
+
+    public synchronized void changeMode(Mode mode) {
+        this.mode = mode;
+        if (executor != null && period > 0) {
+            if (future != null) {
+                future.cancel(false);
             }
 
             schedule();
@@ -95,4 +223,12 @@ public class TimerService implements Runnable {
     public long getPeriod() {
         return period;
     }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public TickStats getStats() {
+        return stats;
+    }
 }
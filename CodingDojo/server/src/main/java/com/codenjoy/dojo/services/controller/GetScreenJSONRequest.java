@@ -25,12 +25,15 @@ package com.codenjoy.dojo.services.controller;
 import com.codenjoy.dojo.services.Player;
 import org.json.JSONObject;
 
-import java.util.LinkedList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
 
 class GetScreenJSONRequest {
 
     private JSONObject request;
+    private Set<String> players;
 
     public GetScreenJSONRequest(String message) {
         request = new JSONObject(message);
@@ -40,21 +43,41 @@ class GetScreenJSONRequest {
         return request.getString("name").equals("getScreen");
     }
 
+    /**
+     * Клиент умеет собирать кадр из дельт.
+     * Старые браузеры этого не присылают и получают полные кадры.
+     */
+    public boolean isDelta() {
+        return request.optBoolean("delta", false);
+    }
+
     public boolean isAllPlayers() {
         return request.getBoolean("allPlayersScreen");
     }
 
-    private List<String> getPlayers() {
-        return new LinkedList<String>() {{
-            request.getJSONArray("players")
-                    .forEach(it -> add((String) it));
-        }};
+    private Set<String> getPlayers() {
+        if (players == null) {
+            players = new TreeSet<String>() {{
+                request.getJSONArray("players")
+                        .forEach(it -> add((String) it));
+            }};
+        }
+        return players;
     }
 
     public boolean isFor(Player player) {
         return getPlayers().contains(player.getName());
     }
 
+    /**
+     * Запросы с одинаковым ключом видят одно и то же,
+     * а потому им можно отправить одну и ту же строку.
+     */
+    public Object key() {
+        return Arrays.asList(getGameName(), isAllPlayers(),
+                isAllPlayers() ? Collections.emptySet() : getPlayers());
+    }
+
     public String getGameName() {
         return request.getString("gameName");
     }
@@ -52,6 +52,13 @@ public class PlayerController implements Controller<String, Joystick> {
         return transport.sendState(player.getName(), new BoardGameState(board));
     }
 
+    /**
+     * @return все ли клиенты ответили командой на последнюю борду
+     */
+    public boolean isAllAnswered() {
+        return transport.isAllAnswered();
+    }
+
     @Override
     public void registerPlayerTransport(Player player, Joystick joystick) {
         transport.registerPlayerEndpoint(player.getName(),
@@ -60,4 +60,9 @@ public class PlayerResponseHandler implements ResponseHandler {
     public void onConnect(PlayerSocket socket, Session session) {
         log.debug("Connected: player: {}, session: {}", player.getName(), session);
     }
+
+    @Override
+    public void onLost(PlayerSocket socket) {
+        // каждая борда отправляется целиком - терять нечего
+    }
 }
@@ -28,6 +28,7 @@ import com.codenjoy.dojo.transport.screen.ScreenData;
 import com.codenjoy.dojo.transport.screen.ScreenRecipient;
 import com.codenjoy.dojo.transport.ws.PlayerTransport;
 import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
@@ -38,12 +39,18 @@ import java.util.Map;
 public class ScreenController implements Controller<Map<ScreenRecipient, ScreenData>, Void> {
 
     private final PlayerTransport transport;
+    private int keyframePeriod = ScreenResponseHandler.KEYFRAME_PERIOD;
 
     // autowiring by name
     public ScreenController(PlayerTransport screenPlayerTransport) {
         this.transport = screenPlayerTransport;
     }
 
+    @Value("${mvc.screen-keyframe-period:50}")
+    public void setKeyframePeriod(int keyframePeriod) {
+        this.keyframePeriod = keyframePeriod;
+    }
+
     @PostConstruct
     public void init() {
         registerPlayerTransport(Player.ANONYMOUS, null);
@@ -63,7 +70,7 @@ public class ScreenController implements Controller<Map<ScreenRecipient, ScreenD
     @Override
     public void registerPlayerTransport(Player player, Void nothing) {
         transport.registerPlayerEndpoint(player.getName(),
-                new ScreenResponseHandler(transport, player));
+                new ScreenResponseHandler(transport, player, keyframePeriod));
     }
 
     @Override
@@ -0,0 +1,178 @@
+package com.codenjoy.dojo.services.controller;
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2018 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.Objects;
+
+/**
+ * Помнит последний отправленный сокету кадр и вместо полного
+ * отдает только изменения: клетки борды, очки, данные героев.
+ * Раз в keyframePeriod кадров отправляется полный кадр для ресинхронизации.
+ *
+ * Кадр: {'frame':'key', 'data':{...как раньше...}}
+ * Дельта: {'frame':'delta', 'data':{'player':{'board':[[from,'chars'],...], ...}}, 'removed':[...]}
+ * Изменившиеся поля кроме строковой борды приходят целиком.
+ */
+class ScreenDeltaEncoder {
+
+    public static final String FRAME = "frame";
+    public static final String KEYFRAME = "key";
+    public static final String DELTA = "delta";
+    public static final String DATA = "data";
+    public static final String REMOVED = "removed";
+    public static final String BOARD = "board";
+
+    // столько одинаковых клеток подряд можно включить в патч, чтобы не дробить его
+    private static final int GAP = 8;
+
+    private int keyframePeriod;
+    private int count;
+    private JSONObject last;
+
+    public ScreenDeltaEncoder(int keyframePeriod) {
+        this.keyframePeriod = keyframePeriod;
+    }
+
+    public synchronized JSONObject encode(JSONObject current) {
+        JSONObject result = new JSONObject();
+        if (isKeyframe()) {
+            result.put(FRAME, KEYFRAME);
+            result.put(DATA, current);
+        } else {
+            result.put(FRAME, DELTA);
+            result.put(DATA, diffPlayers(last, current));
+            JSONArray removed = removed(last, current);
+            if (removed.length() > 0) {
+                result.put(REMOVED, removed);
+            }
+        }
+        last = current;
+        count++;
+        return result;
+    }
+
+    /**
+     * Клиент мог не получить последний кадр - следующий будет полным.
+     */
+    public synchronized void reset() {
+        last = null;
+    }
+
+    private boolean isKeyframe() {
+        return last == null
+                || (keyframePeriod > 0 && count % keyframePeriod == 0);
+    }
+
+    private JSONObject diffPlayers(JSONObject was, JSONObject now) {
+        JSONObject result = new JSONObject();
+        for (String name : now.keySet()) {
+            JSONObject before = was.optJSONObject(name);
+            JSONObject after = now.getJSONObject(name);
+            JSONObject diff = (before == null) ? after : diff(before, after);
+            if (diff.length() > 0) {
+                result.put(name, diff);
+            }
+        }
+        return result;
+    }
+
+    private JSONArray removed(JSONObject was, JSONObject now) {
+        JSONArray result = new JSONArray();
+        for (String name : was.keySet()) {
+            if (!now.has(name)) {
+                result.put(name);
+            }
+        }
+        return result;
+    }
+
+    private JSONObject diff(JSONObject was, JSONObject now) {
+        JSONObject result = new JSONObject();
+        for (String key : now.keySet()) {
+            Object before = was.opt(key);
+            Object after = now.get(key);
+            if (same(before, after)) {
+                continue;
+            }
+            if (BOARD.equals(key)
+                    && before instanceof String
+                    && after instanceof String)
+            {
+                result.put(key, diffBoard((String) before, (String) after));
+            } else {
+                result.put(key, after);
+            }
+        }
+        return result;
+    }
+
+    private boolean same(Object before, Object after) {
+        if (before instanceof JSONObject) {
+            return ((JSONObject) before).similar(after);
+        }
+        if (before instanceof JSONArray) {
+            return ((JSONArray) before).similar(after);
+        }
+        return Objects.equals(before, after);
+    }
+
+    /**
+     * Патч борды - массив [from, 'chars'], либо новая борда целиком,
+     * если поменялся размер или патч получается не меньше самой борды.
+     */
+    static Object diffBoard(String before, String after) {
+        int length = after.length();
+        if (before.length() != length) {
+            return after;
+        }
+
+        JSONArray result = new JSONArray();
+        int size = 0;
+        int index = 0;
+        while (index < length) {
+            if (before.charAt(index) == after.charAt(index)) {
+                index++;
+                continue;
+            }
+            int from = index;
+            int to = index + 1;
+            int same = 0;
+            for (index = to; index < length && same <= GAP; index++) {
+                if (before.charAt(index) == after.charAt(index)) {
+                    same++;
+                } else {
+                    same = 0;
+                    to = index + 1;
+                }
+            }
+            index = to;
+            result.put(new JSONArray().put(from).put(after.substring(from, to)));
+            size += to - from + GAP;
+        }
+
+        return (size >= length) ? after : result;
+    }
+}
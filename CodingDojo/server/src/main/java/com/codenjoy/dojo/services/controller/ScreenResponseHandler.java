@@ -25,10 +25,10 @@ package com.codenjoy.dojo.services.controller;
 
 import com.codenjoy.dojo.services.Player;
 import com.codenjoy.dojo.services.playerdata.PlayerData;
+import com.codenjoy.dojo.transport.ws.KeyedFilter;
 import com.codenjoy.dojo.transport.ws.PlayerSocket;
 import com.codenjoy.dojo.transport.ws.PlayerTransport;
 import com.codenjoy.dojo.transport.ws.ResponseHandler;
-import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.jetty.websocket.api.Session;
 import org.json.JSONObject;
@@ -43,11 +43,26 @@ import java.util.stream.Stream;
 import static java.util.stream.Collectors.toMap;
 
 @Slf4j
-@AllArgsConstructor
 public class ScreenResponseHandler implements ResponseHandler {
 
+    public static final int KEYFRAME_PERIOD = 50;
+
     private PlayerTransport transport;
     private Player player;
+    private int keyframePeriod;
+
+    // состояние дельта-кодирования у каждого сокета свое
+    private Map<PlayerSocket, ScreenDeltaEncoder> encoders = new ConcurrentHashMap<>();
+
+    public ScreenResponseHandler(PlayerTransport transport, Player player) {
+        this(transport, player, KEYFRAME_PERIOD);
+    }
+
+    public ScreenResponseHandler(PlayerTransport transport, Player player, int keyframePeriod) {
+        this.transport = transport;
+        this.player = player;
+        this.keyframePeriod = keyframePeriod;
+    }
 
     @Override
     public void onResponse(PlayerSocket socket, String message) {
@@ -56,8 +71,22 @@ public class ScreenResponseHandler implements ResponseHandler {
             return;
         }
 
-        transport.setFilterFor(socket,
-                data -> new JSONObject(filter((Map<Player, PlayerData>) data, request)));
+        if (!request.isDelta()) {
+            transport.setFilterFor(socket, KeyedFilter.of(request.key(),
+                    data -> new JSONObject(filter((Map<Player, PlayerData>) data, request))));
+            return;
+        }
+
+        // клиент присылает запрос перед каждым кадром, а потому кодировщик переиспользуем
+        ScreenDeltaEncoder encoder = encoders.computeIfAbsent(socket,
+                key -> new ScreenDeltaEncoder(keyframePeriod));
+        transport.setFilterFor(socket, data -> {
+            // этот кадр заменит ожидающий отправки, а потому должен быть полным
+            if (socket.hasPending()) {
+                encoder.reset();
+            }
+            return encoder.encode(new JSONObject(filter((Map<Player, PlayerData>) data, request)));
+        });
     }
 
     private Map<Player, PlayerData> filter(Map<Player, PlayerData> data,
@@ -81,6 +110,7 @@ public class ScreenResponseHandler implements ResponseHandler {
 
     @Override
     public void onClose(PlayerSocket socket, int statusCode, String reason) {
+        encoders.remove(socket);
         log.debug("Websocket closed: {} from player: {} status code: {} reason: {}", player.getName(), statusCode, reason);
     }
 
@@ -93,4 +123,13 @@ public class ScreenResponseHandler implements ResponseHandler {
     public void onConnect(PlayerSocket socket, Session session) {
         log.debug("Connected: player: {}, session: {}", player.getName(), session);
     }
+
+    @Override
+    public void onLost(PlayerSocket socket) {
+        // дельты строятся от кадра, которого у клиента нет - следующий кадр полный
+        ScreenDeltaEncoder encoder = encoders.get(socket);
+        if (encoder != null) {
+            encoder.reset();
+        }
+    }
 }
@@ -29,72 +29,209 @@ import com.codenjoy.dojo.services.jdbc.CrudConnectionThreadPool;
 import com.codenjoy.dojo.services.jdbc.JDBCTimeUtils;
 import org.springframework.beans.factory.annotation.Value;
 
-import java.sql.Date;
+import javax.annotation.PostConstruct;
+
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.stream.Collectors.toList;
 
+/**
+ * Пишет борды всех игроков в player_replays (формат см. {@link ReplayCodec}).
+ * Борды копятся в ограниченном кольцевом буфере и сохраняются пачками
+ * в отдельном потоке, одной транзакцией. Если база не успевает и буфер
+ * заполняется, пишется только каждый 2й, а потом 4й тик, а когда места
+ * нет совсем - тик пропускается целиком.
+ */
 public class ActionLogger extends Suspendable {
 
+    public static final int DEFAULT_BUFFER = 100_000;
+    public static final int DEFAULT_BATCH = 1000;
+    public static final int DEFAULT_KEYFRAME = 100;
+    public static final int MIGRATE_CHUNK = 1000;
+
+    private static final String INSERT = "INSERT INTO player_replays " +
+            "(player_name, tick, game_type, score, command, keyframe, board) " +
+            "VALUES (?,?,?,?,?,?,?);";
+
     @Value("${board.save.ticks}")
     private int ticks;
 
+    @Value("${board.save.batch}")
+    private int batch;
+
     private ExecutorService executor = Executors.newSingleThreadExecutor();
-    private Queue<BoardLog> cache = new ConcurrentLinkedQueue<>();
+    private AtomicBoolean saving = new AtomicBoolean();
+    private BlockingQueue<BoardLog> cache;
     private int count;
+    private long skipped;
+    private long lastTime;
+    private ReplayCodec codec;
+
+    // ушедшие игроки - codec забывает их в потоке сохранения,
+    // уже после того, как записаны их последние борды из буфера
+    private Set<String> removed = ConcurrentHashMap.newKeySet();
 
     private CrudConnectionThreadPool pool;
 
     public ActionLogger(ConnectionThreadPoolFactory factory) {
-        pool = factory.create("CREATE TABLE IF NOT EXISTS player_boards (" +
-                    "time varchar(255), " +
+        pool = factory.create("CREATE TABLE IF NOT EXISTS player_replays (" +
                     "player_name varchar(255), " +
+                    "tick bigint, " +
                     "game_type varchar(255), " +
                     "score varchar(255), " +
                     "command varchar(255), " +
-                    "board varchar(10000));");
+                    "keyframe int, " +
+                    "board text);",
+                "CREATE INDEX IF NOT EXISTS player_replays_tick " +
+                    "ON player_replays (player_name, tick);");
         active = false;
         count = 0;
+        batch = DEFAULT_BATCH;
+        codec = new ReplayCodec(DEFAULT_KEYFRAME, false);
+        setBuffer(DEFAULT_BUFFER);
     }
 
     public void setTicks(int ticks) {
         this.ticks = ticks;
     }
 
+    @Value("${board.save.buffer}")
+    public void setBuffer(int size) {
+        cache = new ArrayBlockingQueue<>(size);
+    }
+
+    public void setBatch(int batch) {
+        this.batch = batch;
+    }
+
+    @Value("${board.save.compress}")
+    public void setCompress(boolean compress) {
+        codec.setCompress(compress);
+    }
+
+    /**
+     * @param keyframe раз во сколько записей игрока писать полную борду
+     */
+    @Value("${board.save.keyframe}")
+    public void setKeyframe(int keyframe) {
+        codec.setKeyframes(keyframe);
+    }
+
     void removeDatabase() {
         pool.removeDatabase();
     }
 
-    public void saveToDB() {
+    /**
+     * Вызывается Spring после создания бина - в конструкторе в базу не ходим.
+     */
+    @PostConstruct
+    public void init() {
+        migrate();
+    }
+
+    /**
+     * Раньше борды писались целиком в player_boards - переносим их
+     * один раз в player_replays ключевыми кадрами, чтобы старые
+     * реплеи остались доступны, а старую таблицу удаляем.
+     * Время там строкой, а потому переводим его тут, а не в SQL.
+     * Перенос и удаление - одна транзакция: если прервались,
+     * при следующем старте начнем с начала без дублей.
+     */
+    private void migrate() {
         pool.run(connection -> {
-            String sql = "INSERT INTO player_boards " +
-                    "(time, player_name, game_type, score, command, board) " +
-                    "VALUES (?,?,?,?,?,?);";
+            try {
+                if (!exists(connection, "player_boards")) {
+                    return null;
+                }
+                boolean autoCommit = connection.getAutoCommit();
+                connection.setAutoCommit(false);
+                try {
+                    copyOldBoards(connection);
+                    try (Statement stmt = connection.createStatement()) {
+                        stmt.execute("DROP TABLE player_boards;");
+                    }
+                    connection.commit();
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(autoCommit);
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException("Error migrating player_boards", e);
+            }
+            return null;
+        });
+    }
 
-            BoardLog data;
-            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-                int size = cache.size();
-                for (int i = 0; i < size; i++) {
-                    data = cache.poll();
-                    if (data == null) {
-                        break;
+    private boolean exists(Connection connection, String table) throws SQLException {
+        try (ResultSet rs = connection.getMetaData().getTables(null, null, table, null)) {
+            return rs.next();
+        }
+    }
+
+    private void copyOldBoards(Connection connection) throws SQLException {
+        try (Statement select = connection.createStatement();
+             PreparedStatement insert = connection.prepareStatement(INSERT))
+        {
+            // одним проходом по таблице, кусками, а не все сразу в память
+            select.setFetchSize(MIGRATE_CHUNK);
+            try (ResultSet rs = select.executeQuery("SELECT * FROM player_boards;")) {
+                int inBatch = 0;
+                while (rs.next()) {
+                    insert.setString(1, rs.getString("player_name"));
+                    insert.setLong(2, JDBCTimeUtils.getTimeLong(rs));
+                    insert.setString(3, rs.getString("game_type"));
+                    insert.setString(4, rs.getString("score"));
+                    insert.setString(5, rs.getString("command"));
+                    insert.setInt(6, 1);
+                    insert.setString(7, rs.getString("board"));
+                    insert.addBatch();
+
+                    if (++inBatch >= MIGRATE_CHUNK) {
+                        insert.executeBatch();
+                        inBatch = 0;
                     }
+                }
+                if (inBatch > 0) {
+                    insert.executeBatch();
+                }
+            }
+        }
+    }
 
-                    stmt.setString(1, JDBCTimeUtils.toString(new Date(data.getTime())));
-                    stmt.setString(2, data.getPlayerName());
-                    stmt.setString(3, data.getGameType());
-                    stmt.setString(4, data.getScore().toString());
-                    stmt.setString(5, data.getCommand());
-                    stmt.setString(6, data.getBoard());
-                    stmt.addBatch();
+    public void saveToDB() {
+        pool.run(connection -> {
+            try {
+                boolean autoCommit = connection.getAutoCommit();
+                connection.setAutoCommit(false);
+                try {
+                    insert(connection, INSERT);
+                    connection.commit();
+                } catch (SQLException e) {
+                    connection.rollback();
+                    // отличия от того, что не записалось, не прочитать
+                    codec.reset();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(autoCommit);
                 }
-                stmt.executeBatch();
             } catch (SQLException e) {
                 throw new RuntimeException("Error saving log", e);
             }
@@ -102,24 +239,134 @@ public class ActionLogger extends Suspendable {
         });
     }
 
+    private void insert(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            // выгребаем до конца, вместе с тем, что добавилось уже во время сохранения
+            int inBatch = 0;
+            BoardLog data;
+            while ((data = cache.poll()) != null) {
+                ReplayCodec.Frame frame = codec.encode(data.getPlayerName(), data.getBoard());
+                stmt.setString(1, data.getPlayerName());
+                stmt.setLong(2, data.getTime());
+                stmt.setString(3, data.getGameType());
+                stmt.setString(4, data.getScore().toString());
+                stmt.setString(5, data.getCommand());
+                stmt.setInt(6, frame.isKeyframe() ? 1 : 0);
+                stmt.setString(7, frame.getData());
+                stmt.addBatch();
+
+                if (++inBatch >= batch) {
+                    stmt.executeBatch();
+                    inBatch = 0;
+                }
+            }
+            if (inBatch > 0) {
+                stmt.executeBatch();
+            }
+        }
+
+        for (String name : removed.toArray(new String[0])) {
+            removed.remove(name);
+            codec.forget(name);
+        }
+    }
+
+    /**
+     * Игрок удален с сервера - его последняя борда в codec больше не нужна.
+     */
+    public void remove(Player player) {
+        removed.add(player.getName());
+    }
+
     public void log(PlayerGames playerGames) {
+        log(playerGames, Collections.emptyMap());
+    }
+
+    /**
+     * @param boards борды, уже отрисованные для игроков на прошлом тике
+     *               (ровно то, на что они отвечали командой) - чтобы
+     *               не рисовать их еще раз; кого нет - тем рисуем
+     */
+    public void log(PlayerGames playerGames, Map<Player, String> boards) {
+        log(playerGames.all(), boards);
+    }
+
+    /**
+     * @param playerGames снимок реестра игроков - логгер не требует глобального lock
+     * @param boards см. {@link #log(PlayerGames, Map)}
+     */
+    public void log(List<PlayerGame> playerGames, Map<Player, String> boards) {
         if (!active || playerGames.size() == 0) return;
 
-        long tick = now();
+        int tick = count++;
+        boolean sampled = sample(tick, playerGames.size());
+        if (sampled) {
+            write(playerGames, boards);
+        } else {
+            skipped += playerGames.size();
+            // иначе команды накопятся до следующего записанного тика
+            playerGames.forEach(PlayerGame::popLastCommand);
+        }
+
+        // сохранение запускаем и на пропущенных тиках - иначе
+        // заполненный буфер так никто и не разгрузит
+        if ((tick % ticks == 0 || !sampled) && saving.compareAndSet(false, true)) {
+            // executor.submit потому что sqlite тормозит при сохранении,
+            // а флаг - чтобы не копить в очереди executor'а лишние сохранения
+            executor.submit(() -> {
+                try {
+                    saveToDB();
+                } finally {
+                    saving.set(false);
+                }
+            });
+        }
+    }
+
+    private void write(List<PlayerGame> playerGames, Map<Player, String> boards) {
+        // время - это индекс тика в реплее, а потому оно растет всегда
+        long time = Math.max(now(), lastTime + 1);
+        lastTime = time;
         for (PlayerGame playerGame : playerGames) {
+            // удаленного уже забыли, снова не запоминаем
+            if (playerGame.isRemoved()) {
+                continue;
+            }
             Player player = playerGame.getPlayer();
-            cache.add(new BoardLog(tick,
+            String board = boards.get(player);
+            if (board == null) {
+                board = playerGame.getGame().getBoardAsString().toString();
+            }
+            BoardLog log = new BoardLog(time,
                     player.getName(),
                     player.getGameName(),
                     player.getScore(),
-                    playerGame.getGame().getBoardAsString().toString(),
-                    playerGame.popLastCommand()));
+                    board,
+                    playerGame.popLastCommand());
+            if (!cache.offer(log)) {
+                skipped++;
+            }
         }
+    }
 
-        if (count++ % ticks == 0) {
-            // executor.submit потому что sqlite тормозит при сохранении
-            executor.submit(() -> saveToDB());
+    private boolean sample(int tick, int players) {
+        int used = cache.size();
+        int free = cache.remainingCapacity();
+        if (free < players) {
+            return false;
         }
+        int capacity = used + free;
+        int every = (used < capacity / 2) ? 1
+                : (used < capacity / 4 * 3) ? 2
+                : 4;
+        return tick % every == 0;
+    }
+
+    /**
+     * @return сколько бордов не записали, потому что база не успевала
+     */
+    public long getSkipped() {
+        return skipped;
     }
 
     protected long now() {
@@ -127,35 +374,102 @@ public class ActionLogger extends Suspendable {
     }
 
     public List<BoardLog> getAll() {
-        return pool.select("SELECT * FROM player_boards;",
-                rs -> getBoardLogs(rs));
+        return decode(pool.select("SELECT * FROM player_replays ORDER BY player_name, tick;",
+                rs -> getFrames(rs)));
     }
 
-    private LinkedList<BoardLog> getBoardLogs(ResultSet rs) throws SQLException {
-        return new LinkedList<BoardLog>(){{
+    private static class Stored {
+        BoardLog log;
+        ReplayCodec.Frame frame;
+    }
+
+    private LinkedList<Stored> getFrames(ResultSet rs) throws SQLException {
+        return new LinkedList<Stored>(){{
                 while (rs.next()) {
-                    add(new BoardLog(rs));
+                    Stored stored = new Stored();
+                    stored.log = new BoardLog(rs);
+                    stored.frame = new ReplayCodec.Frame(rs.getInt("keyframe") != 0,
+                            stored.log.getBoard());
+                    add(stored);
+                }
+            }};
+    }
+
+    /**
+     * Кадры должны идти подряд по каждому игроку, начиная с ключевого.
+     * Отличия, которые не от чего считать, пропускаются.
+     */
+    private List<BoardLog> decode(List<Stored> frames) {
+        List<BoardLog> result = new LinkedList<>();
+        Map<String, String> previous = new HashMap<>();
+        for (Stored stored : frames) {
+            String player = stored.log.getPlayerName();
+            String board = ReplayCodec.decode(previous.get(player), stored.frame);
+            previous.put(player, board);
+            if (board == null) {
+                continue;
+            }
+            stored.log.setBoard(board);
+            result.add(stored.log);
+        }
+        return result;
+    }
+
+    private Long getTick(ResultSet rs) throws SQLException {
+        if (!rs.next()) {
+            return null;
+        }
+        long tick = rs.getLong("tick");
+        return rs.wasNull() ? null : tick;
+    }
+
+    private List<Long> getTicks(ResultSet rs) throws SQLException {
+        return new LinkedList<Long>(){{
+                while (rs.next()) {
+                    add(rs.getLong("tick"));
                 }
             }};
     }
 
-    // TODO test me
     public long getLastTime(String player) {
-        return pool.select("SELECT MAX(time) AS time FROM player_boards WHERE player_name = ?;",
+        Long tick = pool.select("SELECT MAX(tick) AS tick FROM player_replays WHERE player_name = ?;",
                 new Object[]{ player },
-                rs -> (rs.next()) ? JDBCTimeUtils.getTimeLong(rs) : 0);
+                rs -> getTick(rs));
+        return (tick == null) ? 0 : tick;
     }
 
-    // TODO test me
+    /**
+     * @return count + 1 тиков до time (включительно) и count после
+     */
     public List<BoardLog> getBoardLogsFor(String player, long time, int count) {
-        return pool.select(
-                    "SELECT * FROM (SELECT * FROM player_boards WHERE player_name = ? AND time <= ? ORDER BY time ASC LIMIT ?) AS before" +
-                    " UNION " +
-                    "SELECT * FROM (SELECT * FROM player_boards WHERE player_name = ? AND time > ? ORDER BY time ASC LIMIT ?) AS after;",
-                new Object[]{
-                    player, JDBCTimeUtils.toString(new java.util.Date(time)), count + 1,
-                    player, JDBCTimeUtils.toString(new java.util.Date(time)), count
-                },
-                rs -> getBoardLogs(rs));
+        List<Long> before = pool.select(
+                "SELECT tick FROM player_replays WHERE player_name = ? AND tick <= ? " +
+                    "ORDER BY tick DESC LIMIT ?;",
+                new Object[]{ player, time, count + 1 },
+                rs -> getTicks(rs));
+        long from = before.isEmpty() ? time : before.get(before.size() - 1);
+
+        // декодировать начинаем с ключевого кадра
+        Long keyframe = pool.select(
+                "SELECT MAX(tick) AS tick FROM player_replays " +
+                    "WHERE player_name = ? AND keyframe = 1 AND tick <= ?;",
+                new Object[]{ player, from },
+                rs -> getTick(rs));
+        long start = (keyframe == null) ? from : keyframe;
+
+        List<Stored> frames = pool.select(
+                "SELECT * FROM player_replays WHERE player_name = ? AND tick >= ? AND tick <= ? " +
+                    "ORDER BY tick ASC;",
+                new Object[]{ player, start, time },
+                rs -> getFrames(rs));
+        frames.addAll(pool.select(
+                "SELECT * FROM player_replays WHERE player_name = ? AND tick > ? " +
+                    "ORDER BY tick ASC LIMIT ?;",
+                new Object[]{ player, time, count },
+                rs -> getFrames(rs)));
+
+        return decode(frames).stream()
+                .filter(log -> log.getTime() >= from)
+                .collect(toList());
     }
 }
@@ -0,0 +1,166 @@
+package com.codenjoy.dojo.services.dao;
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2018 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Формат реплеев в player_replays. Для каждого игрока раз в keyframes
+ * записей пишется полная борда (ключевой кадр), а между ними - только
+ * отличия от предыдущей записанной борды этого игрока.
+ * Отличия - это куски "смещение:длина:символы" подряд.
+ * Кадры можно еще и сжать, см. {@link BoardCompressor}.
+ *
+ * Запись (encode) помнит последние борды игроков, а потому
+ * должна вызываться из одного потока и в порядке записи в базу.
+ */
+public class ReplayCodec {
+
+    // участки без изменений короче этого склеиваются с соседними изменениями
+    private static final int GAP = 4;
+
+    private int keyframes;
+    private boolean compress;
+    private Map<String, Last> last = new HashMap<>();
+
+    private static class Last {
+        String board;
+        int frames;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Frame {
+        private boolean keyframe;
+        private String data;
+    }
+
+    public ReplayCodec(int keyframes, boolean compress) {
+        this.keyframes = keyframes;
+        this.compress = compress;
+    }
+
+    public void setKeyframes(int keyframes) {
+        this.keyframes = keyframes;
+    }
+
+    public void setCompress(boolean compress) {
+        this.compress = compress;
+    }
+
+    public Frame encode(String player, String board) {
+        Last previous = last.computeIfAbsent(player, name -> new Last());
+        boolean keyframe = previous.board == null
+                || previous.board.length() != board.length()
+                || previous.frames >= keyframes - 1;
+
+        String data = keyframe ? board : diff(previous.board, board);
+        previous.board = board;
+        previous.frames = keyframe ? 0 : previous.frames + 1;
+
+        return new Frame(keyframe, compress ? BoardCompressor.compress(data) : data);
+    }
+
+    /**
+     * Забыть последние борды - следующие кадры будут ключевыми.
+     * Нужно, если записанное не дошло до базы.
+     */
+    public void reset() {
+        last.clear();
+    }
+
+    /**
+     * Игрок ушел - его последняя борда больше не нужна.
+     * Если он вернется, его первый кадр будет ключевым.
+     */
+    public void forget(String player) {
+        last.remove(player);
+    }
+
+    /**
+     * @param previous предыдущая борда этого игрока
+     * @return борда, или null если кадр - отличия, а считать их не от чего
+     */
+    public static String decode(String previous, Frame frame) {
+        String data = BoardCompressor.decompress(frame.getData());
+        if (frame.isKeyframe()) {
+            return data;
+        }
+        if (previous == null) {
+            return null;
+        }
+        return apply(previous, data);
+    }
+
+    static String diff(String from, String to) {
+        StringBuilder result = new StringBuilder();
+        int length = to.length();
+        int index = 0;
+        while (index < length) {
+            if (from.charAt(index) == to.charAt(index)) {
+                index++;
+                continue;
+            }
+
+            int start = index;
+            int end = index + 1;
+            int same = 0;
+            for (index = end; index < length && same < GAP; index++) {
+                if (from.charAt(index) == to.charAt(index)) {
+                    same++;
+                } else {
+                    same = 0;
+                    end = index + 1;
+                }
+            }
+
+            result.append(start).append(':')
+                    .append(end - start).append(':')
+                    .append(to, start, end);
+            index = end;
+        }
+        return result.toString();
+    }
+
+    static String apply(String board, String diff) {
+        char[] result = board.toCharArray();
+        int index = 0;
+        while (index < diff.length()) {
+            int colon = diff.indexOf(':', index);
+            int offset = Integer.parseInt(diff.substring(index, colon));
+            index = colon + 1;
+
+            colon = diff.indexOf(':', index);
+            int length = Integer.parseInt(diff.substring(index, colon));
+            index = colon + 1;
+
+            diff.getChars(index, index + length, result, offset);
+            index += length;
+        }
+        return new String(result);
+    }
+}
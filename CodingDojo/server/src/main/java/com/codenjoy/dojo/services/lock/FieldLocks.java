@@ -0,0 +1,98 @@
+package com.codenjoy.dojo.services.lock;
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2018 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+
+
+import com.codenjoy.dojo.services.multiplayer.GameField;
+import com.codenjoy.dojo.services.printer.FieldCells;
+import com.google.common.util.concurrent.Striped;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Блокировки на уровне поля (комнаты). Все, что происходит с игрой
+ * (команды джойстика, отрисовка доски, сохранение) блокирует только
+ * поле на котором эта игра идет, а не весь сервер. Глобальный lock
+ * остается только за регистрацией/удалением/перезагрузкой игроков.
+ * Блокировки полосатые (striped) - несколько полей могут делить один
+ * lock, зато их количество ограничено.
+ */
+public class FieldLocks {
+
+    public static final int STRIPES = 256;
+
+    private Function<GameField, ReadWriteLock> locks;
+
+    public FieldLocks() {
+        this(STRIPES);
+    }
+
+    public FieldLocks(int stripes) {
+        Striped<ReadWriteLock> striped = Striped.readWriteLock(stripes);
+        locks = field -> striped.get(System.identityHashCode(field));
+    }
+
+    /**
+     * Один lock на все поля - так было до появления блокировок по полям.
+     */
+    public FieldLocks(ReadWriteLock lock) {
+        locks = field -> lock;
+    }
+
+    public ReadWriteLock get(GameField field) {
+        return locks.apply(field);
+    }
+
+    /**
+     * Игрок может перейти на другое поле, пока мы ждем lock,
+     * а потому после захвата проверяем, что поле осталось тем же.
+     * @param field текущее поле игрока
+     * @return уже захваченный lock
+     */
+    public Lock lock(Supplier<GameField> field) {
+        while (true) {
+            GameField current = field.get();
+            Lock lock = get(current).writeLock();
+            lock.lock();
+            if (current == field.get()) {
+                return lock;
+            }
+            lock.unlock();
+        }
+    }
+
+    public void quietTick(GameField field) {
+        Lock lock = get(field).writeLock();
+        lock.lock();
+        try {
+            field.quietTick();
+            FieldCells.changed(field);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
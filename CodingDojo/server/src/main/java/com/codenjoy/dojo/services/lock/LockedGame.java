@@ -31,18 +31,30 @@ import com.codenjoy.dojo.services.multiplayer.GamePlayer;
 import com.codenjoy.dojo.services.multiplayer.LevelProgress;
 import org.json.JSONObject;
 
+import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 
 public class LockedGame implements Game {
 
     private final LockedJoystick joystick;
-    private ReadWriteLock lock;
+    private FieldLocks locks;
 
     private Game game;
 
     public LockedGame(ReadWriteLock lock) {
-        this.lock = lock;
-        this.joystick = new LockedJoystick(lock);
+        this(new FieldLocks(lock));
+    }
+
+    public LockedGame(FieldLocks locks) {
+        this.locks = locks;
+        this.joystick = new LockedJoystick(this);
+    }
+
+    /**
+     * Захватывает lock поля, на котором сейчас находится игра.
+     */
+    Lock lock() {
+        return locks.lock(() -> (game == null) ? null : game.getField());
     }
 
     public Game wrap(Game game) {
@@ -57,161 +69,161 @@ public class LockedGame implements Game {
 
     @Override
     public boolean isGameOver() {
-        lock.writeLock().lock();
+        Lock lock = lock();
         try {
             return game.isGameOver();
         } finally {
-            lock.writeLock().unlock();
+            lock.unlock();
         }
     }
 
     @Override
     public boolean isWin() {
-        lock.writeLock().lock();
+        Lock lock = lock();
         try {
             return game.isWin();
         } finally {
-            lock.writeLock().unlock();
+            lock.unlock();
         }
     }
 
     @Override
     public boolean shouldLeave() {
-        lock.writeLock().lock();
+        Lock lock = lock();
         try {
             return game.shouldLeave();
         } finally {
-            lock.writeLock().unlock();
+            lock.unlock();
         }
     }
 
     @Override
     public void newGame() {
-        lock.writeLock().lock();
+        Lock lock = lock();
         try {
             game.newGame();
         } finally {
-            lock.writeLock().unlock();
+            lock.unlock();
         }
     }
 
     @Override
     public void loadSave(JSONObject save) {
-        lock.writeLock().lock();
+        Lock lock = lock();
         try {
             game.loadSave(save);
         } finally {
-            lock.writeLock().unlock();
+            lock.unlock();
         }
     }
 
     @Override
     public Object getBoardAsString() {
-        lock.writeLock().lock();
+        Lock lock = lock();
         try {
             return game.getBoardAsString();
         } finally {
-            lock.writeLock().unlock();
+            lock.unlock();
         }
     }
 
     @Override
     public void close() {
-        lock.writeLock().lock();
+        Lock lock = lock();
         try {
             game.close();
         } finally {
-            lock.writeLock().unlock();
+            lock.unlock();
         }
     }
 
     @Override
     public void clearScore() {
-        lock.writeLock().lock();
+        Lock lock = lock();
         try {
             game.clearScore();
         } finally {
-            lock.writeLock().unlock();
+            lock.unlock();
         }
     }
 
     @Override
     public HeroData getHero() {
-        lock.writeLock().lock();
+        Lock lock = lock();
         try {
             return game.getHero();
         } finally {
-            lock.writeLock().unlock();
+            lock.unlock();
         }
     }
 
     @Override
     public JSONObject getSave() {
-        lock.writeLock().lock();
+        Lock lock = lock();
         try {
             return game.getSave();
         } finally {
-            lock.writeLock().unlock();
+            lock.unlock();
         }
     }
 
     @Override
     public GamePlayer getPlayer() {
-        lock.writeLock().lock();
+        Lock lock = lock();
         try {
             return game.getPlayer();
         } finally {
-            lock.writeLock().unlock();
+            lock.unlock();
         }
     }
 
     @Override
     public GameField getField() {
-        lock.writeLock().lock();
+        Lock lock = lock();
         try {
             return game.getField();
         } finally {
-            lock.writeLock().unlock();
+            lock.unlock();
         }
     }
 
     @Override
     public void on(GameField field) {
-        lock.writeLock().lock();
+        Lock lock = lock();
         try {
             game.on(field);
         } finally {
-            lock.writeLock().unlock();
+            lock.unlock();
         }
     }
 
     @Override
     public void setProgress(LevelProgress progress) {
-        lock.writeLock().lock();
+        Lock lock = lock();
         try {
             game.setProgress(progress);
         } finally {
-            lock.writeLock().unlock();
+            lock.unlock();
         }
     }
 
     @Override
     public LevelProgress getProgress() {
-        lock.writeLock().lock();
+        Lock lock = lock();
         try {
             return game.getProgress();
         } finally {
-            lock.writeLock().unlock();
+            lock.unlock();
         }
     }
 
     @Override
     public String toString() {
-        lock.writeLock().lock();
+        Lock lock = lock();
         try {
             return game.toString();
         } finally {
-            lock.writeLock().unlock();
+            lock.unlock();
         }
     }
 
@@ -0,0 +1,121 @@
+package com.codenjoy.dojo.services.metrics;
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2018 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import org.json.JSONObject;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Гистограмма длительностей в наносекундах с корзинами по степеням двойки:
+ * от 2^10 нс (~1 мкс) до 2^35 нс (~34 с), последняя корзина - все что дольше.
+ * Запись без блокировок, можно писать из нескольких потоков.
+ */
+public class Histogram {
+
+    public static final int MIN_POWER = 10;
+    public static final int BUCKETS = 27;
+
+    private AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private AtomicLong count = new AtomicLong();
+    private AtomicLong sum = new AtomicLong();
+    private AtomicLong max = new AtomicLong();
+
+    public void add(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        buckets.incrementAndGet(bucket(nanos));
+        count.incrementAndGet();
+        sum.addAndGet(nanos);
+        max.accumulateAndGet(nanos, Math::max);
+    }
+
+    static int bucket(long nanos) {
+        if (nanos <= (1L << MIN_POWER)) {
+            return 0;
+        }
+        // округляем log2 вверх: 1025..2048 нс -> корзина 1
+        int power = 64 - Long.numberOfLeadingZeros(nanos - 1);
+        return Math.min(power - MIN_POWER, BUCKETS - 1);
+    }
+
+    /**
+     * @return верхняя граница корзины в нс, для последней - Long.MAX_VALUE
+     */
+    public static long bound(int bucket) {
+        if (bucket >= BUCKETS - 1) {
+            return Long.MAX_VALUE;
+        }
+        return 1L << (MIN_POWER + bucket);
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getSum() {
+        return sum.get();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public long getBucket(int bucket) {
+        return buckets.get(bucket);
+    }
+
+    /**
+     * @return верхняя граница корзины, в которую попал квантиль q, нс
+     */
+    public long percentile(double q) {
+        long total = count.get();
+        if (total == 0) {
+            return 0;
+        }
+        long target = (long) Math.ceil(q * total);
+        long seen = 0;
+        for (int index = 0; index < BUCKETS; index++) {
+            seen += buckets.get(index);
+            if (seen >= target) {
+                return Math.min(bound(index), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    public JSONObject toJson() {
+        long total = getCount();
+        JSONObject result = new JSONObject();
+        result.put("count", total);
+        result.put("sumNs", getSum());
+        result.put("avgNs", (total == 0) ? 0 : getSum() / total);
+        result.put("maxNs", getMax());
+        result.put("p50Ns", percentile(0.5));
+        result.put("p90Ns", percentile(0.9));
+        result.put("p99Ns", percentile(0.99));
+        return result;
+    }
+}
@@ -0,0 +1,176 @@
+package com.codenjoy.dojo.services.metrics;
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2018 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import org.json.JSONObject;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Время фаз тика сервера в наносекундах.
+ * Общая картина по фазам, плюс разбивка по типам игр и по комнатам
+ * для того, что считается отдельно для каждого поля/игрока.
+ */
+@Component
+public class TickMetrics {
+
+    public static final String TOTAL = "total";
+    public static final String ACTION_LOGGER = "actionLogger";
+    public static final String AUTO_SAVER = "autoSaver";
+    public static final String PLAYER_GAMES = "playerGames";
+    public static final String FIELD = "field";
+    public static final String RENDER = "render";
+    public static final String BOARD = "board";
+    public static final String SCREEN = "screen";
+    public static final String CONTROLS = "controls";
+    public static final String SEMIFINAL = "semifinal";
+
+    private Map<String, Histogram> phases = new ConcurrentHashMap<>();
+    private Map<String, Map<String, Histogram>> gameTypes = new ConcurrentHashMap<>();
+    private Map<String, Map<String, Histogram>> rooms = new ConcurrentHashMap<>();
+
+    public static long now() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Фиксирует фазу, начатую в start.
+     * @return время окончания - начало следующей фазы
+     */
+    public long done(String phase, long start) {
+        long end = now();
+        record(phase, end - start);
+        return end;
+    }
+
+    public void record(String phase, long nanos) {
+        histogram(phases, phase).add(nanos);
+    }
+
+    public void record(String phase, String gameType, String room, long nanos) {
+        record(phase, nanos);
+        histogram(group(gameTypes, gameType), phase).add(nanos);
+        histogram(group(rooms, room), phase).add(nanos);
+    }
+
+    private static <V> V get(Map<String, V> map, String key, Supplier<V> factory) {
+        return map.computeIfAbsent(String.valueOf(key), k -> factory.get());
+    }
+
+    private static Histogram histogram(Map<String, Histogram> map, String key) {
+        return get(map, key, Histogram::new);
+    }
+
+    private static Map<String, Histogram> group(Map<String, Map<String, Histogram>> map, String key) {
+        return get(map, key, ConcurrentHashMap::new);
+    }
+
+    /**
+     * Комната удалена - ее разбивку больше не храним,
+     * иначе за время работы сервера она будет только расти.
+     */
+    public void removeRoom(String room) {
+        rooms.remove(String.valueOf(room));
+    }
+
+    public void clear() {
+        phases.clear();
+        gameTypes.clear();
+        rooms.clear();
+    }
+
+    public Histogram get(String phase) {
+        return phases.get(phase);
+    }
+
+    public JSONObject toJson() {
+        JSONObject result = new JSONObject();
+        result.put("phases", toJson(phases));
+        result.put("gameTypes", toJsonNested(gameTypes));
+        result.put("rooms", toJsonNested(rooms));
+        return result;
+    }
+
+    private JSONObject toJson(Map<String, Histogram> map) {
+        JSONObject result = new JSONObject();
+        map.forEach((phase, histogram) -> result.put(phase, histogram.toJson()));
+        return result;
+    }
+
+    private JSONObject toJsonNested(Map<String, Map<String, Histogram>> map) {
+        JSONObject result = new JSONObject();
+        map.forEach((name, phases) -> result.put(name, toJson(phases)));
+        return result;
+    }
+
+    /**
+     * Prometheus text format. Комнат может быть очень много,
+     * а потому они есть только в json, тут - фазы и типы игр.
+     */
+    public String toPrometheus() {
+        StringBuilder result = new StringBuilder();
+        String name = "codenjoy_tick_phase_seconds";
+        result.append("# HELP ").append(name).append(" Server tick phase duration.\n");
+        result.append("# TYPE ").append(name).append(" histogram\n");
+        for (Map.Entry<String, Histogram> phase : new TreeMap<>(phases).entrySet()) {
+            histogram(result, name, "phase=\"" + phase.getKey() + "\"", phase.getValue());
+        }
+
+        name = "codenjoy_game_phase_seconds";
+        result.append("# HELP ").append(name).append(" Tick phase duration per game type.\n");
+        result.append("# TYPE ").append(name).append(" histogram\n");
+        for (Map.Entry<String, Map<String, Histogram>> game : new TreeMap<>(gameTypes).entrySet()) {
+            for (Map.Entry<String, Histogram> phase : new TreeMap<>(game.getValue()).entrySet()) {
+                histogram(result, name,
+                        "game=\"" + game.getKey() + "\",phase=\"" + phase.getKey() + "\"",
+                        phase.getValue());
+            }
+        }
+        return result.toString();
+    }
+
+    private void histogram(StringBuilder out, String name, String labels, Histogram histogram) {
+        long cumulative = 0;
+        for (int index = 0; index < Histogram.BUCKETS; index++) {
+            cumulative += histogram.getBucket(index);
+            String le = (index == Histogram.BUCKETS - 1)
+                    ? "+Inf"
+                    : seconds(Histogram.bound(index));
+            out.append(name).append("_bucket{").append(labels)
+                    .append(",le=\"").append(le).append("\"} ")
+                    .append(cumulative).append('\n');
+        }
+        out.append(name).append("_sum{").append(labels).append("} ")
+                .append(seconds(histogram.getSum())).append('\n');
+        out.append(name).append("_count{").append(labels).append("} ")
+                .append(histogram.getCount()).append('\n');
+    }
+
+    public static String seconds(long nanos) {
+        return String.valueOf(nanos / 1e9);
+    }
+}
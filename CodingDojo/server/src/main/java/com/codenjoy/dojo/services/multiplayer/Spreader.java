@@ -22,19 +22,27 @@ package com.codenjoy.dojo.services.multiplayer;
  * #L%
  */
 
+
 import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Multimap;
 
-import java.util.Collection;
-import java.util.List;
+import java.util.*;
 import java.util.function.Supplier;
 
-import static java.util.stream.Collectors.toList;
-
 public class Spreader {
 
     private Multimap<String, Room> rooms = LinkedHashMultimap.create();
 
+    // обратные индексы, чтобы не бегать по всем комнатам
+    private Multimap<GamePlayer, Room> playerRooms = LinkedHashMultimap.create();
+    private Map<GameField, Room> fieldRooms = new HashMap<>();
+    private Map<Room, String> roomNames = new HashMap<>();
+
+    // свободные комнаты в порядке их создания - первой заполняется самая старая
+    private Map<String, TreeSet<Room>> free = new HashMap<>();
+    private Map<Room, Long> order = new HashMap<>();
+    private long count;
+
     public GameField fieldFor(GamePlayer player, String roomName,
                               MultiplayerType type,
                               int roomSize, int levelNumber,
@@ -49,26 +57,52 @@ public class Spreader {
             add(roomName, room);
         }
 
-        return room.join(player);
+        GameField result = room.join(player);
+        playerRooms.put(player, room);
+        updateFree(room);
+        return result;
     }
 
     private void add(String roomName, Room room) {
         rooms.get(roomName).add(room);
+        roomNames.put(room, roomName);
+        order.put(room, count++);
+        fieldRooms.put(room.field(), room);
+        updateFree(room);
     }
 
-    private Room findUnfilled(String roomName) {
-        Collection<Room> rooms = rooms(roomName);
+    private void updateFree(Room room) {
+        String roomName = roomNames.get(room);
+        if (roomName == null) {
+            return;
+        }
+
+        if (room.isFree()) {
+            free.computeIfAbsent(roomName,
+                    key -> new TreeSet<>(Comparator.comparing(order::get)))
+                    .add(room);
+        } else {
+            removeFree(roomName, room);
+        }
+    }
+
+    private void removeFree(String roomName, Room room) {
+        TreeSet<Room> rooms = free.get(roomName);
+        if (rooms == null) {
+            return;
+        }
+        rooms.remove(room);
         if (rooms.isEmpty()) {
-            return null;
+            free.remove(roomName);
         }
-        return rooms.stream()
-                .filter(Room::isFree)
-                .findFirst()
-                .orElse(null);
     }
 
-    private Collection<Room> rooms(String roomName) {
-        return rooms.get(roomName);
+    private Room findUnfilled(String roomName) {
+        TreeSet<Room> rooms = free.get(roomName);
+        if (rooms == null) {
+            return null;
+        }
+        return rooms.first();
     }
 
     /**
@@ -77,12 +111,16 @@ public class Spreader {
      * оставаться на борде не имеет смысла
      */
     public List<GamePlayer> remove(GamePlayer player) {
-        List<Room> rooms = roomsFor(player);
+        List<Room> rooms = new LinkedList<>(playerRooms.removeAll(player));
 
-        List<GamePlayer> removed = rooms.stream()
-                .flatMap(room -> room.remove(player).stream())
-                .collect(toList());
+        List<GamePlayer> removed = new LinkedList<>();
+        for (Room room : rooms) {
+            List<GamePlayer> alone = room.remove(player);
+            alone.forEach(other -> playerRooms.remove(other, room));
+            removed.addAll(alone);
+        }
 
+        rooms.forEach(this::updateFree);
         rooms.forEach(this::removeIfEmpty);
 
         return removed;
@@ -91,35 +129,28 @@ public class Spreader {
     private void removeIfEmpty(Room room) {
         if (!room.isEmpty()) return;
 
-        rooms.entries().stream()
-                .filter(entry -> entry.getValue() == room)
-                .map(entry -> entry.getKey())
-                .distinct()
-                .forEach(key -> rooms.remove(key, room));
-    }
-
-    private List<Room> roomsFor(GamePlayer player) {
-        return rooms.values().stream()
-                    .filter(room -> room.contains(player))
-                    .collect(toList());
-    }
-
-    private List<Room> roomsFor(GameField field) {
-        return rooms.values().stream()
-                .filter(room -> room.isFor(field))
-                .collect(toList());
+        String roomName = roomNames.remove(room);
+        if (roomName == null) {
+            return;
+        }
+        rooms.remove(roomName, room);
+        removeFree(roomName, room);
+        order.remove(room);
+        if (fieldRooms.get(room.field()) == room) {
+            fieldRooms.remove(room.field());
+        }
     }
 
     public boolean contains(GamePlayer player) {
-        return !roomsFor(player).isEmpty();
+        return playerRooms.containsKey(player);
     }
 
     public boolean isRoomStaffed(GameField field) {
-        List<Room> rooms = roomsFor(field);
-        if (rooms.size() != 1) {
-            throw new IllegalArgumentException("Почему-то комната для поля не одна: " + rooms.size());
+        Room room = fieldRooms.get(field);
+        if (room == null) {
+            throw new IllegalArgumentException("Почему-то комната для поля не одна: 0");
         }
-        return rooms.get(0).isStuffed();
+        return room.isStuffed();
     }
 
     public Multimap<String, Room> rooms() {
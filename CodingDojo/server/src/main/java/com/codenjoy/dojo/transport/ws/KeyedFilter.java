@@ -0,0 +1,49 @@
+package com.codenjoy.dojo.transport.ws;
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2018 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import java.util.function.Function;
+
+/**
+ * Фильтр, результат которого зависит только от ключа и данных.
+ * За одну рассылку сокеты с одинаковым ключом получают
+ * одну и ту же сериализованную строку - фильтр и toString() выполнятся однажды.
+ */
+public interface KeyedFilter extends Function<Object, Object> {
+
+    Object key();
+
+    static KeyedFilter of(Object key, Function<Object, Object> filter) {
+        return new KeyedFilter() {
+            @Override
+            public Object key() {
+                return key;
+            }
+
+            @Override
+            public Object apply(Object data) {
+                return filter.apply(data);
+            }
+        };
+    }
+}
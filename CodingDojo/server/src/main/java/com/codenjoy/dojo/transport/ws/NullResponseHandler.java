@@ -48,4 +48,9 @@ public class NullResponseHandler implements ResponseHandler {
     public void onConnect(PlayerSocket socket, Session session) {
         // do nothing
     }
+
+    @Override
+    public void onLost(PlayerSocket socket) {
+        // do nothing
+    }
 }
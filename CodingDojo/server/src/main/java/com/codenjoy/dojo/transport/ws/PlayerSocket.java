@@ -24,6 +24,7 @@ package com.codenjoy.dojo.transport.ws;
 
 
 import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.WriteCallback;
 import org.eclipse.jetty.websocket.api.annotations.*;
 
 import java.io.IOException;
@@ -40,6 +41,14 @@ public class PlayerSocket {
     private boolean requested;
     private Runnable onClose;
 
+    private SendStats stats = new SendStats();
+    private boolean async;
+
+    // асинхронная отправка: не больше одного кадра в полете
+    // и одного в ожидании - более свежий заменяет ожидающий
+    private boolean sending;
+    private String pending;
+
     public PlayerSocket(String id, boolean requested) {
         this.id = id;
         this.requested = requested;
@@ -83,9 +92,116 @@ public class PlayerSocket {
         if (!requested) {
             requested = true;
             if (session.isOpen()) {
-                session.getRemote().sendString(message);
+                if (async) {
+                    enqueue(message);
+                } else {
+                    sendNow(message);
+                }
+            }
+        }
+    }
+
+    private void sendNow(String message) throws IOException {
+        try {
+            session.getRemote().sendString(message);
+            stats.sent();
+        } catch (IOException | RuntimeException e) {
+            stats.failed();
+            throw e;
+        }
+    }
+
+    private void enqueue(String message) {
+        boolean idle;
+        boolean dropped = false;
+        synchronized (this) {
+            idle = !sending;
+            if (idle) {
+                sending = true;
+            } else {
+                if (pending == null) {
+                    stats.late();
+                } else {
+                    stats.dropped();
+                    dropped = true;
+                }
+                pending = message;
             }
         }
+        if (idle) {
+            write(message);
+        } else if (dropped) {
+            handler.onLost(this);
+        }
+    }
+
+    private void write(String message) {
+        try {
+            session.getRemote().sendString(message, new WriteCallback() {
+                @Override
+                public void writeFailed(Throwable error) {
+                    failed();
+                }
+
+                @Override
+                public void writeSuccess() {
+                    stats.sent();
+                    next();
+                }
+            });
+        } catch (RuntimeException e) {
+            failed();
+        }
+    }
+
+    private void failed() {
+        stats.failed();
+        synchronized (this) {
+            // ожидающий кадр мог строиться относительно недошедшего
+            if (pending != null) {
+                stats.dropped();
+                pending = null;
+            }
+            sending = false;
+        }
+        handler.onLost(this);
+    }
+
+    /**
+     * @return true, если следующий кадр заменит ожидающий отправки
+     */
+    public synchronized boolean hasPending() {
+        return pending != null;
+    }
+
+    private void next() {
+        String message;
+        synchronized (this) {
+            message = pending;
+            pending = null;
+            if (message == null || !isOpen()) {
+                sending = false;
+                return;
+            }
+        }
+        write(message);
+    }
+
+    /**
+     * @param async отправлять ли кадры не дожидаясь, пока уйдет предыдущий
+     * @param stats куда собирать статистику отправки
+     */
+    void setSending(boolean async, SendStats stats) {
+        this.async = async;
+        this.stats = stats;
+    }
+
+    /**
+     * Сокет ждет ответа клиента (или еще не подключен) -
+     * отправлять ему сейчас ничего не будем.
+     */
+    public boolean isWaiting() {
+        return session == null || requested;
     }
 
     public void setHandler(ResponseHandler handler) {
@@ -73,4 +73,14 @@ public interface PlayerTransport {
     void setFilterFor(PlayerSocket socket, Function<Object, Object> filter);
 
     void setDefaultFilter(Function<Object, Object> filter);
+
+    /**
+     * @return ответили ли все подключенные клиенты на последний отправленный им запрос
+     */
+    boolean isAllAnswered();
+
+    /**
+     * @return статистика отправки кадров по всем сокетам транспорта
+     */
+    SendStats getStats();
 }
@@ -27,6 +27,7 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Function;
 
@@ -37,6 +38,23 @@ public class PlayerTransportImpl implements PlayerTransport {
     private Map<String, SocketsHandlerPair> endpoints = new LinkedHashMap<>();
     private Map<PlayerSocket, Function<Object, Object>> filters = new HashMap<>();
     private Function<Object, Object> defaultFilter;
+    private boolean async;
+    private SendStats stats = new SendStats();
+
+    // сокет может закрыться прямо во время отправки ему кадра (под read lock),
+    // тогда убрать его сразу не выйдет - уберем, когда отправка закончится
+    private AtomicBoolean closedWhileSending = new AtomicBoolean();
+
+    public PlayerTransportImpl() {
+        this(false);
+    }
+
+    /**
+     * @param async отправлять кадры асинхронно, чтобы медленный клиент не тормозил тик
+     */
+    public PlayerTransportImpl(boolean async) {
+        this.async = async;
+    }
 
     @Override
     public void sendStateToAll(Object state) throws IOException {
@@ -44,6 +62,8 @@ public class PlayerTransportImpl implements PlayerTransport {
         try {
             int requested = 0;
 
+            // одинаковые представления сериализуем единожды на всю рассылку
+            Map<Object, String> payloads = new HashMap<>();
             List<String> messages = new LinkedList<>();
             for (SocketsHandlerPair pair : endpoints.values()) {
                 if (pair == null || pair.noSockets()) {
@@ -51,7 +71,7 @@ public class PlayerTransportImpl implements PlayerTransport {
                 }
                 try {
                     requested++;
-                    pair.sendMessage(state);
+                    pair.sendMessage(state, payloads);
                 } catch (Exception e) {
                     messages.add(e.getMessage());
                 }
@@ -64,6 +84,7 @@ public class PlayerTransportImpl implements PlayerTransport {
             log.debug("tick().sendScreenUpdates().sendStateToAll() {} endpoints", requested);
         } finally {
             lock.readLock().unlock();
+            removeClosedWhileSending();
         }
     }
 
@@ -80,6 +101,19 @@ public class PlayerTransportImpl implements PlayerTransport {
             return true;
         } finally {
             lock.readLock().unlock();
+            removeClosedWhileSending();
+        }
+    }
+
+    private void removeClosedWhileSending() {
+        if (lock.getReadHoldCount() > 0 || !closedWhileSending.getAndSet(false)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            endpoints.values().forEach(SocketsHandlerPair::removeClosedSockets);
+        } finally {
+            lock.writeLock().unlock();
         }
     }
 
@@ -125,6 +159,7 @@ public class PlayerTransportImpl implements PlayerTransport {
             if (pair == null) {
                 pair = new SocketsHandlerPair(id, this::getFilter);
             }
+            socket.setSending(async, stats);
             pair.addSocket(socket);
             endpoints.put(id, pair);
         } finally {
@@ -141,6 +176,11 @@ public class PlayerTransportImpl implements PlayerTransport {
 
     @Override
     public void unregisterPlayerSocket(PlayerSocket socket) {
+        // read lock не повысить до write - иначе deadlock
+        if (lock.getReadHoldCount() > 0) {
+            closedWhileSending.set(true);
+            return;
+        }
         lock.writeLock().lock();
         try {
             SocketsHandlerPair pair = endpoints.get(socket.getId());
@@ -163,6 +203,31 @@ public class PlayerTransportImpl implements PlayerTransport {
         }
     }
 
+    @Override
+    public boolean isAllAnswered() {
+        lock.readLock().lock();
+        try {
+            for (SocketsHandlerPair pair : endpoints.values()) {
+                if (pair == null) {
+                    continue;
+                }
+                for (PlayerSocket socket : pair.getSockets()) {
+                    if (socket.isOpen() && socket.isWaiting()) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public SendStats getStats() {
+        return stats;
+    }
+
     @Override
     public void setDefaultFilter(Function<Object, Object> filter) {
         this.defaultFilter = filter;
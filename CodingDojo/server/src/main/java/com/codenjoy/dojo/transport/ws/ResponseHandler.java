@@ -34,4 +34,11 @@ public interface ResponseHandler {
     void onError(PlayerSocket socket, Throwable error);
 
     void onConnect(PlayerSocket socket, Session session);
+
+    /**
+     * Отправленный сокету кадр до клиента не дошел: его заменил более
+     * свежий или его не удалось записать. Если следующие кадры
+     * строятся относительно предыдущих, пора начинать заново.
+     */
+    void onLost(PlayerSocket socket);
 }
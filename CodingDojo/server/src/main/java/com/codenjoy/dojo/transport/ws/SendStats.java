@@ -0,0 +1,81 @@
+package com.codenjoy.dojo.transport.ws;
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2018 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Счетчики отправки кадров по сокетам одного транспорта.
+ */
+public class SendStats {
+
+    // кадр ушел клиенту
+    private AtomicLong sent = new AtomicLong();
+
+    // кадр ждал, пока уйдет предыдущий
+    private AtomicLong late = new AtomicLong();
+
+    // кадр так и не ушел - его заменил более свежий
+    private AtomicLong dropped = new AtomicLong();
+
+    // ошибка при отправке
+    private AtomicLong failed = new AtomicLong();
+
+    void sent() {
+        sent.incrementAndGet();
+    }
+
+    void late() {
+        late.incrementAndGet();
+    }
+
+    void dropped() {
+        dropped.incrementAndGet();
+    }
+
+    void failed() {
+        failed.incrementAndGet();
+    }
+
+    public long getSent() {
+        return sent.get();
+    }
+
+    public long getLate() {
+        return late.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SendStats[sent:%s, late:%s, dropped:%s, failed:%s]",
+                getSent(), getLate(), getDropped(), getFailed());
+    }
+}
@@ -24,8 +24,10 @@ package com.codenjoy.dojo.transport.ws;
 
 
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
 
 /**
@@ -64,9 +66,31 @@ public class SocketsHandlerPair {
     }
 
     public void sendMessage(Object data) throws IOException {
+        sendMessage(data, new HashMap<>());
+    }
+
+    /**
+     * @param payloads уже сериализованные в рамках этой рассылки данные по ключу фильтра
+     */
+    public void sendMessage(Object data, Map<Object, String> payloads) throws IOException {
         for (PlayerSocket socket : sockets) {
+            // кадр все равно не уйдет, потому и фильтровать незачем
+            if (socket.isWaiting()) {
+                continue;
+            }
             Function<Object, Object> filter = filters.apply(socket);
-            if (filter != null) {
+            if (filter == null) {
+                continue;
+            }
+            if (filter instanceof KeyedFilter) {
+                Object key = ((KeyedFilter) filter).key();
+                String payload = payloads.get(key);
+                if (payload == null) {
+                    payload = filter.apply(data).toString();
+                    payloads.put(key, payload);
+                }
+                socket.sendMessage(payload);
+            } else {
                 socket.sendMessage(filter.apply(data).toString());
             }
         }
@@ -0,0 +1,149 @@
+package com.codenjoy.dojo.web.rest;
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2018 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.services.TickStats;
+import com.codenjoy.dojo.services.TimerService;
+import com.codenjoy.dojo.services.metrics.TickMetrics;
+import com.codenjoy.dojo.transport.ws.PlayerTransport;
+import com.codenjoy.dojo.transport.ws.SendStats;
+import com.codenjoy.dojo.web.controller.Validator;
+import lombok.AllArgsConstructor;
+import org.json.JSONObject;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * Метрики тика для админа: json и Prometheus text format.
+ */
+@RestController
+@RequestMapping("/rest/metrics")
+@AllArgsConstructor
+public class RestMetricsController {
+
+    public static final String PROMETHEUS = "text/plain; version=0.0.4; charset=utf-8";
+
+    private Validator validator;
+    private TickMetrics metrics;
+    private TimerService timerService;
+
+    // autowiring by name
+    private PlayerTransport screenPlayerTransport;
+    private PlayerTransport controlPlayerTransport;
+
+    @GetMapping(value = "/{adminPassword}/ticks", produces = "application/json")
+    public String getTicks(@PathVariable("adminPassword") String adminPassword) {
+        validator.checkIsAdmin(adminPassword);
+
+        JSONObject result = metrics.toJson();
+        result.put("timer", toJson(timerService.getStats()));
+        result.put("screenSend", toJson(screenPlayerTransport.getStats()));
+        result.put("controlSend", toJson(controlPlayerTransport.getStats()));
+        return result.toString();
+    }
+
+    @PostMapping(value = "/{adminPassword}/ticks/clear")
+    public boolean clearTicks(@PathVariable("adminPassword") String adminPassword) {
+        validator.checkIsAdmin(adminPassword);
+
+        metrics.clear();
+        timerService.getStats().clear();
+        return true;
+    }
+
+    @GetMapping(value = "/{adminPassword}/prometheus", produces = PROMETHEUS)
+    public String getPrometheus(@PathVariable("adminPassword") String adminPassword) {
+        validator.checkIsAdmin(adminPassword);
+
+        StringBuilder result = new StringBuilder(metrics.toPrometheus());
+
+        TickStats timer = timerService.getStats();
+        gauge(result, "codenjoy_timer_period_seconds", "Server tick period.",
+                TickMetrics.seconds(timerService.getPeriod() * 1_000_000));
+        counter(result, "codenjoy_timer_ticks_total", "Server ticks.", timer.getCount());
+        counter(result, "codenjoy_timer_overruns_total", "Ticks longer than the period.", timer.getOverruns());
+        counter(result, "codenjoy_timer_skipped_total", "Ticks skipped after overruns.", timer.getSkipped());
+
+        send(result, "codenjoy_ws_sent_total", "Frames sent.", SendStats::getSent);
+        send(result, "codenjoy_ws_late_total", "Frames sent after the next tick.", SendStats::getLate);
+        send(result, "codenjoy_ws_dropped_total", "Frames replaced before sending.", SendStats::getDropped);
+        send(result, "codenjoy_ws_failed_total", "Frames failed to send.", SendStats::getFailed);
+        return result.toString();
+    }
+
+    private void send(StringBuilder out, String name, String help, ToLongFunction<SendStats> value) {
+        header(out, name, help, "counter");
+        sample(out, name, "transport=\"screen\"",
+                String.valueOf(value.applyAsLong(screenPlayerTransport.getStats())));
+        sample(out, name, "transport=\"control\"",
+                String.valueOf(value.applyAsLong(controlPlayerTransport.getStats())));
+    }
+
+    private void gauge(StringBuilder out, String name, String help, String value) {
+        header(out, name, help, "gauge");
+        sample(out, name, "", value);
+    }
+
+    private void counter(StringBuilder out, String name, String help, long value) {
+        header(out, name, help, "counter");
+        sample(out, name, "", String.valueOf(value));
+    }
+
+    private void header(StringBuilder out, String name, String help, String type) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private void sample(StringBuilder out, String name, String labels, String value) {
+        out.append(name);
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(value).append('\n');
+    }
+
+    private JSONObject toJson(TickStats stats) {
+        JSONObject result = new JSONObject();
+        result.put("count", stats.getCount());
+        result.put("lastMs", stats.getLast());
+        result.put("maxMs", stats.getMax());
+        result.put("averageMs", stats.getAverage());
+        result.put("overruns", stats.getOverruns());
+        result.put("skipped", stats.getSkipped());
+        return result;
+    }
+
+    private JSONObject toJson(SendStats stats) {
+        JSONObject result = new JSONObject();
+        result.put("sent", stats.getSent());
+        result.put("late", stats.getLate());
+        result.put("dropped", stats.getDropped());
+        result.put("failed", stats.getFailed());
+        return result;
+    }
+}
@@ -35,6 +35,54 @@ function initBoards(players, allPlayersScreen, gameName, playerName, contextPath
         return getWSProtocol() + "://" + link.hostname + ':' + link.port + contextPath + "/screen-ws?user=" + user;
     }
 
+    // сервер присылает полный кадр, а затем только изменения
+    // screen - собранный из них текущий кадр
+    var screen = {};
+
+    var patchBoard = function(board, patch) {
+        var result = board;
+        for (var index in patch) {
+            var from = patch[index][0];
+            var chars = patch[index][1];
+            result = result.substring(0, from) + chars + result.substring(from + chars.length);
+        }
+        return result;
+    }
+
+    var applyFrame = function(message) {
+        if (message.frame == 'key') {
+            screen = message.data;
+            return screen;
+        }
+
+        var result = {};
+        for (var name in screen) {
+            result[name] = screen[name];
+        }
+        for (var name in message.data) {
+            var diff = message.data[name];
+            var player = {};
+            var old = result[name] || {};
+            for (var key in old) {
+                player[key] = old[key];
+            }
+            for (var key in diff) {
+                if (key == 'board' && Array.isArray(diff[key])) {
+                    player[key] = patchBoard(old[key], diff[key]);
+                } else {
+                    player[key] = diff[key];
+                }
+            }
+            result[name] = player;
+        }
+        var removed = message.removed || [];
+        for (var index in removed) {
+            delete result[removed[index]];
+        }
+        screen = result;
+        return screen;
+    }
+
     var socket = null;
     var reconnectOnError = function() {
         $('body').css('background-color', 'bisque');
@@ -52,6 +100,7 @@ function initBoards(players, allPlayersScreen, gameName, playerName, contextPath
             console.log(err);
         }
         socket.onopen = function() {
+            screen = {};
             updatePlayersInfo();
         };
         socket.onclose = function() {
@@ -61,7 +110,7 @@ function initBoards(players, allPlayersScreen, gameName, playerName, contextPath
 //            reconnectOnError();
         };
         socket.onmessage = function(message) {
-            var data = JSON.parse(message.data);
+            var data = applyFrame(JSON.parse(message.data));
 
             $('body').css('background-color', 'white');
 
@@ -86,7 +135,8 @@ function initBoards(players, allPlayersScreen, gameName, playerName, contextPath
             'name':'getScreen',
             'allPlayersScreen' : allPlayersScreen,
             'players' : playerNames,
-            'gameName' : gameName
+            'gameName' : gameName,
+            'delta' : true
         }
 
         socket.send(JSON.stringify(request));
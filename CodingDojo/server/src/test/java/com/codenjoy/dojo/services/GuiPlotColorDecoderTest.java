@@ -198,4 +198,36 @@ public class GuiPlotColorDecoderTest {
         assertEquals(fix("{'layers':['1234','4123']}"),
                 decoder.encodeForClient(new JSONObject("{'layers':['1234'\n,'4123']}")));
     }
+
+    @Test
+    public void shouldEncodeForClientAndBrowser_inOnePass() {
+        GuiPlotColorDecoder decoder = new GuiPlotColorDecoder(Elements.values());
+
+        GuiPlotColorDecoder.Encoded encoded = decoder.encode("12\n34");
+
+        assertEquals("1234", encoded.getClient());
+        assertEquals("ABCD", encoded.getBrowser());
+    }
+
+    @Test
+    public void shouldEncodeForClientAndBrowser_json() {
+        GuiPlotColorDecoder decoder = new GuiPlotColorDecoder(Elements.values());
+
+        GuiPlotColorDecoder.Encoded encoded = decoder.encode(new JSONObject("{'layers':['1234'\n,'4123']}"));
+
+        assertEquals(fix("{'layers':['1234','4123']}"), encoded.getClient());
+        assertEquals(fix("{'layers':['ABCD','DABC']}"), encoded.getBrowser().toString());
+    }
+
+    @Test
+    public void shouldNotEnumSymbol_inOnePass() {
+        GuiPlotColorDecoder decoder = new GuiPlotColorDecoder(Elements.values());
+
+        try {
+            decoder.encode("12\n35");
+            fail("Expected exception");
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("Not enum symbol '5'", e.getMessage());
+        }
+    }
 }
@@ -23,6 +23,7 @@ package com.codenjoy.dojo.services;
  */
 
 
+import com.codenjoy.dojo.services.metrics.TickMetrics;
 import com.codenjoy.dojo.services.multiplayer.GameField;
 import com.codenjoy.dojo.services.multiplayer.LevelProgress;
 import com.codenjoy.dojo.services.multiplayer.MultiplayerType;
@@ -87,6 +88,83 @@ public class PlayerGamesTest extends AbstractPlayerGamesTest {
         assertEquals(fields.get(0), playerGame.getGame().getField());
     }
 
+    @Test
+    public void testGet_afterRename() {
+        // given
+        Player player = createPlayer("player", MultiplayerType.SINGLE);
+        PlayerGame playerGame = playerGames.get("player");
+
+        // when
+        playerGames.rename(playerGame, "newName");
+
+        // then
+        assertEquals(NullPlayerGame.INSTANCE, playerGames.get("player"));
+        assertSame(playerGame, playerGames.get("newName"));
+        assertEquals("newName", player.getName());
+    }
+
+    @Test
+    public void testGetAllByField() {
+        // given
+        createPlayer("player1", MultiplayerType.TRIPLE);
+        createPlayer("player2", MultiplayerType.TRIPLE);
+        createPlayer("player3", MultiplayerType.TRIPLE);
+        createPlayer("player4", MultiplayerType.TRIPLE);
+
+        // when then
+        assertEquals("[player1, player2, player3]", names(playerGames.getAll(fields.get(0))));
+        assertEquals("[player4]", names(playerGames.getAll(fields.get(1))));
+
+        // when
+        playerGames.remove(playerGames.get("player2").getPlayer());
+
+        // then
+        assertEquals("[player1, player3]", names(playerGames.getAll(fields.get(0))));
+    }
+
+    @Test
+    public void testGetAllByField_isUnmodifiable() {
+        // given
+        createPlayer("player1", MultiplayerType.TRIPLE);
+        List<PlayerGame> all = playerGames.getAll(fields.get(0));
+
+        // when
+        try {
+            all.clear();
+            fail("Expected exception");
+        } catch (UnsupportedOperationException e) {
+            // then
+            assertEquals("[player1]", names(playerGames.getAll(fields.get(0))));
+        }
+    }
+
+    @Test
+    public void testRemove_keepsOrderOfOthers() {
+        // given
+        createPlayer("player1", MultiplayerType.SINGLE);
+        createPlayer("player2", MultiplayerType.SINGLE);
+        createPlayer("player3", MultiplayerType.SINGLE);
+        createPlayer("player4", MultiplayerType.SINGLE);
+        List<PlayerGame> before = playerGames.all();
+
+        // when
+        playerGames.remove(playerGames.get("player2").getPlayer());
+
+        // then
+        assertEquals("[player1, player3, player4]", names(playerGames.all()));
+        assertEquals("player3", playerGames.get(1).getPlayer().getName());
+
+        // снимок, взятый до удаления, не меняется
+        assertEquals("[player1, player2, player3, player4]", names(before));
+    }
+
+    private String names(List<PlayerGame> playerGames) {
+        return playerGames.stream()
+                .map(pg -> pg.getPlayer().getName())
+                .collect(toList())
+                .toString();
+    }
+
     @Test
     public void testGetByIndex() {
         // given
@@ -278,6 +356,79 @@ public class PlayerGamesTest extends AbstractPlayerGamesTest {
         order.verify(gameTypes.get(2)).quietTick();
     }
 
+    @Test
+    public void shouldTickAllFields_whenParallelMode() {
+        // given
+        FieldsTicker ticker = new FieldsTicker();
+        ticker.setParallel(true);
+        ticker.setThreads(2);
+        playerGames.setFieldsTicker(ticker);
+
+        createPlayer("player1", MultiplayerType.SINGLE);
+        createPlayer("player2", MultiplayerType.SINGLE);
+        createPlayer("player3", MultiplayerType.SINGLE);
+
+        // when
+        playerGames.tick();
+
+        // then
+        assertEquals(3, fields.size());
+        fields.forEach(field -> verify(field).quietTick());
+
+        ticker.shutdown();
+    }
+
+    @Test
+    public void shouldTickRoomsWithTheirOwnRate() {
+        // given
+        TickRates rates = new TickRates();
+        rates.configure("slow:3");
+        playerGames.setTickRates(rates);
+
+        createPlayer("player1", "fast", "game", MultiplayerType.SINGLE, null);
+        createPlayer("player2", "slow", "game", MultiplayerType.SINGLE, null);
+
+        // when
+        playerGames.tick();
+        playerGames.tick();
+        playerGames.tick();
+
+        // then
+        verify(fields.get(0), times(3)).quietTick();
+        verify(fields.get(1), times(1)).quietTick();
+    }
+
+    @Test
+    public void shouldForgetRoomMetrics_whenLastFieldOfRoomRemoved() {
+        // given
+        TickMetrics metrics = new TickMetrics();
+        playerGames.setMetrics(metrics);
+
+        Player player1 = createPlayer("player1", "room1", "game", MultiplayerType.SINGLE, null);
+        Player player2 = createPlayer("player2", "room1", "game", MultiplayerType.SINGLE, null);
+        createPlayer("player3", "room2", "game", MultiplayerType.SINGLE, null);
+
+        playerGames.tick();
+        assertEquals("[room1, room2]", rooms(metrics));
+
+        // when
+        playerGames.remove(player1);
+
+        // then
+        // у комнаты осталось еще одно поле
+        assertEquals("[room1, room2]", rooms(metrics));
+
+        // when
+        playerGames.remove(player2);
+
+        // then
+        assertEquals("[room2]", rooms(metrics));
+    }
+
+    private String rooms(TickMetrics metrics) {
+        return new TreeSet<>(metrics.toJson().getJSONObject("rooms").keySet()).toString();
+    }
+
     @Test
     public void testGetByGamePlayer() {
         // given
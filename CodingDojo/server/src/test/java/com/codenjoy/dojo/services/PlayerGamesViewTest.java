@@ -44,6 +44,7 @@ import java.util.*;
 
 import static com.codenjoy.dojo.services.PointImpl.pt;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -229,6 +230,42 @@ public class PlayerGamesViewTest {
         assertEquals(expectedGroup4, toString(dataMap.get("user4")));
     }
 
+    @Test
+    public void testGetGamesDataMap_sameDataForRoom() {
+        // given
+        GameField field = mock(GameField.class);
+        GameType gameType = addNewGameType("gameName1", 1234, inv -> field);
+
+        addNewPlayer(gameType, 123, getHeroData(10, pt(1, 2), "data1"));
+        addNewPlayer(gameType, 234, getHeroData(11, pt(3, 4), "data2"));
+
+        // when
+        Map<String, GameData> dataMap = playerGamesView.getGamesDataMap();
+
+        // then
+        assertSame(dataMap.get("user1"), dataMap.get("user2"));
+    }
+
+    @Test
+    public void testGetGamesDataMap_updatedAfterJoin() {
+        // given
+        GameField field = mock(GameField.class);
+        GameType gameType = addNewGameType("gameName1", 1234, inv -> field);
+
+        addNewPlayer(gameType, 123, getHeroData(10, pt(1, 2), "data1"));
+
+        assertEquals("[[user1]]", playerGamesView.getGroups().toString());
+
+        // when
+        addNewPlayer(gameType, 234, getHeroData(11, pt(3, 4), "data2"));
+
+        // then
+        assertEquals("[[user1, user2]]", playerGamesView.getGroups().toString());
+        assertEquals("{'user1':123,'user2':234}",
+                JsonUtils.clean(JsonUtils.toStringSorted(
+                        playerGamesView.getGamesDataMap().get("user1").getScores())));
+    }
+
     private String toString(GameData gameData) {
         return JsonUtils.clean(JsonUtils.toStringSorted(gameData));
     }
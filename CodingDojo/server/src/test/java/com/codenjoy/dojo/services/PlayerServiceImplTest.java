@@ -62,6 +62,9 @@ import org.springframework.test.context.junit4.SpringRunner;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static com.codenjoy.dojo.services.PointImpl.pt;
 import static com.codenjoy.dojo.services.settings.SimpleParameter.v;
@@ -126,6 +129,9 @@ public class PlayerServiceImplTest {
     @Autowired
     private PlayerServiceImpl playerService;
 
+    @Autowired
+    private TickRates tickRates;
+
     @Mock
     private GameType gameType;
     
@@ -152,6 +158,7 @@ public class PlayerServiceImplTest {
     public void setUp() {
         Mockito.reset(actionLogger, autoSaver, gameService, playerController, playerGames);
         playerGames.clean();
+        tickRates.configure("");
 
         screenSendCaptor = ArgumentCaptor.forClass(Map.class);
         playerCaptor = ArgumentCaptor.forClass(Player.class);
@@ -346,6 +353,53 @@ public class PlayerServiceImplTest {
         assertHostsCaptured(VASYA_URL, PETYA_URL);
     }
 
+    @Test
+    public void shouldRenderAndRequestControl_onlyForDueRooms() throws IOException {
+        // given
+        Player vasia = createPlayer(VASYA);
+        Player petia = createPlayer(PETYA);
+        playerService.tick();
+
+        tickRates.configure(PETYA + "room:2");
+
+        // when
+        playerService.tick();
+        playerService.tick();
+
+        // then
+        // комната Пети тикается через раз - и рисуется, и опрашивается так же
+        verify(playerController, times(3)).requestControl(eq(vasia), anyString());
+        verify(playerController, times(2)).requestControl(eq(petia), anyString());
+
+        // но на экране он есть всегда - с прошлым кадром, если не тикался
+        verify(screenController, times(3)).requestControlToAll(screenSendCaptor.capture());
+        Set<Object> vasiaScreens = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<Object> petiaScreens = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Map data : screenSendCaptor.getAllValues()) {
+            assertEquals(2, data.size());
+            vasiaScreens.add(data.get(vasia));
+            petiaScreens.add(data.get(petia));
+        }
+        assertEquals(3, vasiaScreens.size());
+        assertEquals(2, petiaScreens.size());
+    }
+
+    @Test
+    public void shouldNotSendScreens_whenNoRoomTicked() throws IOException {
+        // given
+        createPlayer(VASYA);
+        playerService.tick();
+        tickRates.configure(VASYA + "room:2");
+
+        // when
+        playerService.tick();
+        playerService.tick();
+
+        // then
+        // первый тик и только один из двух следующих
+        verify(screenController, times(2)).requestControlToAll(anyMap());
+    }
+
     @Test
     public void shouldRequestControlFromAllPlayersWithGlassState() throws IOException {
         createPlayer(VASYA);
@@ -749,7 +803,7 @@ public class PlayerServiceImplTest {
     }
 
     private List<PlayerGame> getPlayerGames() {
-        return field(PlayerGames.Fields.all).ofType(List.class).in(playerGames).get();
+        return playerGames.all();
     }
 
     @Test
@@ -811,10 +865,10 @@ public class PlayerServiceImplTest {
 
         setup(game1);
 
-        List list = Reflection.field(PlayerGames.Fields.all).ofType(List.class).in(playerGames).get();
-        PlayerGame playerGame = (PlayerGame)list.remove(0);
-        PlayerGame spy = spy(playerGame);
-        list.add(spy);
+        Map<Object, PlayerGame> all = Reflection.field(PlayerGames.Fields.all).ofType(Map.class).in(playerGames).get();
+        PlayerGame spy = spy(playerGames.get(0));
+        all.replaceAll((ref, playerGame) -> spy);
+        Reflection.field(PlayerGames.Fields.list).ofType(List.class).in(playerGames).set(null);
 
         doThrow(new RuntimeException()).when(spy).tick();
 
@@ -1362,10 +1416,37 @@ public class PlayerServiceImplTest {
         playerService.tick();
 
         // then
-        verify(actionLogger).log(playerGames);
+        verify(actionLogger).log(eq(playerGames.all()), anyMap());
 //        verifyNoMoreInteractions(actionLogger);
     }
 
+    @Test
+    public void shouldNotHoldGlobalLock_whenFieldsTick() {
+        // given
+        createPlayer(VASYA);
+
+        List<Player> players = new LinkedList<>();
+        doReturn((Tickable) () -> {
+            // пока тикаются поля, реестр игроков доступен из других потоков
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                players.addAll(executor.submit(() -> playerService.getAll())
+                        .get(1, TimeUnit.SECONDS));
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            } finally {
+                executor.shutdownNow();
+            }
+        }).when(playerGames).prepareTick();
+
+        // when
+        playerService.tick();
+
+        // then
+        assertEquals(1, players.size());
+        assertEquals(VASYA, players.get(0).getName());
+    }
+
     @Test
     public void shouldTickSemifinal_whenTick() {
         // given
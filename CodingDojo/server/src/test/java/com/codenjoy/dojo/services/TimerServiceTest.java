@@ -0,0 +1,132 @@
+package com.codenjoy.dojo.services;
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2018 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import org.fest.reflect.core.Reflection;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class TimerServiceTest {
+
+    private TimerService timer;
+
+    @Before
+    public void setup() {
+        timer = new TimerService();
+        Reflection.field("period").ofType(long.class).in(timer).set(1000L);
+        timer.setMinPeriod(100);
+    }
+
+    private void next(long time) {
+        Reflection.field("next").ofType(long.class).in(timer).set(time);
+    }
+
+    @Test
+    public void shouldKeepSchedule_caseFixedRate() {
+        // given
+        timer.setMode(TimerService.Mode.FIXED_RATE);
+        next(1000);
+
+        // when then
+        // тик начался в 1000 по расписанию и длился 300 мс - до 2000 осталось 700
+        assertEquals(700, timer.delay(1000, 1300));
+        assertEquals(0, timer.getStats().getSkipped());
+    }
+
+    @Test
+    public void shouldSkipMissedSlots_caseFixedRate() {
+        // given
+        timer.setMode(TimerService.Mode.FIXED_RATE);
+        next(1000);
+
+        // when then
+        // тик длился 2500 мс - слоты 2000 и 3000 пропущены, следующий в 4000
+        assertEquals(500, timer.delay(1000, 3500));
+        assertEquals(2, timer.getStats().getSkipped());
+    }
+
+    @Test
+    public void shouldWaitPeriodAfterTick_caseFixedDelay() {
+        // given
+        timer.setMode(TimerService.Mode.FIXED_DELAY);
+
+        // when then
+        assertEquals(1000, timer.delay(1000, 3500));
+    }
+
+    @Test
+    public void shouldWaitMinPeriod_caseAllAnswered() {
+        // given
+        timer.setMode(TimerService.Mode.ALL_ANSWERED);
+
+        // when then
+        assertEquals(70, timer.delay(1000, 1030));
+        assertEquals(0, timer.delay(1000, 1500));
+    }
+
+    @Test
+    public void shouldKeepPeriod_whenChangeToNotPositive() {
+        // when
+        timer.changePeriod(0);
+        timer.changePeriod(-100);
+
+        // then
+        assertEquals(1000, timer.getPeriod());
+    }
+
+    @Test
+    public void shouldNotBreakSchedule_whenPeriodIsNotPositive() {
+        // given
+        Reflection.field("period").ofType(long.class).in(timer).set(0L);
+        timer.setMode(TimerService.Mode.FIXED_RATE);
+        next(1000);
+
+        // when then
+        // вместо деления на ноль - период по умолчанию
+        assertEquals(700, timer.delay(1000, 1300));
+
+        // when
+        timer.setMode(TimerService.Mode.FIXED_DELAY);
+
+        // then
+        // и никакого холостого цикла
+        assertEquals(1000, timer.delay(1000, 1300));
+    }
+
+    @Test
+    public void shouldCollectStats() {
+        // given
+        TickStats stats = new TickStats();
+
+        // when
+        stats.tick(100, 1000);
+        stats.tick(1500, 1000);
+        stats.skipped(1);
+
+        // then
+        assertEquals("TickStats[count:2, last:1500, max:1500, average:800, overruns:1, skipped:1]",
+                stats.toString());
+    }
+}
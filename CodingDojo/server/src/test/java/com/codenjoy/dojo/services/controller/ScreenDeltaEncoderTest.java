@@ -0,0 +1,94 @@
+package com.codenjoy.dojo.services.controller;
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2018 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.utils.JsonUtils;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ScreenDeltaEncoderTest {
+
+    private String encode(ScreenDeltaEncoder encoder, String frame) {
+        return JsonUtils.clean(JsonUtils.toStringSorted(encoder.encode(new JSONObject(frame))));
+    }
+
+    @Test
+    public void shouldSendKeyframeFirst() {
+        ScreenDeltaEncoder encoder = new ScreenDeltaEncoder(10);
+
+        assertEquals("{'data':{'player':{'board':'ABCD','score':1}},'frame':'key'}",
+                encode(encoder, "{'player':{'board':'ABCD','score':1}}"));
+    }
+
+    @Test
+    public void shouldSendOnlyChanges() {
+        ScreenDeltaEncoder encoder = new ScreenDeltaEncoder(10);
+        encode(encoder, "{'player':{'board':'AAAAAAAAAAAAAAAAAAAAAAAAAAAAAA','score':1,'scores':{'player':1}}}");
+
+        assertEquals("{'data':{'player':{'board':[[1,'B'],[20,'CC']],'score':2,'scores':{'player':2}}},'frame':'delta'}",
+                encode(encoder, "{'player':{'board':'ABAAAAAAAAAAAAAAAAAACCAAAAAAAA','score':2,'scores':{'player':2}}}"));
+
+        assertEquals("{'data':{},'frame':'delta'}",
+                encode(encoder, "{'player':{'board':'ABAAAAAAAAAAAAAAAAAACCAAAAAAAA','score':2,'scores':{'player':2}}}"));
+    }
+
+    @Test
+    public void shouldSendAddedAndRemovedPlayers() {
+        ScreenDeltaEncoder encoder = new ScreenDeltaEncoder(10);
+        encode(encoder, "{'player1':{'board':'AB'}}");
+
+        assertEquals("{'data':{'player2':{'board':'CD'}},'frame':'delta','removed':['player1']}",
+                encode(encoder, "{'player2':{'board':'CD'}}"));
+    }
+
+    @Test
+    public void shouldSendKeyframePeriodically() {
+        ScreenDeltaEncoder encoder = new ScreenDeltaEncoder(2);
+
+        assertEquals("{'data':{'player':{'board':'AB'}},'frame':'key'}",
+                encode(encoder, "{'player':{'board':'AB'}}"));
+
+        assertEquals("{'data':{},'frame':'delta'}",
+                encode(encoder, "{'player':{'board':'AB'}}"));
+
+        assertEquals("{'data':{'player':{'board':'AB'}},'frame':'key'}",
+                encode(encoder, "{'player':{'board':'AB'}}"));
+    }
+
+    @Test
+    public void shouldDiffBoard() {
+        // мелкие промежутки склеиваются
+        assertEquals("[[1,'BAAB']]",
+                JsonUtils.clean(ScreenDeltaEncoder.diffBoard(
+                        "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAA",
+                        "ABAABAAAAAAAAAAAAAAAAAAAAAAAAA").toString()));
+
+        // поменялся размер - борда целиком
+        assertEquals("ABC", ScreenDeltaEncoder.diffBoard("AB", "ABC"));
+
+        // патч не меньше борды - борда целиком
+        assertEquals("BB", ScreenDeltaEncoder.diffBoard("AA", "BB"));
+    }
+}
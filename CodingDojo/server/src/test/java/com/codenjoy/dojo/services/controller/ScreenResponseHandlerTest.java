@@ -41,6 +41,7 @@ import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public class ScreenResponseHandlerTest {
 
@@ -265,6 +266,80 @@ public class ScreenResponseHandlerTest {
                 "}", JsonUtils.prettyPrint(result));
     }
 
+    @Test
+    public void shouldOnResponse_whenOnResponse_caseDelta() {
+        // given
+        socket = mock(PlayerSocket.class);
+
+        // when
+        handler.onResponse(socket,
+                "{'name':getScreen, 'allPlayersScreen':false, " +
+                        "'players':['player2'], 'gameName':'game', 'delta':true}");
+
+        // then
+        Function function = verifySetFilterFor();
+
+        Map<Player, PlayerData> map = getDummyPlayers();
+
+        // when
+        JSONObject result = (JSONObject)function.apply(map);
+
+        // then
+        assertEquals("key", result.getString("frame"));
+        assertEquals("some_board2", result.getJSONObject("data")
+                .getJSONObject("player2").getString("board"));
+
+        // when
+        map = getDummyPlayers();
+        map.put(new Player("player2"), new PlayerData(12, "some_board7", "game",
+                546, "some_info2", new JSONObject("{'player1':100,'player2':200}"),
+                new JSONObject("{'coordinates':'coordinates1','group':['player1','player2']}")));
+        result = (JSONObject)function.apply(map);
+
+        // then
+        assertEquals("{'data':{'player2':{'board':[[10,'7']]}},'frame':'delta'}",
+                JsonUtils.clean(JsonUtils.toStringSorted(result)));
+    }
+
+    @Test
+    public void shouldSendKeyframe_whenFrameLost() {
+        // given
+        socket = mock(PlayerSocket.class);
+        handler.onResponse(socket,
+                "{'name':getScreen, 'allPlayersScreen':false, " +
+                        "'players':['player2'], 'gameName':'game', 'delta':true}");
+        Function function = verifySetFilterFor();
+
+        assertEquals("key", ((JSONObject)function.apply(getDummyPlayers())).getString("frame"));
+        assertEquals("delta", ((JSONObject)function.apply(getDummyPlayers())).getString("frame"));
+
+        // when
+        handler.onLost(socket);
+
+        // then
+        assertEquals("key", ((JSONObject)function.apply(getDummyPlayers())).getString("frame"));
+        assertEquals("delta", ((JSONObject)function.apply(getDummyPlayers())).getString("frame"));
+    }
+
+    @Test
+    public void shouldSendKeyframe_whenFrameReplacesPending() {
+        // given
+        socket = mock(PlayerSocket.class);
+        handler.onResponse(socket,
+                "{'name':getScreen, 'allPlayersScreen':false, " +
+                        "'players':['player2'], 'gameName':'game', 'delta':true}");
+        Function function = verifySetFilterFor();
+
+        assertEquals("key", ((JSONObject)function.apply(getDummyPlayers())).getString("frame"));
+
+        // when
+        // предыдущий кадр еще ждет отправки, и этот его заменит
+        when(socket.hasPending()).thenReturn(true);
+
+        // then
+        assertEquals("key", ((JSONObject)function.apply(getDummyPlayers())).getString("frame"));
+    }
+
     private Map<Player, PlayerData> getDummyPlayers() {
         Map<Player, PlayerData> map = new HashMap<>();
 
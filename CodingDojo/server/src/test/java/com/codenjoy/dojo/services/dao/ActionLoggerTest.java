@@ -24,6 +24,8 @@ package com.codenjoy.dojo.services.dao;
 
 
 import com.codenjoy.dojo.services.*;
+import com.codenjoy.dojo.services.jdbc.CrudConnectionThreadPool;
+import com.codenjoy.dojo.services.jdbc.JDBCTimeUtils;
 import com.codenjoy.dojo.services.jdbc.SqliteConnectionThreadPoolFactory;
 import com.codenjoy.dojo.services.multiplayer.GameField;
 import com.codenjoy.dojo.services.multiplayer.MultiplayerType;
@@ -32,8 +34,17 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
+import static java.util.stream.Collectors.toList;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -42,24 +53,35 @@ public class ActionLoggerTest {
 
     private static ActionLogger logger;
 
+    private static String dbFile;
+
     @Before
     public void setup() {
-        String dbFile = "target/logs.db" + new Random().nextInt();
-        logger = new ActionLogger(
-                    new SqliteConnectionThreadPoolFactory(dbFile,
-                            new ContextPathGetter() {
-                                @Override
-                                public String getContext() {
-                                    return "context";
-                                }
-                            }))
+        dbFile = "target/logs.db" + new Random().nextInt();
+        logger = createLogger();
+        logger.setTicks(1);
+    }
+
+    private ActionLogger createLogger() {
+        ActionLogger result = new ActionLogger(factory())
         {
             @Override
             protected long now() {
                 return 123456789L;
             }
         };
-        logger.setTicks(1);
+        result.init();
+        return result;
+    }
+
+    private SqliteConnectionThreadPoolFactory factory() {
+        return new SqliteConnectionThreadPoolFactory(dbFile,
+                new ContextPathGetter() {
+                    @Override
+                    public String getContext() {
+                        return "context";
+                    }
+                });
     }
 
     @After
@@ -84,13 +106,219 @@ public class ActionLoggerTest {
         assertEquals("[]", logger.getAll().toString());
     }
 
+    @Test
+    public void shouldUseAlreadyRenderedBoards() throws InterruptedException {
+        logger.resume();
+
+        act(playerGames -> new HashMap<Player, String>(){{
+            put(playerGames.get("player1").getPlayer(), "rendered1");
+        }});
+
+        assertEquals("[BoardLog(time=123456789, playerName=player1, gameType=game1, score=123, board=rendered1, command=[]), " +
+                "BoardLog(time=123456789, playerName=player2, gameType=game2, score=234, board=board2, command=[])]", logger.getAll().toString());
+    }
+
+    @Test
+    public void shouldCompressBoards() throws InterruptedException {
+        logger.resume();
+        logger.setCompress(true);
+
+        act();
+
+        assertEquals("[BoardLog(time=123456789, playerName=player1, gameType=game1, score=123, board=board1, command=[]), " +
+                "BoardLog(time=123456789, playerName=player2, gameType=game2, score=234, board=board2, command=[])]", logger.getAll().toString());
+    }
+
+    @Test
+    public void shouldSkipTick_whenBufferIsFull() throws InterruptedException {
+        logger.resume();
+        logger.setBuffer(1);
+
+        act();
+
+        assertEquals("[]", logger.getAll().toString());
+        assertEquals(2, logger.getSkipped());
+    }
+
+    @Test
+    public void shouldSaveFullBuffer_whenItFilledDuringSave() throws InterruptedException {
+        CountDownLatch inFlight = new CountDownLatch(1);
+        AtomicInteger saves = new AtomicInteger();
+        logger = new ActionLogger(factory())
+        {
+            @Override
+            protected long now() {
+                return 123456789L;
+            }
+
+            @Override
+            public void saveToDB() {
+                // первое сохранение зависает и не успевает забрать то,
+                // что прилетит в буфер, пока оно идет
+                if (saves.getAndIncrement() == 0) {
+                    try {
+                        inFlight.await();
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                    return;
+                }
+                super.saveToDB();
+            }
+        };
+        logger.setTicks(1);
+        logger.setBuffer(1);
+        logger.resume();
+
+        PlayerGames playerGames = new PlayerGames();
+        addPlayer(playerGames, "board1", 123, "player1", "room", "game1");
+
+        // буфер заполнился, пока сохранение еще идет
+        logger.log(playerGames, Collections.emptyMap());
+        logger.log(playerGames, Collections.emptyMap());
+        assertEquals(1, logger.getSkipped());
+
+        inFlight.countDown();
+        Thread.sleep(300); // потому что сохранение в базу делается асинхронно и надо подождать
+
+        // when
+        // места в буфере нет, тик пропускается, но сохранение все равно запускается
+        logger.log(playerGames, Collections.emptyMap());
+        Thread.sleep(1000);
+
+        // then
+        assertEquals(2, logger.getSkipped());
+        assertEquals("[BoardLog(time=123456789, playerName=player1, gameType=game1, score=123, board=board1, command=[])]",
+                logger.getAll().toString());
+
+        // а буфер снова принимает борды (при таком маленьком буфере - каждый 4й тик)
+        logger.log(playerGames, Collections.emptyMap());
+        logger.log(playerGames, Collections.emptyMap());
+        Thread.sleep(1000);
+        assertEquals(2, logger.getAll().size());
+    }
+
+    @Test
+    public void shouldReplayBoards_fromKeyframesAndDiffs() throws InterruptedException {
+        logger.resume();
+        logger.setKeyframe(3);
+        logger.setCompress(true);
+
+        PlayerGames playerGames = new PlayerGames();
+        addPlayer(playerGames, "board", 123, "player1", "room", "game1");
+        Player player = playerGames.get("player1").getPlayer();
+
+        for (int tick = 0; tick < 7; tick++) {
+            logger.log(playerGames, Collections.singletonMap(player, "ab" + tick + "cdef" + (tick % 2)));
+        }
+        Thread.sleep(1000); // потому что сохранение в базу делается асинхронно и надо подождать
+        logger.saveToDB(); // то, что не успело попасть в последнее сохранение
+
+        assertEquals("[ab0cdef0, ab1cdef1, ab2cdef0, ab3cdef1, ab4cdef0, ab5cdef1, ab6cdef0]",
+                boards(logger.getAll()));
+
+        assertEquals(123456789L + 6, logger.getLastTime("player1"));
+
+        // 2+1 до и 2 после, хотя ключевой кадр был на тике 0 и 3
+        assertEquals("[ab2cdef0, ab3cdef1, ab4cdef0, ab5cdef1, ab6cdef0]",
+                boards(logger.getBoardLogsFor("player1", 123456789L + 4, 2)));
+
+        assertEquals("[ab0cdef0, ab1cdef1]",
+                boards(logger.getBoardLogsFor("player1", 123456789L, 1)));
+    }
+
+    @Test
+    public void shouldMigrateBoards_fromOldTable() {
+        // given
+        // так борды писались раньше - целиком, а время строкой
+        CrudConnectionThreadPool old = factory().create(
+                "CREATE TABLE IF NOT EXISTS player_boards (" +
+                    "time varchar(255), " +
+                    "player_name varchar(255), " +
+                    "game_type varchar(255), " +
+                    "score varchar(255), " +
+                    "command varchar(255), " +
+                    "board varchar(10000));");
+        for (int tick = 0; tick < 3; tick++) {
+            old.update("INSERT INTO player_boards " +
+                        "(time, player_name, game_type, score, command, board) " +
+                        "VALUES (?,?,?,?,?,?);",
+                    new Object[]{ JDBCTimeUtils.toString(new Date(123456000L + tick * 1000)),
+                            "player1", "game1", String.valueOf(100 + tick), "[]", "board" + tick });
+        }
+
+        // when
+        logger = createLogger();
+
+        // then
+        assertEquals("[BoardLog(time=123456000, playerName=player1, gameType=game1, score=100, board=board0, command=[]), " +
+                "BoardLog(time=123457000, playerName=player1, gameType=game1, score=101, board=board1, command=[]), " +
+                "BoardLog(time=123458000, playerName=player1, gameType=game1, score=102, board=board2, command=[])]",
+                logger.getAll().toString());
+        assertEquals(123458000L, logger.getLastTime("player1"));
+        assertEquals("[board0, board1, board2]",
+                boards(logger.getBoardLogsFor("player1", 123457000L, 1)));
+        assertEquals(0, (int)old.select("SELECT count(*) AS count FROM sqlite_master " +
+                        "WHERE type = 'table' AND name = 'player_boards';",
+                rs -> rs.next() ? rs.getInt("count") : -1));
+
+        // when
+        // переносится только раз
+        logger = createLogger();
+
+        // then
+        assertEquals(3, logger.getAll().size());
+    }
+
+    @Test
+    public void shouldForgetRemovedPlayer_afterSavingHisBoards() throws InterruptedException {
+        // given
+        logger.resume();
+        logger.setKeyframe(10);
+
+        PlayerGames playerGames = new PlayerGames();
+        addPlayer(playerGames, "board", 123, "player1", "room", "game1");
+        Player player = playerGames.get("player1").getPlayer();
+
+        logger.log(playerGames, Collections.singletonMap(player, "abcdef"));
+        logger.log(playerGames, Collections.singletonMap(player, "abXdef"));
+
+        // when
+        logger.remove(player);
+        Thread.sleep(1000); // потому что сохранение в базу делается асинхронно и надо подождать
+        logger.saveToDB(); // то, что не успело попасть в последнее сохранение
+
+        // вернулся под тем же именем
+        logger.log(playerGames, Collections.singletonMap(player, "abYdef"));
+        Thread.sleep(1000);
+        logger.saveToDB();
+
+        // then
+        // его первый кадр после удаления - снова ключевой
+        assertEquals("[abcdef, abXdef, abYdef]", boards(logger.getAll()));
+        assertEquals(2, (int)factory().create().select(
+                "SELECT count(*) AS count FROM player_replays WHERE keyframe = 1;",
+                rs -> rs.next() ? rs.getInt("count") : -1));
+    }
+
+    private String boards(List<BoardLog> logs) {
+        return logs.stream()
+                .map(BoardLog::getBoard)
+                .collect(toList())
+                .toString();
+    }
+
     private void act() throws InterruptedException {
+        act(playerGames -> Collections.emptyMap());
+    }
+
+    private void act(Function<PlayerGames, Map<Player, String>> boards) throws InterruptedException {
         PlayerGames playerGames = new PlayerGames();
 
         addPlayer(playerGames, "board1", 123, "player1", "room", "game1");
         addPlayer(playerGames, "board2", 234, "player2", "room", "game2");
 
-        logger.log(playerGames);
+        logger.log(playerGames, boards.apply(playerGames));
 
         Thread.sleep(1000); // потому что сохранение в базу делается асинхронно и надо подождать
     }
@@ -0,0 +1,48 @@
+package com.codenjoy.dojo.services.dao;
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2018 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BoardCompressorTest {
+
+    @Test
+    public void shouldDecompressCompressed() {
+        String board = "☼☼☼☼☼\n☼ ☺ ☼\n☼   ☼\n☼☼☼☼☼\n";
+
+        String compressed = BoardCompressor.compress(board);
+
+        assertTrue(compressed.startsWith(BoardCompressor.PREFIX));
+        assertEquals(board, BoardCompressor.decompress(compressed));
+    }
+
+    @Test
+    public void shouldReadNotCompressedAsIs() {
+        assertEquals("board", BoardCompressor.decompress("board"));
+        assertNull(BoardCompressor.decompress(null));
+    }
+}
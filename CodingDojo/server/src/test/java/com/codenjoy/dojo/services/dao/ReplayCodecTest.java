@@ -0,0 +1,90 @@
+package com.codenjoy.dojo.services.dao;
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2018 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ReplayCodecTest {
+
+    @Test
+    public void shouldDiffOnlyChangedParts() {
+        assertEquals("", ReplayCodec.diff("abcdefghij", "abcdefghij"));
+        assertEquals("1:1:X", ReplayCodec.diff("abcdefghij", "aXcdefghij"));
+        assertEquals("1:1:X9:1:Y", ReplayCodec.diff("abcdefghij", "aXcdefghiY"));
+
+        // близкие изменения склеиваются
+        assertEquals("1:3:X:Y", ReplayCodec.diff("abcdefghij", "aX:Yefghij"));
+    }
+
+    @Test
+    public void shouldApplyDiff() {
+        String from = "abcdefghij";
+        for (String to : new String[]{ "abcdefghij", "aXcdefghij", "aXcdefghiY", "aX:Yefghij", "0123456789" }) {
+            assertEquals(to, ReplayCodec.apply(from, ReplayCodec.diff(from, to)));
+        }
+    }
+
+    @Test
+    public void shouldWriteKeyframes_periodicallyAndWhenSizeChanged() {
+        ReplayCodec codec = new ReplayCodec(3, false);
+
+        assertTrue(codec.encode("player", "abc").isKeyframe());
+        assertFalse(codec.encode("player", "abd").isKeyframe());
+        assertFalse(codec.encode("player", "abe").isKeyframe());
+        assertTrue(codec.encode("player", "abf").isKeyframe());
+        assertTrue(codec.encode("player", "abcd").isKeyframe());
+        assertTrue(codec.encode("other", "abcd").isKeyframe());
+
+        codec.reset();
+        assertTrue(codec.encode("player", "abcd").isKeyframe());
+    }
+
+    @Test
+    public void shouldWriteKeyframe_whenPlayerForgotten() {
+        ReplayCodec codec = new ReplayCodec(10, false);
+        codec.encode("player", "abc");
+        codec.encode("other", "abc");
+
+        codec.forget("player");
+
+        assertTrue(codec.encode("player", "abd").isKeyframe());
+        assertFalse(codec.encode("other", "abd").isKeyframe());
+    }
+
+    @Test
+    public void shouldDecode() {
+        ReplayCodec codec = new ReplayCodec(10, true);
+
+        ReplayCodec.Frame first = codec.encode("player", "abcdef");
+        ReplayCodec.Frame second = codec.encode("player", "abXdef");
+
+        assertEquals("abcdef", ReplayCodec.decode(null, first));
+        assertEquals("abXdef", ReplayCodec.decode("abcdef", second));
+        assertNull(ReplayCodec.decode(null, second));
+    }
+}
@@ -0,0 +1,95 @@
+package com.codenjoy.dojo.services.lock;
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2018 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+
+import com.codenjoy.dojo.services.multiplayer.GameField;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+public class FieldLocksTest {
+
+    @Test
+    public void shouldSameLock_forSameField() {
+        // given
+        FieldLocks locks = new FieldLocks();
+        GameField field = mock(GameField.class);
+
+        // when then
+        assertSame(locks.get(field), locks.get(field));
+    }
+
+    @Test
+    public void shouldOneLock_forAllFields_whenSingleLock() {
+        // given
+        ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        FieldLocks locks = new FieldLocks(lock);
+
+        // when then
+        assertSame(lock, locks.get(mock(GameField.class)));
+        assertSame(lock, locks.get(mock(GameField.class)));
+    }
+
+    @Test
+    public void shouldLockCurrentField() {
+        // given
+        FieldLocks locks = new FieldLocks(2);
+        GameField field = mock(GameField.class);
+        AtomicReference<GameField> current = new AtomicReference<>(field);
+
+        // when
+        Lock lock = locks.lock(current::get);
+
+        // then
+        assertSame(locks.get(field).writeLock(), lock);
+        assertEquals(true, ((ReentrantReadWriteLock) locks.get(field)).isWriteLockedByCurrentThread());
+
+        lock.unlock();
+        assertEquals(false, ((ReentrantReadWriteLock) locks.get(field)).isWriteLocked());
+    }
+
+    @Test
+    public void shouldQuietTick_underFieldLock() {
+        // given
+        FieldLocks locks = new FieldLocks();
+        GameField field = mock(GameField.class);
+        AtomicReference<Boolean> locked = new AtomicReference<>();
+        doAnswer(inv -> {
+            locked.set(((ReentrantReadWriteLock) locks.get(field)).isWriteLockedByCurrentThread());
+            return null;
+        }).when(field).quietTick();
+
+        // when
+        locks.quietTick(field);
+
+        // then
+        assertEquals(true, locked.get());
+    }
+}
@@ -0,0 +1,103 @@
+package com.codenjoy.dojo.services.metrics;
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2018 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.utils.JsonUtils;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TickMetricsTest {
+
+    @Test
+    public void shouldPutToPowerOfTwoBuckets() {
+        assertEquals(0, Histogram.bucket(0));
+        assertEquals(0, Histogram.bucket(1024));
+        assertEquals(1, Histogram.bucket(1025));
+        assertEquals(1, Histogram.bucket(2048));
+        assertEquals(2, Histogram.bucket(2049));
+        assertEquals(Histogram.BUCKETS - 1, Histogram.bucket(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void shouldCalculatePercentiles() {
+        // given
+        Histogram histogram = new Histogram();
+
+        // when
+        for (int i = 0; i < 90; i++) {
+            histogram.add(1000);
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.add(1_000_000);
+        }
+
+        // then
+        assertEquals(100, histogram.getCount());
+        assertEquals(1_000_000, histogram.getMax());
+        assertEquals(1024, histogram.percentile(0.5));
+        assertEquals(1024, histogram.percentile(0.9));
+        assertEquals(1_000_000, histogram.percentile(0.99));
+    }
+
+    @Test
+    public void shouldBreakDownByGameTypeAndRoom() {
+        // given
+        TickMetrics metrics = new TickMetrics();
+
+        // when
+        metrics.record(TickMetrics.FIELD, "snake", "room1", 2000);
+        metrics.record(TickMetrics.FIELD, "snake", "room2", 4000);
+        metrics.record(TickMetrics.TOTAL, 10000);
+
+        // then
+        assertEquals("{'avgNs':3000,'count':2,'maxNs':4000,'p50Ns':2048,'p90Ns':4000,'p99Ns':4000,'sumNs':6000}",
+                JsonUtils.clean(JsonUtils.toStringSorted(
+                        metrics.toJson().getJSONObject("phases").getJSONObject(TickMetrics.FIELD))));
+
+        assertEquals(2, metrics.toJson().getJSONObject("gameTypes")
+                .getJSONObject("snake").getJSONObject(TickMetrics.FIELD).getLong("count"));
+
+        assertEquals(1, metrics.toJson().getJSONObject("rooms")
+                .getJSONObject("room2").getJSONObject(TickMetrics.FIELD).getLong("count"));
+    }
+
+    @Test
+    public void shouldExportPrometheus() {
+        // given
+        TickMetrics metrics = new TickMetrics();
+
+        // when
+        metrics.record(TickMetrics.FIELD, "snake", "room1", 2000);
+
+        // then
+        String text = metrics.toPrometheus();
+        assertTrue(text, text.contains("# TYPE codenjoy_tick_phase_seconds histogram\n"));
+        assertTrue(text, text.contains("codenjoy_tick_phase_seconds_bucket{phase=\"field\",le=\"1.024E-6\"} 0\n"));
+        assertTrue(text, text.contains("codenjoy_tick_phase_seconds_bucket{phase=\"field\",le=\"2.048E-6\"} 1\n"));
+        assertTrue(text, text.contains("codenjoy_tick_phase_seconds_bucket{phase=\"field\",le=\"+Inf\"} 1\n"));
+        assertTrue(text, text.contains("codenjoy_tick_phase_seconds_count{phase=\"field\"} 1\n"));
+        assertTrue(text, text.contains("codenjoy_game_phase_seconds_count{game=\"snake\",phase=\"field\"} 1\n"));
+    }
+}
@@ -0,0 +1,211 @@
+package com.codenjoy.dojo.services.multiplayer;
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2018 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SpreaderTest {
+
+    private static final MultiplayerType REUSABLE = MultiplayerType.TEAM.apply(2, !MultiplayerType.DISPOSABLE);
+
+    private Spreader spreader;
+    private List<GameField> fields;
+    private Supplier<GameField> supplier;
+
+    @Before
+    public void setup() {
+        spreader = new Spreader();
+        fields = new LinkedList<>();
+        supplier = () -> {
+            GameField field = mock(GameField.class);
+            fields.add(field);
+            return field;
+        };
+    }
+
+    private GamePlayer player() {
+        return mock(GamePlayer.class);
+    }
+
+    private GamePlayer stayingPlayer() {
+        GamePlayer result = player();
+        when(result.wantToStay()).thenReturn(true);
+        return result;
+    }
+
+    private GameField join(GamePlayer player, String roomName, MultiplayerType type) {
+        return spreader.fieldFor(player, roomName, type,
+                type.getRoomSize(), 0, supplier);
+    }
+
+    @Test
+    public void shouldCreateNewRoom_whenPreviousIsFilled() {
+        // given
+        GamePlayer player1 = player();
+        GamePlayer player2 = player();
+        GamePlayer player3 = player();
+        GamePlayer player4 = player();
+
+        // when
+        GameField field1 = join(player1, "room", MultiplayerType.TRIPLE);
+        GameField field2 = join(player2, "room", MultiplayerType.TRIPLE);
+
+        // then
+        assertSame(field1, field2);
+        assertEquals(false, spreader.isRoomStaffed(field1));
+
+        // when
+        GameField field3 = join(player3, "room", MultiplayerType.TRIPLE);
+        GameField field4 = join(player4, "room", MultiplayerType.TRIPLE);
+
+        // then
+        assertSame(field1, field3);
+        assertEquals(true, spreader.isRoomStaffed(field1));
+        assertNotSame(field1, field4);
+        assertEquals(false, spreader.isRoomStaffed(field4));
+        assertEquals(2, fields.size());
+        assertEquals(2, spreader.rooms().get("room").size());
+    }
+
+    @Test
+    public void shouldJoinSameRoom_whenPlayerLeftAndCameBack() {
+        // given
+        GamePlayer player1 = player();
+        GamePlayer player2 = stayingPlayer();
+        GameField field = join(player1, "room", REUSABLE);
+        join(player2, "room", REUSABLE);
+
+        // when
+        List<GamePlayer> removed = spreader.remove(player1);
+
+        // then
+        assertEquals(true, removed.isEmpty());
+        assertEquals(false, spreader.contains(player1));
+        assertEquals(true, spreader.contains(player2));
+
+        // when
+        GameField rejoined = join(player1, "room", REUSABLE);
+
+        // then
+        assertSame(field, rejoined);
+        assertEquals(true, spreader.contains(player1));
+        assertEquals(1, fields.size());
+        assertEquals(1, spreader.rooms().get("room").size());
+    }
+
+    @Test
+    public void shouldFillOldestFreeRoom_separatelyForEachRoomName() {
+        // given
+        GamePlayer player1 = player();
+        GamePlayer player2 = stayingPlayer();
+        GamePlayer player3 = player();
+        GamePlayer player4 = stayingPlayer();
+
+        GameField field1 = join(player1, "first", REUSABLE);
+        join(player2, "first", REUSABLE);
+        GameField field2 = join(player3, "first", REUSABLE);
+        join(player4, "first", REUSABLE);
+
+        // освобождаем сначала более новую комнату, потом более старую
+        spreader.remove(player3);
+        spreader.remove(player1);
+
+        // when
+        GameField other = join(player(), "second", REUSABLE);
+
+        // then
+        // в другой roomName свободные комнаты не попадают
+        assertNotSame(field1, other);
+        assertNotSame(field2, other);
+
+        // when
+        GameField first = join(player(), "first", REUSABLE);
+        GameField second = join(player(), "first", REUSABLE);
+        GameField third = join(player(), "first", REUSABLE);
+
+        // then
+        // первой заполняется самая старая комната
+        assertSame(field1, first);
+        assertSame(field2, second);
+        assertEquals(Arrays.asList(field1, field2, other, third), fields);
+    }
+
+    @Test
+    public void shouldForgetRoom_whenLastPlayerRemoved() {
+        // given
+        GamePlayer player1 = player();
+        GamePlayer player2 = player();
+        GameField field = join(player1, "room", REUSABLE);
+        join(player2, "room", REUSABLE);
+
+        // when
+        // второй игрок не хочет оставаться один и уходит тоже
+        List<GamePlayer> removed = spreader.remove(player1);
+
+        // then
+        assertEquals(Arrays.asList(player2), removed);
+        assertEquals(false, spreader.contains(player1));
+        assertEquals(false, spreader.contains(player2));
+        assertEquals(true, spreader.rooms().isEmpty());
+        assertIllegalRoom(field);
+
+        // when
+        GameField next = join(player1, "room", REUSABLE);
+
+        // then
+        // удаленная комната не осталась в списке свободных
+        assertNotSame(field, next);
+        assertEquals(2, fields.size());
+        assertEquals(1, spreader.rooms().get("room").size());
+    }
+
+    @Test
+    public void shouldThrowException_whenCheckStaffedForUnknownField() {
+        // given
+        join(player(), "room", MultiplayerType.TRIPLE);
+
+        // when then
+        assertIllegalRoom(mock(GameField.class));
+    }
+
+    private void assertIllegalRoom(GameField field) {
+        try {
+            spreader.isRoomStaffed(field);
+            fail("Expected exception");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Почему-то комната для поля не одна: 0", e.getMessage());
+        }
+    }
+
+}
@@ -28,9 +28,11 @@ import com.codenjoy.dojo.services.DebugService;
 import com.codenjoy.dojo.transport.auth.AuthenticationService;
 import org.eclipse.jetty.websocket.api.RemoteEndpoint;
 import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.WriteCallback;
 import org.eclipse.jetty.websocket.servlet.ServletUpgradeRequest;
 import org.eclipse.jetty.websocket.servlet.ServletUpgradeResponse;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
 import javax.servlet.http.HttpServletRequest;
 
@@ -39,7 +41,7 @@ import java.util.*;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 public class PlayerTransportTest {
@@ -78,7 +80,11 @@ public class PlayerTransportTest {
     }
 
     private void createServices(boolean waitForClient) {
-        transport = new PlayerTransportImpl();
+        createServices(waitForClient, false);
+    }
+
+    private void createServices(boolean waitForClient, boolean async) {
+        transport = new PlayerTransportImpl(async);
         authentication = mock(AuthenticationService.class);
         creator = new PlayerSocketCreator(transport, authentication, waitForClient);
     }
@@ -164,6 +170,163 @@ public class PlayerTransportTest {
         verify(webSocket3.getSession().getRemote()).sendString("{ONE=1, TWO=2, THREE=3}");
     }
 
+    @Test
+    public void shouldSerializeOnce_whenSocketsShareKeyedFilter() throws IOException {
+        // given
+        createServices(PlayerSocket.CLIENT_SEND_FIRST);
+
+        createServerWebSocket("id1");
+        createServerWebSocket("id2");
+
+        PlayerSocket webSocket1 = connectWebSocketClient("id1");
+        PlayerSocket webSocket2 = connectWebSocketClient("id2");
+
+        int[] calls = new int[1];
+        for (PlayerSocket socket : Arrays.asList(webSocket1, webSocket2)) {
+            socket.onWebSocketText("to upper case");
+            transport.setFilterFor(socket, KeyedFilter.of("same view",
+                    data -> {
+                        calls[0]++;
+                        return data.toString().toUpperCase();
+                    }));
+        }
+
+        // when send state
+        transport.sendStateToAll(new LinkedHashMap<String, Integer>(){{
+            put("one", 1);
+        }});
+
+        // then
+        assertEquals(1, calls[0]);
+        verify(webSocket1.getSession().getRemote()).sendString("{ONE=1}");
+        verify(webSocket2.getSession().getRemote()).sendString("{ONE=1}");
+    }
+
+    @Test
+    public void shouldSendAsync_andDropStaleFrames() throws IOException {
+        // given
+        createServices(PlayerSocket.CLIENT_SEND_FIRST, true);
+        createServerWebSocket("id");
+        PlayerSocket webSocket = connectWebSocketClient("id");
+        RemoteEndpoint remote = webSocket.getSession().getRemote();
+
+        // when
+        answerClient(webSocket);
+        transport.sendState("id", "first");
+
+        // клиент ответил, но первый кадр еще в пути
+        answerClient(webSocket);
+        transport.sendState("id", "second");
+
+        answerClient(webSocket);
+        transport.sendState("id", "third");
+
+        // then
+        ArgumentCaptor<WriteCallback> callback = ArgumentCaptor.forClass(WriteCallback.class);
+        verify(remote).sendString(eq("FIRST"), callback.capture());
+        verifyNoMoreInteractions(remote);
+        assertEquals("SendStats[sent:0, late:1, dropped:1, failed:0]",
+                transport.getStats().toString());
+
+        // when first frame delivered
+        callback.getValue().writeSuccess();
+
+        // then only the freshest one goes next
+        verify(remote).sendString(eq("THIRD"), any(WriteCallback.class));
+        verify(remote, never()).sendString(eq("SECOND"), any(WriteCallback.class));
+        verify(remote, never()).sendString(anyString());
+        assertEquals("SendStats[sent:1, late:1, dropped:1, failed:0]",
+                transport.getStats().toString());
+    }
+
+    @Test
+    public void shouldNotifyHandler_whenFrameDropped() throws IOException {
+        // given
+        createServices(PlayerSocket.CLIENT_SEND_FIRST, true);
+        createServerWebSocket("id");
+        ResponseHandler handler = handlers.get(0);
+        PlayerSocket webSocket = connectWebSocketClient("id");
+
+        answerClient(webSocket);
+        transport.sendState("id", "first");
+
+        answerClient(webSocket);
+        transport.sendState("id", "second");
+        assertEquals(true, webSocket.hasPending());
+        verify(handler, never()).onLost(webSocket);
+
+        // when
+        answerClient(webSocket);
+        transport.sendState("id", "third");
+
+        // then
+        verify(handler, times(1)).onLost(webSocket);
+    }
+
+    @Test
+    public void shouldDropPendingFrame_whenWriteFailed() throws IOException {
+        // given
+        createServices(PlayerSocket.CLIENT_SEND_FIRST, true);
+        createServerWebSocket("id");
+        ResponseHandler handler = handlers.get(0);
+        PlayerSocket webSocket = connectWebSocketClient("id");
+        RemoteEndpoint remote = webSocket.getSession().getRemote();
+
+        answerClient(webSocket);
+        transport.sendState("id", "first");
+
+        answerClient(webSocket);
+        transport.sendState("id", "second");
+
+        ArgumentCaptor<WriteCallback> callback = ArgumentCaptor.forClass(WriteCallback.class);
+        verify(remote).sendString(eq("FIRST"), callback.capture());
+
+        // when
+        callback.getValue().writeFailed(new IOException("broken pipe"));
+
+        // then
+        // второй кадр мог строиться относительно первого, а потому тоже не уходит
+        verify(handler).onLost(webSocket);
+        verify(remote, never()).sendString(eq("SECOND"), any(WriteCallback.class));
+        assertEquals(false, webSocket.hasPending());
+        assertEquals("SendStats[sent:0, late:1, dropped:1, failed:1]",
+                transport.getStats().toString());
+
+        // when
+        answerClient(webSocket);
+        transport.sendState("id", "third");
+
+        // then
+        verify(remote).sendString(eq("THIRD"), any(WriteCallback.class));
+    }
+
+    @Test(timeout = 5000)
+    public void shouldUnregisterPlayerSocket_whenClosedDuringSend() throws IOException {
+        // given
+        createServices(PlayerSocket.CLIENT_SEND_FIRST, true);
+        createServerWebSocket("id");
+        PlayerSocket webSocket = connectWebSocketClient("id");
+
+        Session session = webSocket.getSession();
+        RemoteEndpoint remote = session.getRemote();
+
+        // jetty может закрыть сокет прямо из отправки, в том же потоке
+        doAnswer(inv -> {
+            doReturn(false).when(session).isOpen();
+            webSocket.onWebSocketClose(123, "close reason");
+            return null;
+        }).when(remote).sendString(anyString(), any(WriteCallback.class));
+
+        answerClient(webSocket);
+
+        // when
+        assertEquals(true, transport.sendState("id", "first"));
+
+        // then
+        // сокет убран, как только отправка закончилась
+        assertEquals(false, transport.sendState("id", "second"));
+    }
+
     @Test
     public void shouldSendError_whenUserIsNotAuthenticate() throws IOException {
         // given